@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Benchmarks POST /api/auth/login against a local stub of the Identity Toolkit endpoint, so the
+# numbers reflect our outbound HTTP client rather than Google's latency or rate limits.
+# Runs the packaged jar once per client mode (pooled HTTP/1.1 and JDK HTTP/2), drives logins
+# with 'hey' (https://github.com/rakyll/hey), then prints the pool statistics from
+# GET /api/system/http-client and how many connections the stub saw for how many requests.
+#
+# Usage: scripts/auth-benchmark.sh [duration] [concurrency]
+#   duration     Duration of each run (default: 30s)
+#   concurrency  Concurrent logins (default: 100)
+#
+# Environment: STUB_LATENCY_MS (default 50), STUB_PORT (default 9099), PORT (default 8080)
+# Requirements: python3, 'hey' on the PATH and the jar built with 'mvn package'.
+set -euo pipefail
+
+DURATION="${1:-30s}"
+CONCURRENCY="${2:-100}"
+PORT="${PORT:-8080}"
+STUB_PORT="${STUB_PORT:-9099}"
+STUB_LATENCY_MS="${STUB_LATENCY_MS:-50}"
+JAR="${JAR:-target/srm-0.0.1-SNAPSHOT.jar}"
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+# Not one of the hardcoded demo accounts, so every login goes through AuthService
+LOGIN_BODY='{"email":"bench@example.com","password":"bench-password"}'
+
+command -v hey >/dev/null || { echo "'hey' not found on PATH" >&2; exit 1; }
+[ -f "$JAR" ] || { echo "$JAR not found; run 'mvn package' first" >&2; exit 1; }
+
+run_mode() {
+    local mode="$1" http2="$2"
+    echo "=== ${mode} client ==="
+    python3 "$SCRIPT_DIR/identity-stub.py" "$STUB_PORT" "$STUB_LATENCY_MS" > "loadtest-stub-${mode}.log" 2>&1 &
+    local stub_pid=$!
+    java -jar "$JAR" --server.port="$PORT" \
+        --srm.http.client.http2="$http2" \
+        --firebase.rest.identity-base-url="http://127.0.0.1:${STUB_PORT}" > "loadtest-auth-${mode}.log" 2>&1 &
+    local app_pid=$!
+    trap 'kill $app_pid $stub_pid 2>/dev/null || true' RETURN
+
+    for _ in $(seq 1 60); do
+        curl -s -o /dev/null "http://localhost:${PORT}/" && break
+        sleep 1
+    done
+
+    hey -z 5s -c 10 -m POST -T application/json -d "$LOGIN_BODY" \
+        "http://localhost:${PORT}/api/auth/login" > /dev/null
+    hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json -d "$LOGIN_BODY" \
+        "http://localhost:${PORT}/api/auth/login" \
+        | grep -E "Requests/sec|Average|99% in|\[[0-9]+\]"
+    echo "pool: $(curl -s "http://localhost:${PORT}/api/system/http-client")"
+
+    kill "$stub_pid"; wait "$stub_pid" 2>/dev/null || true
+    tail -n 1 "loadtest-stub-${mode}.log"
+}
+
+run_mode pooled false
+run_mode http2 true
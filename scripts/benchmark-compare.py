@@ -0,0 +1,69 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files (see scripts/benchmark.sh) benchmark by benchmark.
+
+Usage: scripts/benchmark-compare.py BASELINE.json CURRENT.json [--threshold PERCENT]
+
+Benchmarks are matched by name, mode and parameters. For each pair the change in score is printed
+(positive means slower for time-per-operation modes, faster for throughput). The exit status is 1
+when any benchmark regressed by more than the threshold (default 10%) and the regression exceeds
+the combined error margins of both runs, so noise alone does not fail a comparison.
+"""
+import argparse
+import json
+import sys
+
+# Modes where a larger score is better
+HIGHER_IS_BETTER = {"thrpt"}
+
+
+def load(path):
+    with open(path) as f:
+        runs = json.load(f)
+    results = {}
+    for run in runs:
+        params = ",".join(f"{k}={v}" for k, v in sorted((run.get("params") or {}).items()))
+        key = (run["benchmark"], run["mode"], params)
+        metric = run["primaryMetric"]
+        error = metric.get("scoreError")
+        results[key] = (metric["score"], 0.0 if error in (None, "NaN") else float(error), metric["scoreUnit"])
+    return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="regression threshold in percent")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = 0
+    print(f"{'benchmark':70} {'baseline':>14} {'current':>14} {'change':>9}")
+    for key in sorted(current):
+        name = key[0].rsplit(".", 2)[-2] + "." + key[0].rsplit(".", 1)[-1]
+        label = f"{name} [{key[2]}]" if key[2] else name
+        score, error, unit = current[key]
+        if key not in baseline:
+            print(f"{label:70} {'-':>14} {score:>10.2f} {unit:<3} {'new':>9}")
+            continue
+        base_score, base_error, _ = baseline[key]
+        change = (score - base_score) / base_score * 100 if base_score else 0.0
+        worse = -change if key[1] in HIGHER_IS_BETTER else change
+        significant = abs(score - base_score) > error + base_error
+        flag = ""
+        if worse > args.threshold and significant:
+            regressions += 1
+            flag = "  REGRESSION"
+        print(f"{label:70} {base_score:>10.2f} {unit:<3} {score:>10.2f} {unit:<3} {change:>+8.1f}%{flag}")
+    for key in sorted(set(baseline) - set(current)):
+        print(f"{key[0]} [{key[2]}] missing from current run")
+
+    if regressions:
+        print(f"{regressions} benchmark(s) regressed by more than {args.threshold:g}%", file=sys.stderr)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
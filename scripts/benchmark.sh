@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Runs the JMH benchmarks (src/jmh/java) and stores the results as JMH JSON under
+# target/benchmarks/, named after the current commit, so runs can be archived (e.g. as CI
+# artifacts) and compared with scripts/benchmark-compare.py.
+#
+# Usage: scripts/benchmark.sh [jmh arguments...]
+#   With no arguments every benchmark runs with its annotated settings. Arguments are passed to
+#   the JMH runner, e.g. a name filter and parameters:
+#     scripts/benchmark.sh FirestoreServiceBenchmark -p documents=1000,10000
+#   'scripts/benchmark.sh -l' lists the benchmarks, '-h' shows the JMH options.
+#
+# Environment: BASELINE (optional) - a previous result file; when set, the new run is compared
+#              against it and the script fails if any benchmark regressed beyond THRESHOLD percent
+#              (default 10).
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+cd "$SCRIPT_DIR/.."
+
+REVISION="$(git rev-parse --short HEAD 2>/dev/null || echo unknown)"
+if ! git diff --quiet HEAD 2>/dev/null; then
+    REVISION="${REVISION}-dirty"
+fi
+mkdir -p target/benchmarks
+RESULT="target/benchmarks/jmh-$(date +%Y%m%d-%H%M%S)-${REVISION}.json"
+
+mvn -B -q -Pbenchmark test-compile exec:exec -Djmh.result="$RESULT" -Djmh.args="$*"
+
+case " $* " in
+    *" -l "*|*" -h "*|*" -lp "*) exit 0 ;;
+esac
+echo "Results written to $RESULT"
+
+if [ -n "${BASELINE:-}" ]; then
+    python3 "$SCRIPT_DIR/benchmark-compare.py" "$BASELINE" "$RESULT" --threshold "${THRESHOLD:-10}"
+fi
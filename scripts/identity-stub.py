@@ -0,0 +1,76 @@
+#!/usr/bin/env python3
+"""Local stand-in for the Identity Toolkit 'accounts:signInWithPassword' endpoint.
+
+Answers every POST with a canned sign-in response after a configurable delay, speaks
+HTTP/1.1 keep-alive, and on exit (Ctrl-C / SIGTERM) prints how many TCP connections were
+opened for how many requests, which shows whether the client is reusing connections.
+
+Usage: scripts/identity-stub.py [port] [latency_ms]   (defaults: 9099, 50)
+"""
+import json
+import signal
+import sys
+import threading
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+PORT = int(sys.argv[1]) if len(sys.argv) > 1 else 9099
+LATENCY = (int(sys.argv[2]) if len(sys.argv) > 2 else 50) / 1000.0
+
+counters = {"connections": 0, "requests": 0}
+lock = threading.Lock()
+
+
+class StubHandler(BaseHTTPRequestHandler):
+    protocol_version = "HTTP/1.1"
+
+    def setup(self):
+        super().setup()
+        with lock:
+            counters["connections"] += 1
+
+    def read_body(self):
+        if self.headers.get("Transfer-Encoding", "").lower() == "chunked":
+            body = b""
+            while True:
+                size = int(self.rfile.readline().split(b";")[0], 16)
+                chunk = self.rfile.read(size + 2)[:size]
+                if size == 0:
+                    return body
+                body += chunk
+        return self.rfile.read(int(self.headers.get("Content-Length", 0)))
+
+    def do_POST(self):
+        request = json.loads(self.read_body() or b"{}")
+        time.sleep(LATENCY)
+        body = json.dumps({
+            "kind": "identitytoolkit#VerifyPasswordResponse",
+            "localId": "stub-uid",
+            "email": request.get("email", ""),
+            "idToken": "stub-id-token",
+            "refreshToken": "stub-refresh-token",
+            "expiresIn": "3600",
+            "registered": True,
+        }).encode()
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+        with lock:
+            counters["requests"] += 1
+
+    def log_message(self, *args):
+        pass
+
+
+def report(*_):
+    print(f"stub: {counters['requests']} requests over {counters['connections']} connections", flush=True)
+    sys.exit(0)
+
+
+signal.signal(signal.SIGTERM, report)
+signal.signal(signal.SIGINT, report)
+ThreadingHTTPServer.daemon_threads = True
+print(f"identity stub on :{PORT} with {int(LATENCY * 1000)} ms latency", flush=True)
+ThreadingHTTPServer(("127.0.0.1", PORT), StubHandler).serve_forever()
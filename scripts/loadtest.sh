@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Compares how many concurrent requests one instance sustains with the platform-thread pool
+# versus virtual threads. Starts the packaged jar once per mode, drives it with 'hey'
+# (https://github.com/rakyll/hey) at increasing concurrency and prints a summary per run.
+#
+# Usage: scripts/loadtest.sh [path] [duration]
+#   path      Endpoint to load (default: /api/export/students)
+#   duration  Duration of each run (default: 30s)
+#
+# The endpoint must hold a thread while it waits on Firestore for the comparison to mean anything.
+# The default export streams the Students collection through a blocking query for the whole response.
+# Endpoints answered from the reference data cache (/api/courses, /api/lecturers) make no Firestore
+# reads, and the other JSON endpoints wait on Firestore asynchronously without holding a thread, so
+# both modes perform the same on them.
+#
+# Requirements: a Java 21+ JDK, 'hey' on the PATH and the jar built with 'mvn package'.
+set -euo pipefail
+
+ENDPOINT="${1:-/api/export/students}"
+DURATION="${2:-30s}"
+PORT="${PORT:-8080}"
+JAR="${JAR:-target/srm-0.0.1-SNAPSHOT.jar}"
+CONCURRENCY_LEVELS="${CONCURRENCY_LEVELS:-50 200 400 800 1600}"
+# Keep the platform pool at Tomcat's default so the comparison reflects a stock deployment
+TOMCAT_MAX_THREADS="${TOMCAT_MAX_THREADS:-200}"
+
+command -v hey >/dev/null || { echo "'hey' not found on PATH" >&2; exit 1; }
+[ -f "$JAR" ] || { echo "$JAR not found; run 'mvn package' first" >&2; exit 1; }
+
+run_mode() {
+    local mode="$1" virtual="$2"
+    echo "=== ${mode} threads ==="
+    java -jar "$JAR" --server.port="$PORT" \
+        --spring.threads.virtual.enabled="$virtual" \
+        --server.tomcat.threads.max="$TOMCAT_MAX_THREADS" > "loadtest-${mode}.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+
+    # Wait for the application to accept connections
+    for _ in $(seq 1 60); do
+        curl -s -o /dev/null "http://localhost:${PORT}/" && break
+        sleep 1
+    done
+
+    # Warm-up run so JIT and connection pools are settled
+    hey -z 10s -c 20 "http://localhost:${PORT}${ENDPOINT}" > /dev/null
+
+    for c in $CONCURRENCY_LEVELS; do
+        echo "--- concurrency ${c} ---"
+        hey -z "$DURATION" -c "$c" "http://localhost:${PORT}${ENDPOINT}" \
+            | grep -E "Requests/sec|Average|99% in|\[[0-9]+\]"
+    done
+}
+
+run_mode platform false
+run_mode virtual true
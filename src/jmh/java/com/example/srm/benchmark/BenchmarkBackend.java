@@ -0,0 +1,131 @@
+package com.example.srm.benchmark;
+
+import com.example.srm.model.Course;
+import com.example.srm.model.Result;
+import com.example.srm.model.Student;
+import com.example.srm.service.CourseStatsProjection;
+import com.example.srm.service.DocumentCodecs;
+import com.example.srm.service.DocumentIds;
+import com.example.srm.service.FirestoreMetrics;
+import com.example.srm.service.FirestoreService;
+import com.example.srm.service.ReferenceDataCache;
+import com.example.srm.service.TranscriptProjection;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.cloud.FirestoreClient;
+import com.google.firestore.v1.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A FirestoreService wired to an InMemoryFirestoreRpc through the default FirebaseApp, seeded with
+ * a deterministic data set: 'size' results and 'size' students, spread over COURSES courses.
+ * Each JMH trial runs in its own forked JVM, so the default app is created once per trial.
+ */
+final class BenchmarkBackend {
+
+    static final int COURSES = 50;
+    static final String PROJECT_ID = "srm-benchmark";
+
+    final InMemoryFirestoreRpc rpc = new InMemoryFirestoreRpc();
+    final FirestoreService service;
+    final Firestore firestore;
+    private final FirebaseApp app;
+    private Map<String, Document> seeded;
+
+    BenchmarkBackend() {
+        app = FirebaseApp.initializeApp(FirebaseOptions.builder()
+                // Never refreshed or sent anywhere; the in-memory backend ignores credentials
+                .setCredentials(GoogleCredentials.create(new AccessToken("benchmark", new Date(Long.MAX_VALUE))))
+                .setProjectId(PROJECT_ID)
+                .setFirestoreOptions(rpc.options(PROJECT_ID))
+                .build());
+        firestore = FirestoreClient.getFirestore(app);
+
+        ReferenceDataCache referenceDataCache = new ReferenceDataCache();
+        CourseStatsProjection courseStats = new CourseStatsProjection();
+        ReflectionTestUtils.setField(courseStats, "passMark", 50);
+        TranscriptProjection transcripts = new TranscriptProjection(referenceDataCache, "O=10,A+=9,A=8,B+=7,B=6,C=5,P=4,F=0,Ab=0");
+        service = new FirestoreService(referenceDataCache, List.of(courseStats, transcripts), courseStats, transcripts,
+                new FirestoreMetrics(new SimpleMeterRegistry()));
+        // The @Value defaults from application.properties
+        ReflectionTestUtils.setField(service, "defaultPageLimit", 50);
+        ReflectionTestUtils.setField(service, "maxPageLimit", 500);
+        ReflectionTestUtils.setField(service, "bulkInitialOpsPerSecond", 10_000);
+        ReflectionTestUtils.setField(service, "legacyLookup", true);
+    }
+
+    static String courseCode(int index) {
+        return String.format("CS%03d", index % COURSES);
+    }
+
+    static String rollNumber(int index) {
+        return String.format("SRM%06d", index);
+    }
+
+    static Result result(Random random, int student) {
+        return result(random, student, COURSES);
+    }
+
+    /**
+     * @param courses Number of courses (from CS000) the result may be for
+     */
+    static Result result(Random random, int student, int courses) {
+        int marks = random.nextInt(101);
+        String grade = marks >= 90 ? "O" : marks >= 80 ? "A" : marks >= 60 ? "B" : marks >= 50 ? "P" : "F";
+        return new Result(null, rollNumber(student), courseCode(random.nextInt(courses)), marks, grade);
+    }
+
+    /**
+     * Writes the data set straight through the client in batches of 500, bypassing the read models.
+     * Students get natural-key IDs; results keep auto-style IDs like data written before those existed
+     * (the random data set has several results per student and course).
+     */
+    void seed(int size) throws Exception {
+        Random random = new Random(42);
+        WriteBatch batch = firestore.batch();
+        int pending = COURSES;
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course(courseCode(i), courseCode(i), "Course " + i, "Lecturer " + i);
+            batch.set(firestore.collection("Courses").document(course.getId()), DocumentCodecs.COURSE.encode(course));
+        }
+        for (int i = 0; i < size; i++) {
+            String studentId = DocumentIds.student(rollNumber(i));
+            Student student = new Student(studentId, rollNumber(i), "Student " + i, "student" + i + "@example.edu");
+            batch.set(firestore.collection("Students").document(studentId), DocumentCodecs.STUDENT.encode(student));
+
+            Result result = result(random, random.nextInt(size));
+            result.setId(String.format("result-%06d", i));
+            batch.set(firestore.collection("Results").document(result.getId()), DocumentCodecs.RESULT.encode(result));
+            pending += 2;
+            if (pending >= 499) {
+                batch.commit().get();
+                batch = firestore.batch();
+                pending = 0;
+            }
+        }
+        batch.commit().get();
+        seeded = rpc.snapshot();
+    }
+
+    /**
+     * Puts the store back to the seeded state, discarding documents written by benchmarks.
+     */
+    void reset() {
+        rpc.restore(seeded);
+    }
+
+    void close() {
+        app.delete();
+        rpc.shutdownNow();
+    }
+}
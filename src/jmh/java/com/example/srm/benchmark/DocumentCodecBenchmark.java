@@ -0,0 +1,110 @@
+package com.example.srm.benchmark;
+
+import com.example.srm.model.Course;
+import com.example.srm.model.Dispute;
+import com.example.srm.model.Lecturer;
+import com.example.srm.model.Result;
+import com.example.srm.model.Student;
+import com.example.srm.service.DocumentCodec;
+import com.example.srm.service.DocumentCodecs;
+import com.google.cloud.firestore.BenchmarkSnapshots;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-document cost of mapping Firestore documents to models and back: the hand-written codecs in
+ * DocumentCodecs against Firestore's reflective bean mapper (toObject() to read, set(pojo) to write).
+ * Writes are measured up to the protobuf encoding done by WriteBatch.set(); nothing is sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentCodecBenchmark {
+
+    @Param({"Student", "Course", "Lecturer", "Result", "Dispute"})
+    public String model;
+
+    private Firestore firestore;
+    private DocumentReference reference;
+    private DocumentSnapshot snapshot;
+    private Object sample;
+    private Class<Object> type;
+    private DocumentCodec<Object> codec;
+    private DocumentCodec<Object> reflective;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        firestore = BenchmarkSnapshots.offlineFirestore();
+        reference = firestore.collection(model + "s").document("doc-000123");
+        Map<String, Object> data = switch (model) {
+            case "Student" -> Map.of("id", "doc-000123", "rollNumber", "SRM000123",
+                    "name", "Student 123", "email", "student123@example.edu");
+            case "Course" -> Map.of("id", "doc-000123", "courseCode", "CS123",
+                    "courseName", "Distributed Systems", "courseInstructor", "Dr. Rao");
+            case "Lecturer" -> Map.of("id", "doc-000123", "lecturerId", "LEC123",
+                    "lecturerName", "Dr. Rao", "lecturerEmail", "rao@example.edu");
+            case "Result" -> Map.of("id", "doc-000123", "rollNumber", "SRM000123",
+                    "courseCode", "CS123", "marks", 87L, "grade", "A");
+            case "Dispute" -> Map.of("id", "doc-000123", "rollNumber", "SRM000123",
+                    "courseCode", "CS123", "reason", "Marks for question 4 were not added.", "status", "Pending");
+            default -> throw new IllegalArgumentException("Unknown model " + model);
+        };
+        snapshot = BenchmarkSnapshots.snapshot(firestore, reference, data);
+        type = (Class<Object>) switch (model) {
+            case "Student" -> Student.class;
+            case "Course" -> Course.class;
+            case "Lecturer" -> Lecturer.class;
+            case "Result" -> Result.class;
+            default -> Dispute.class;
+        };
+        codec = DocumentCodecs.forType(type);
+        reflective = new DocumentCodecs.ReflectiveCodec<>(type);
+        sample = codec.decode(snapshot);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        firestore.close();
+    }
+
+    @Benchmark
+    public Object decodeReflective() {
+        return reflective.decode(snapshot);
+    }
+
+    @Benchmark
+    public Object decodeCodec() {
+        return codec.decode(snapshot);
+    }
+
+    @Benchmark
+    public Object encodeReflective() {
+        return firestore.batch().set(reference, reflective.encode(sample));
+    }
+
+    @Benchmark
+    public Object encodeCodec() {
+        return firestore.batch().set(reference, codec.encode(sample));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.srm.benchmark;
+
+import com.example.srm.model.Page;
+import com.example.srm.model.Result;
+import com.example.srm.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FirestoreService list and write paths against the in-memory backend, at 1k/10k/100k documents
+ * per collection. Reads go through the real Firestore client (query building, response decoding,
+ * codecs, paging); writes include the read-model updates committed with every result.
+ * The store is put back to the seeded state after every iteration so writes do not grow it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FirestoreServiceBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int IMPORT_ROWS = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int documents;
+
+    private BenchmarkBackend backend;
+    private Random random;
+    // Students beyond the seeded ones, so added results never collide with an existing one
+    private int nextStudent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = new BenchmarkBackend();
+        backend.seed(documents);
+        random = new Random(7);
+        nextStudent = documents;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reset() {
+        backend.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    // --- Lists ---
+
+    @Benchmark
+    public List<Result> listAllResults() {
+        return backend.service.getAllResultsAsync().join();
+    }
+
+    @Benchmark
+    public List<Student> listAllStudents() {
+        return backend.service.getAllStudentsAsync().join();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> listAllResultsProjected() {
+        return backend.service.getAllProjectedAsync(Result.class, "rollNumber,courseCode,grade").join();
+    }
+
+    @Benchmark
+    public Page<Result> firstResultPage() {
+        return backend.service.getResultsPageAsync(PAGE_SIZE, null, null).join();
+    }
+
+    @Benchmark
+    public Page<Result> resultPageOrderedByMarks() {
+        return backend.service.getResultsPageAsync(PAGE_SIZE, null, "marks").join();
+    }
+
+    @Benchmark
+    public Page<Result> resultsByCourse() {
+        return backend.service.getResultsByCourseAsync(BenchmarkBackend.courseCode(random.nextInt(BenchmarkBackend.COURSES)),
+                PAGE_SIZE, null, null).join();
+    }
+
+    // --- Natural-key lookups ---
+
+    /**
+     * One document read: the student's ID is derived from the roll number.
+     */
+    @Benchmark
+    public Student studentByRollNumber() {
+        return backend.service.getStudentByRollNumberAsync(BenchmarkBackend.rollNumber(random.nextInt(documents))).join();
+    }
+
+    /**
+     * The seeded results keep their old IDs, so this is a missed read plus the legacy query:
+     * what every lookup costs before the natural-ID migration.
+     */
+    @Benchmark
+    public Result resultByKeyBeforeMigration() {
+        return backend.service.getResultAsync(BenchmarkBackend.rollNumber(random.nextInt(documents)),
+                BenchmarkBackend.courseCode(random.nextInt(BenchmarkBackend.COURSES))).join();
+    }
+
+    // --- Writes ---
+
+    /**
+     * One result written in a batch together with its course statistics and transcript updates.
+     */
+    @Benchmark
+    public Result addResult() {
+        return backend.service.addResultAsync(BenchmarkBackend.result(random, nextStudent++)).join();
+    }
+
+    /**
+     * A bulk import of IMPORT_ROWS results through BulkWriter, including the merged read-model writes.
+     */
+    @Benchmark
+    public List<Result> importResults() {
+        List<Result> rows = new ArrayList<>(IMPORT_ROWS);
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            rows.add(BenchmarkBackend.result(random, nextStudent++));
+        }
+        List<CompletableFuture<Result>> writes = backend.service.addResultsBulkAsync(rows);
+        return writes.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,868 @@
+package com.example.srm.benchmark;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import com.google.api.gax.rpc.BidiStreamingCallable;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.StreamController;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.google.cloud.firestore.FirestoreRpcFactory;
+import com.google.cloud.firestore.spi.v1.FirestoreRpc;
+import com.google.cloud.firestore.v1.FirestoreClient;
+import com.google.firestore.v1.AggregationResult;
+import com.google.firestore.v1.ArrayValue;
+import com.google.firestore.v1.BatchGetDocumentsRequest;
+import com.google.firestore.v1.BatchGetDocumentsResponse;
+import com.google.firestore.v1.BatchWriteRequest;
+import com.google.firestore.v1.BatchWriteResponse;
+import com.google.firestore.v1.BeginTransactionRequest;
+import com.google.firestore.v1.BeginTransactionResponse;
+import com.google.firestore.v1.CommitRequest;
+import com.google.firestore.v1.CommitResponse;
+import com.google.firestore.v1.Cursor;
+import com.google.firestore.v1.Document;
+import com.google.firestore.v1.DocumentTransform.FieldTransform;
+import com.google.firestore.v1.ListCollectionIdsRequest;
+import com.google.firestore.v1.ListDocumentsRequest;
+import com.google.firestore.v1.ListenRequest;
+import com.google.firestore.v1.ListenResponse;
+import com.google.firestore.v1.MapValue;
+import com.google.firestore.v1.PartitionQueryRequest;
+import com.google.firestore.v1.RollbackRequest;
+import com.google.firestore.v1.RunAggregationQueryRequest;
+import com.google.firestore.v1.RunAggregationQueryResponse;
+import com.google.firestore.v1.RunQueryRequest;
+import com.google.firestore.v1.RunQueryResponse;
+import com.google.firestore.v1.StructuredAggregationQuery;
+import com.google.firestore.v1.StructuredQuery;
+import com.google.firestore.v1.Value;
+import com.google.firestore.v1.Write;
+import com.google.firestore.v1.WriteResult;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
+import com.google.protobuf.Timestamp;
+import io.grpc.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A Firestore backend held in memory, plugged into the real client through FirestoreOptions'
+ * RPC factory, so FirestoreService runs unchanged (queries, batches, transactions, BulkWriter)
+ * without network or emulator. Benchmarks therefore measure the client and service code plus a
+ * cheap local stand-in for the server; absolute numbers exclude network and server latency.
+ *
+ * Supports what the application uses: single-collection queries with field/composite/unary filters,
+ * ordering, cursors, offset, limit and select; count() aggregations; document gets with
+ * masks; commits and batch writes with merge masks, preconditions and increment/server-timestamp/array
+ * transforms; transactions without contention checks. Listeners are not supported.
+ * Optionally, responses are delayed by a round-trip time and writes to the same document are
+ * spaced out (see setLatency and setDocumentWriteInterval).
+ */
+public final class InMemoryFirestoreRpc implements FirestoreRpc {
+
+    private final NavigableMap<String, Document> documents = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+    private final AtomicLong transactions = new AtomicLong();
+    private volatile long latencyNanos;
+    private volatile long documentWriteIntervalNanos;
+    // Earliest time (System.nanoTime) each document accepts its next write
+    private final Map<String, Long> nextWriteAt = new HashMap<>();
+
+    /**
+     * @return Options for a client backed by this store
+     */
+    public FirestoreOptions options(String projectId) {
+        return FirestoreOptions.newBuilder()
+                .setProjectId(projectId)
+                .setServiceRpcFactory((FirestoreRpcFactory) options -> this)
+                .build();
+    }
+
+    /**
+     * Delays every response by a fixed round-trip time, standing in for network and server latency
+     * where a benchmark depends on it (e.g. how many RPCs a request waits for). Zero by default.
+     */
+    public void setLatency(Duration latency) {
+        latencyNanos = latency.toNanos();
+    }
+
+    /**
+     * Lets each document accept one write per interval: a commit or batch write completes only once
+     * every document it writes is free, and then holds them for the interval. This models Firestore's
+     * limited sustained write rate per document, which makes frequently updated documents (course
+     * statistics during a grading window) the bottleneck. Zero (no limit) by default.
+     */
+    public void setDocumentWriteInterval(Duration interval) {
+        documentWriteIntervalNanos = interval.toNanos();
+    }
+
+    /**
+     * @return The number of documents currently stored
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * @return A copy of the stored documents, to be put back with restore()
+     */
+    public Map<String, Document> snapshot() {
+        return Map.copyOf(documents);
+    }
+
+    public void restore(Map<String, Document> snapshot) {
+        synchronized (documents) {
+            documents.clear();
+            documents.putAll(snapshot);
+        }
+        synchronized (nextWriteAt) {
+            nextWriteAt.clear();
+        }
+    }
+
+    // --- Reads ---
+
+    @Override
+    public ServerStreamingCallable<BatchGetDocumentsRequest, BatchGetDocumentsResponse> batchGetDocumentsCallable() {
+        return new ServerStreamingCallable<>() {
+            @Override
+            public void call(BatchGetDocumentsRequest request, ResponseObserver<BatchGetDocumentsResponse> observer,
+                             ApiCallContext context) {
+                stream(observer, () -> batchGet(request));
+            }
+        };
+    }
+
+    private List<BatchGetDocumentsResponse> batchGet(BatchGetDocumentsRequest request) {
+        Timestamp readTime = now();
+        ByteString transaction = request.hasNewTransaction() ? newTransactionId() : ByteString.EMPTY;
+        List<BatchGetDocumentsResponse> responses = new ArrayList<>();
+        for (String name : request.getDocumentsList()) {
+            Document document = documents.get(name);
+            BatchGetDocumentsResponse.Builder response = BatchGetDocumentsResponse.newBuilder()
+                    .setReadTime(readTime)
+                    .setTransaction(transaction);
+            if (document == null) {
+                response.setMissing(name);
+            } else {
+                response.setFound(request.hasMask() ? select(document, request.getMask().getFieldPathsList()) : document);
+            }
+            responses.add(response.build());
+        }
+        return responses;
+    }
+
+    @Override
+    public ServerStreamingCallable<RunQueryRequest, RunQueryResponse> runQueryCallable() {
+        return new ServerStreamingCallable<>() {
+            @Override
+            public void call(RunQueryRequest request, ResponseObserver<RunQueryResponse> observer, ApiCallContext context) {
+                stream(observer, () -> runQuery(request));
+            }
+        };
+    }
+
+    private List<RunQueryResponse> runQuery(RunQueryRequest request) {
+        Timestamp readTime = now();
+        ByteString transaction = request.hasNewTransaction() ? newTransactionId() : ByteString.EMPTY;
+        List<RunQueryResponse> responses = new ArrayList<>();
+        for (Document document : query(request.getParent(), request.getStructuredQuery())) {
+            responses.add(RunQueryResponse.newBuilder()
+                    .setDocument(document)
+                    .setReadTime(readTime)
+                    .setTransaction(transaction)
+                    .build());
+        }
+        if (responses.isEmpty()) {
+            responses.add(RunQueryResponse.newBuilder().setReadTime(readTime).setTransaction(transaction).build());
+        }
+        return responses;
+    }
+
+    @Override
+    public ServerStreamingCallable<RunAggregationQueryRequest, RunAggregationQueryResponse> runAggregationQueryCallable() {
+        return new ServerStreamingCallable<>() {
+            @Override
+            public void call(RunAggregationQueryRequest request, ResponseObserver<RunAggregationQueryResponse> observer,
+                             ApiCallContext context) {
+                stream(observer, () -> List.of(aggregate(request)));
+            }
+        };
+    }
+
+    /**
+     * count() over the documents the structured query matches (the only aggregation this client version has).
+     */
+    private RunAggregationQueryResponse aggregate(RunAggregationQueryRequest request) {
+        StructuredAggregationQuery aggregation = request.getStructuredAggregationQuery();
+        List<Document> matches = query(request.getParent(), aggregation.getStructuredQuery());
+        AggregationResult.Builder result = AggregationResult.newBuilder();
+        for (StructuredAggregationQuery.Aggregation function : aggregation.getAggregationsList()) {
+            if (!function.hasCount()) {
+                throw new UnsupportedOperationException("Aggregation " + function.getOperatorCase());
+            }
+            long count = matches.size();
+            if (function.getCount().hasUpTo()) {
+                count = Math.min(count, function.getCount().getUpTo().getValue());
+            }
+            result.putAggregateFields(function.getAlias(), Value.newBuilder().setIntegerValue(count).build());
+        }
+        return RunAggregationQueryResponse.newBuilder().setResult(result).setReadTime(now()).build();
+    }
+
+    private List<Document> query(String parent, StructuredQuery query) {
+        StructuredQuery.CollectionSelector from = query.getFrom(0);
+        String prefix = parent + "/" + from.getCollectionId() + "/";
+        List<StructuredQuery.Order> orders = new ArrayList<>(query.getOrderByList());
+        if (orders.stream().noneMatch(order -> isName(order.getField()))) {
+            StructuredQuery.Direction last = orders.isEmpty()
+                    ? StructuredQuery.Direction.ASCENDING : orders.get(orders.size() - 1).getDirection();
+            orders.add(StructuredQuery.Order.newBuilder()
+                    .setField(StructuredQuery.FieldReference.newBuilder().setFieldPath("__name__"))
+                    .setDirection(last)
+                    .build());
+        }
+        // Ordered by name and no other sort key: walk the sorted store and stop at the limit
+        boolean nameOrderOnly = orders.size() == 1 && orders.get(0).getDirection() != StructuredQuery.Direction.DESCENDING;
+        int limit = query.hasLimit() ? query.getLimit().getValue() : Integer.MAX_VALUE;
+        int skip = query.getOffset();
+
+        List<Document> matches = new ArrayList<>();
+        for (Document document : documents.tailMap(parent + "/", false).values()) {
+            String name = document.getName();
+            if (!name.startsWith(parent + "/")) {
+                break;
+            }
+            if (from.getAllDescendants() ? !collectionId(name).equals(from.getCollectionId())
+                    : !name.startsWith(prefix) || name.indexOf('/', prefix.length()) >= 0) {
+                continue;
+            }
+            if (query.hasWhere() && !matches(document, query.getWhere())) {
+                continue;
+            }
+            if (!hasOrderFields(document, orders)
+                    || query.hasStartAt() && !afterStart(document, orders, query.getStartAt())
+                    || query.hasEndAt() && !beforeEnd(document, orders, query.getEndAt())) {
+                continue;
+            }
+            matches.add(document);
+            if (nameOrderOnly && matches.size() >= (long) skip + limit) {
+                break;
+            }
+        }
+        if (!nameOrderOnly) {
+            matches.sort((a, b) -> compareByOrder(a, b, orders));
+        }
+        List<Document> page = matches.subList(Math.min(skip, matches.size()), matches.size());
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+        }
+        if (!query.hasSelect()) {
+            return page;
+        }
+        List<String> fields = query.getSelect().getFieldsList().stream()
+                .map(StructuredQuery.FieldReference::getFieldPath).toList();
+        return page.stream().map(document -> select(document, fields)).toList();
+    }
+
+    private static String collectionId(String name) {
+        String[] segments = name.split("/");
+        return segments[segments.length - 2];
+    }
+
+    private static boolean isName(StructuredQuery.FieldReference field) {
+        return "__name__".equals(field.getFieldPath());
+    }
+
+    private static Value fieldValue(Document document, String fieldPath) {
+        if ("__name__".equals(fieldPath)) {
+            return Value.newBuilder().setReferenceValue(document.getName()).build();
+        }
+        return get(document.getFieldsMap(), parsePath(fieldPath));
+    }
+
+    private static boolean matches(Document document, StructuredQuery.Filter filter) {
+        switch (filter.getFilterTypeCase()) {
+            case COMPOSITE_FILTER -> {
+                boolean and = filter.getCompositeFilter().getOp() != StructuredQuery.CompositeFilter.Operator.OR;
+                for (StructuredQuery.Filter child : filter.getCompositeFilter().getFiltersList()) {
+                    if (matches(document, child) != and) {
+                        return !and;
+                    }
+                }
+                return and;
+            }
+            case UNARY_FILTER -> {
+                Value value = fieldValue(document, filter.getUnaryFilter().getField().getFieldPath());
+                boolean isNull = value != null && value.getValueTypeCase() == Value.ValueTypeCase.NULL_VALUE;
+                boolean isNan = value != null && value.getValueTypeCase() == Value.ValueTypeCase.DOUBLE_VALUE
+                        && Double.isNaN(value.getDoubleValue());
+                return switch (filter.getUnaryFilter().getOp()) {
+                    case IS_NULL -> isNull;
+                    case IS_NOT_NULL -> value != null && !isNull;
+                    case IS_NAN -> isNan;
+                    case IS_NOT_NAN -> value != null && !isNan;
+                    default -> throw new UnsupportedOperationException("Unary filter " + filter.getUnaryFilter().getOp());
+                };
+            }
+            case FIELD_FILTER -> {
+                StructuredQuery.FieldFilter fieldFilter = filter.getFieldFilter();
+                Value value = fieldValue(document, fieldFilter.getField().getFieldPath());
+                Value operand = fieldFilter.getValue();
+                if (value == null) {
+                    return false;
+                }
+                return switch (fieldFilter.getOp()) {
+                    case EQUAL -> compare(value, operand) == 0;
+                    case NOT_EQUAL -> compare(value, operand) != 0;
+                    case LESS_THAN -> sameType(value, operand) && compare(value, operand) < 0;
+                    case LESS_THAN_OR_EQUAL -> sameType(value, operand) && compare(value, operand) <= 0;
+                    case GREATER_THAN -> sameType(value, operand) && compare(value, operand) > 0;
+                    case GREATER_THAN_OR_EQUAL -> sameType(value, operand) && compare(value, operand) >= 0;
+                    case IN -> contains(operand.getArrayValue(), value);
+                    case NOT_IN -> !contains(operand.getArrayValue(), value);
+                    case ARRAY_CONTAINS -> value.hasArrayValue() && contains(value.getArrayValue(), operand);
+                    case ARRAY_CONTAINS_ANY -> value.hasArrayValue() && operand.getArrayValue().getValuesList().stream()
+                            .anyMatch(candidate -> contains(value.getArrayValue(), candidate));
+                    default -> throw new UnsupportedOperationException("Field filter " + fieldFilter.getOp());
+                };
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    private static boolean contains(ArrayValue array, Value value) {
+        return array.getValuesList().stream().anyMatch(element -> compare(element, value) == 0);
+    }
+
+    private static boolean sameType(Value a, Value b) {
+        return typeOrder(a) == typeOrder(b);
+    }
+
+    private static boolean hasOrderFields(Document document, List<StructuredQuery.Order> orders) {
+        for (StructuredQuery.Order order : orders) {
+            if (fieldValue(document, order.getField().getFieldPath()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The document's position relative to the cursor (negative: before it)
+     */
+    private static int compareToCursor(Document document, List<StructuredQuery.Order> orders, Cursor cursor) {
+        for (int i = 0; i < cursor.getValuesCount() && i < orders.size(); i++) {
+            StructuredQuery.Order order = orders.get(i);
+            int comparison = compare(fieldValue(document, order.getField().getFieldPath()), cursor.getValues(i));
+            if (comparison != 0) {
+                return order.getDirection() == StructuredQuery.Direction.DESCENDING ? -comparison : comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean afterStart(Document document, List<StructuredQuery.Order> orders, Cursor start) {
+        int position = compareToCursor(document, orders, start);
+        return start.getBefore() ? position >= 0 : position > 0;
+    }
+
+    private static boolean beforeEnd(Document document, List<StructuredQuery.Order> orders, Cursor end) {
+        int position = compareToCursor(document, orders, end);
+        return end.getBefore() ? position < 0 : position <= 0;
+    }
+
+    private static int compareByOrder(Document a, Document b, List<StructuredQuery.Order> orders) {
+        for (StructuredQuery.Order order : orders) {
+            String field = order.getField().getFieldPath();
+            int comparison = compare(fieldValue(a, field), fieldValue(b, field));
+            if (comparison != 0) {
+                return order.getDirection() == StructuredQuery.Direction.DESCENDING ? -comparison : comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static int typeOrder(Value value) {
+        return switch (value.getValueTypeCase()) {
+            case NULL_VALUE -> 0;
+            case BOOLEAN_VALUE -> 1;
+            case INTEGER_VALUE, DOUBLE_VALUE -> 2;
+            case TIMESTAMP_VALUE -> 3;
+            case STRING_VALUE -> 4;
+            case BYTES_VALUE -> 5;
+            case REFERENCE_VALUE -> 6;
+            case GEO_POINT_VALUE -> 7;
+            case ARRAY_VALUE -> 8;
+            default -> 9;
+        };
+    }
+
+    /**
+     * Orders values the way Firestore does across types; within a type by value.
+     */
+    static int compare(Value a, Value b) {
+        int types = Integer.compare(typeOrder(a), typeOrder(b));
+        if (types != 0) {
+            return types;
+        }
+        return switch (a.getValueTypeCase()) {
+            case NULL_VALUE -> 0;
+            case BOOLEAN_VALUE -> Boolean.compare(a.getBooleanValue(), b.getBooleanValue());
+            case INTEGER_VALUE, DOUBLE_VALUE -> a.hasIntegerValue() && b.hasIntegerValue()
+                    ? Long.compare(a.getIntegerValue(), b.getIntegerValue())
+                    : Double.compare(number(a), number(b));
+            case TIMESTAMP_VALUE -> Comparator.comparingLong(Timestamp::getSeconds).thenComparingInt(Timestamp::getNanos)
+                    .compare(a.getTimestampValue(), b.getTimestampValue());
+            case STRING_VALUE -> a.getStringValue().compareTo(b.getStringValue());
+            case BYTES_VALUE -> ByteString.unsignedLexicographicalComparator().compare(a.getBytesValue(), b.getBytesValue());
+            case REFERENCE_VALUE -> a.getReferenceValue().compareTo(b.getReferenceValue());
+            case ARRAY_VALUE -> {
+                List<Value> left = a.getArrayValue().getValuesList();
+                List<Value> right = b.getArrayValue().getValuesList();
+                for (int i = 0; i < left.size() && i < right.size(); i++) {
+                    int comparison = compare(left.get(i), right.get(i));
+                    if (comparison != 0) {
+                        yield comparison;
+                    }
+                }
+                yield Integer.compare(left.size(), right.size());
+            }
+            default -> a.equals(b) ? 0 : Integer.compare(a.hashCode(), b.hashCode());
+        };
+    }
+
+    private static double number(Value value) {
+        return value.hasIntegerValue() ? value.getIntegerValue() : value.getDoubleValue();
+    }
+
+    private static Document select(Document document, List<String> fieldPaths) {
+        Map<String, Value> fields = new LinkedHashMap<>();
+        for (String fieldPath : fieldPaths) {
+            List<String> path = parsePath(fieldPath);
+            Value value = get(document.getFieldsMap(), path);
+            if (value != null) {
+                set(fields, path, value);
+            }
+        }
+        return document.toBuilder().clearFields().putAllFields(fields).build();
+    }
+
+    // --- Writes ---
+
+    @Override
+    public UnaryCallable<CommitRequest, CommitResponse> commitCallable() {
+        return new UnaryCallable<>() {
+            @Override
+            public ApiFuture<CommitResponse> futureCall(CommitRequest request, ApiCallContext context) {
+                return respond(() -> commit(request), reserveWrites(request.getWritesList()));
+            }
+        };
+    }
+
+    private CommitResponse commit(CommitRequest request) {
+        Timestamp commitTime = now();
+        CommitResponse.Builder response = CommitResponse.newBuilder().setCommitTime(commitTime);
+        synchronized (documents) {
+            // Check every precondition first so a commit applies all of its writes or none
+            for (Write write : request.getWritesList()) {
+                Status.Code failure = preconditionFailure(write);
+                if (failure != null) {
+                    throw ApiExceptionFactory.createException(
+                            "Precondition failed for " + target(write), null, GrpcStatusCode.of(failure), false);
+                }
+            }
+            for (Write write : request.getWritesList()) {
+                apply(write, commitTime);
+                response.addWriteResults(WriteResult.newBuilder().setUpdateTime(commitTime));
+            }
+        }
+        return response.build();
+    }
+
+    @Override
+    public UnaryCallable<BatchWriteRequest, BatchWriteResponse> batchWriteCallable() {
+        return new UnaryCallable<>() {
+            @Override
+            public ApiFuture<BatchWriteResponse> futureCall(BatchWriteRequest request, ApiCallContext context) {
+                return respond(() -> batchWrite(request), reserveWrites(request.getWritesList()));
+            }
+        };
+    }
+
+    private BatchWriteResponse batchWrite(BatchWriteRequest request) {
+        Timestamp commitTime = now();
+        BatchWriteResponse.Builder response = BatchWriteResponse.newBuilder();
+        synchronized (documents) {
+            for (Write write : request.getWritesList()) {
+                Status.Code failure = preconditionFailure(write);
+                if (failure == null) {
+                    apply(write, commitTime);
+                    response.addWriteResults(WriteResult.newBuilder().setUpdateTime(commitTime));
+                    response.addStatus(com.google.rpc.Status.newBuilder().setCode(Status.Code.OK.value()));
+                } else {
+                    response.addWriteResults(WriteResult.getDefaultInstance());
+                    response.addStatus(com.google.rpc.Status.newBuilder().setCode(failure.value())
+                            .setMessage("Precondition failed for " + target(write)));
+                }
+            }
+        }
+        return response.build();
+    }
+
+    /**
+     * Reserves the next write slot of every document the writes touch (see setDocumentWriteInterval).
+     * @return How long the writes have to wait for their documents, in nanoseconds
+     */
+    private long reserveWrites(List<Write> writes) {
+        long interval = documentWriteIntervalNanos;
+        if (interval == 0) {
+            return 0;
+        }
+        synchronized (nextWriteAt) {
+            long now = System.nanoTime();
+            long writeAt = now;
+            for (Write write : writes) {
+                writeAt = Math.max(writeAt, nextWriteAt.getOrDefault(target(write), now));
+            }
+            for (Write write : writes) {
+                nextWriteAt.put(target(write), writeAt + interval);
+            }
+            return writeAt - now;
+        }
+    }
+
+    private static String target(Write write) {
+        return write.hasDelete() ? write.getDelete() : write.getUpdate().getName();
+    }
+
+    private Status.Code preconditionFailure(Write write) {
+        if (!write.hasCurrentDocument()) {
+            return null;
+        }
+        if (write.getCurrentDocument().hasUpdateTime()) {
+            Document existing = documents.get(target(write));
+            return existing != null && existing.getUpdateTime().equals(write.getCurrentDocument().getUpdateTime())
+                    ? null : Status.Code.FAILED_PRECONDITION;
+        }
+        if (!write.getCurrentDocument().hasExists()) {
+            return null;
+        }
+        boolean exists = documents.containsKey(target(write));
+        if (write.getCurrentDocument().getExists() == exists) {
+            return null;
+        }
+        return exists ? Status.Code.ALREADY_EXISTS : Status.Code.NOT_FOUND;
+    }
+
+    private void apply(Write write, Timestamp commitTime) {
+        if (write.hasDelete()) {
+            documents.remove(write.getDelete());
+            return;
+        }
+        Document update = write.getUpdate();
+        Document existing = documents.get(update.getName());
+        Map<String, Value> fields;
+        if (write.hasUpdateMask()) {
+            fields = existing == null ? new LinkedHashMap<>() : new LinkedHashMap<>(existing.getFieldsMap());
+            for (String fieldPath : write.getUpdateMask().getFieldPathsList()) {
+                List<String> path = parsePath(fieldPath);
+                Value value = get(update.getFieldsMap(), path);
+                if (value == null) {
+                    remove(fields, path);
+                } else {
+                    set(fields, path, value);
+                }
+            }
+        } else {
+            fields = new LinkedHashMap<>(update.getFieldsMap());
+        }
+        for (FieldTransform transform : write.getUpdateTransformsList()) {
+            List<String> path = parsePath(transform.getFieldPath());
+            set(fields, path, transform(get(fields, path), transform, commitTime));
+        }
+        documents.put(update.getName(), Document.newBuilder()
+                .setName(update.getName())
+                .putAllFields(fields)
+                .setCreateTime(existing == null ? commitTime : existing.getCreateTime())
+                .setUpdateTime(commitTime)
+                .build());
+    }
+
+    private static Value transform(Value current, FieldTransform transform, Timestamp commitTime) {
+        switch (transform.getTransformTypeCase()) {
+            case SET_TO_SERVER_VALUE -> {
+                return Value.newBuilder().setTimestampValue(commitTime).build();
+            }
+            case INCREMENT -> {
+                Value increment = transform.getIncrement();
+                boolean numeric = current != null && (current.hasIntegerValue() || current.hasDoubleValue());
+                if (!numeric) {
+                    return increment;
+                }
+                if (current.hasIntegerValue() && increment.hasIntegerValue()) {
+                    return Value.newBuilder().setIntegerValue(current.getIntegerValue() + increment.getIntegerValue()).build();
+                }
+                return Value.newBuilder().setDoubleValue(number(current) + number(increment)).build();
+            }
+            case MAXIMUM, MINIMUM -> {
+                Value operand = transform.hasMaximum() ? transform.getMaximum() : transform.getMinimum();
+                if (current == null || !(current.hasIntegerValue() || current.hasDoubleValue())) {
+                    return operand;
+                }
+                int comparison = compare(operand, current);
+                return transform.hasMaximum() == comparison > 0 ? operand : current;
+            }
+            case APPEND_MISSING_ELEMENTS -> {
+                ArrayValue.Builder array = current != null && current.hasArrayValue()
+                        ? current.getArrayValue().toBuilder() : ArrayValue.newBuilder();
+                for (Value element : transform.getAppendMissingElements().getValuesList()) {
+                    if (!contains(array.build(), element)) {
+                        array.addValues(element);
+                    }
+                }
+                return Value.newBuilder().setArrayValue(array).build();
+            }
+            case REMOVE_ALL_FROM_ARRAY -> {
+                ArrayValue.Builder array = ArrayValue.newBuilder();
+                if (current != null && current.hasArrayValue()) {
+                    for (Value element : current.getArrayValue().getValuesList()) {
+                        if (!contains(transform.getRemoveAllFromArray(), element)) {
+                            array.addValues(element);
+                        }
+                    }
+                }
+                return Value.newBuilder().setArrayValue(array).build();
+            }
+            default -> throw new UnsupportedOperationException("Transform " + transform.getTransformTypeCase());
+        }
+    }
+
+    // --- Field paths ---
+
+    /**
+     * Splits a canonical field path ("a.b", "marks.`85`") into its segments.
+     */
+    static List<String> parsePath(String fieldPath) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder segment = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < fieldPath.length(); i++) {
+            char c = fieldPath.charAt(i);
+            if (c == '\\' && quoted && i + 1 < fieldPath.length()) {
+                segment.append(fieldPath.charAt(++i));
+            } else if (c == '`') {
+                quoted = !quoted;
+            } else if (c == '.' && !quoted) {
+                segments.add(segment.toString());
+                segment.setLength(0);
+            } else {
+                segment.append(c);
+            }
+        }
+        segments.add(segment.toString());
+        return segments;
+    }
+
+    private static Value get(Map<String, Value> fields, List<String> path) {
+        Value value = fields.get(path.get(0));
+        for (int i = 1; i < path.size() && value != null; i++) {
+            value = value.hasMapValue() ? value.getMapValue().getFieldsMap().get(path.get(i)) : null;
+        }
+        return value;
+    }
+
+    private static void set(Map<String, Value> fields, List<String> path, Value value) {
+        if (path.size() == 1) {
+            fields.put(path.get(0), value);
+            return;
+        }
+        Value child = fields.get(path.get(0));
+        Map<String, Value> childFields = child != null && child.hasMapValue()
+                ? new LinkedHashMap<>(child.getMapValue().getFieldsMap()) : new LinkedHashMap<>();
+        set(childFields, path.subList(1, path.size()), value);
+        fields.put(path.get(0), Value.newBuilder().setMapValue(MapValue.newBuilder().putAllFields(childFields)).build());
+    }
+
+    private static void remove(Map<String, Value> fields, List<String> path) {
+        if (path.size() == 1) {
+            fields.remove(path.get(0));
+            return;
+        }
+        Value child = fields.get(path.get(0));
+        if (child != null && child.hasMapValue()) {
+            Map<String, Value> childFields = new LinkedHashMap<>(child.getMapValue().getFieldsMap());
+            remove(childFields, path.subList(1, path.size()));
+            fields.put(path.get(0), Value.newBuilder().setMapValue(MapValue.newBuilder().putAllFields(childFields)).build());
+        }
+    }
+
+    // --- Transactions ---
+
+    @Override
+    public UnaryCallable<BeginTransactionRequest, BeginTransactionResponse> beginTransactionCallable() {
+        return new UnaryCallable<>() {
+            @Override
+            public ApiFuture<BeginTransactionResponse> futureCall(BeginTransactionRequest request, ApiCallContext context) {
+                return respond(() -> BeginTransactionResponse.newBuilder().setTransaction(newTransactionId()).build());
+            }
+        };
+    }
+
+    @Override
+    public UnaryCallable<RollbackRequest, Empty> rollbackCallable() {
+        return new UnaryCallable<>() {
+            @Override
+            public ApiFuture<Empty> futureCall(RollbackRequest request, ApiCallContext context) {
+                return respond(Empty::getDefaultInstance);
+            }
+        };
+    }
+
+    private ByteString newTransactionId() {
+        return ByteString.copyFromUtf8("tx-" + transactions.incrementAndGet());
+    }
+
+    // --- Unsupported ---
+
+    @Override
+    public UnaryCallable<ListCollectionIdsRequest, FirestoreClient.ListCollectionIdsPagedResponse> listCollectionIdsPagedCallable() {
+        throw new UnsupportedOperationException("listCollections is not supported in memory");
+    }
+
+    @Override
+    public UnaryCallable<PartitionQueryRequest, FirestoreClient.PartitionQueryPagedResponse> partitionQueryPagedCallable() {
+        throw new UnsupportedOperationException("Partition queries are not supported in memory");
+    }
+
+    @Override
+    public UnaryCallable<ListDocumentsRequest, FirestoreClient.ListDocumentsPagedResponse> listDocumentsPagedCallable() {
+        throw new UnsupportedOperationException("listDocuments is not supported in memory");
+    }
+
+    @Override
+    public BidiStreamingCallable<ListenRequest, ListenResponse> listenCallable() {
+        throw new UnsupportedOperationException("Snapshot listeners are not supported in memory");
+    }
+
+    // --- Lifecycle ---
+
+    @Override
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    private static Timestamp now() {
+        Instant now = Instant.now();
+        return Timestamp.newBuilder().setSeconds(now.getEpochSecond()).setNanos(now.getNano()).build();
+    }
+
+    /**
+     * Completes a unary call on the executor, like a response arriving on a transport thread.
+     */
+    private <T> ApiFuture<T> respond(Supplier<T> handler) {
+        return respond(handler, 0);
+    }
+
+    /**
+     * @param delayNanos Extra time before the call is handled, on top of the latency
+     */
+    private <T> ApiFuture<T> respond(Supplier<T> handler, long delayNanos) {
+        SettableApiFuture<T> future = SettableApiFuture.create();
+        dispatch(() -> {
+            try {
+                future.set(handler.get());
+            } catch (RuntimeException e) {
+                future.setException(e);
+            }
+        }, delayNanos);
+        return future;
+    }
+
+    /**
+     * Delivers a streaming call's responses on the executor.
+     */
+    private <T> void stream(ResponseObserver<T> observer, Supplier<List<T>> handler) {
+        dispatch(() -> {
+            observer.onStart(new StreamController() {
+                @Override
+                public void cancel() {
+                }
+
+                @Override
+                public void disableAutoInboundFlowControl() {
+                }
+
+                @Override
+                public void request(int count) {
+                }
+            });
+            List<T> responses;
+            try {
+                responses = handler.get();
+            } catch (RuntimeException e) {
+                observer.onError(e);
+                return;
+            }
+            for (T response : responses) {
+                try {
+                    observer.onResponse(response);
+                } catch (RuntimeException e) {
+                    // Like grpc-java, an observer that throws cancels the call
+                    observer.onError(Status.CANCELLED.withDescription("Failed to read message.").withCause(e).asRuntimeException());
+                    return;
+                }
+            }
+            observer.onComplete();
+        });
+    }
+
+    private void dispatch(Runnable call) {
+        dispatch(call, 0);
+    }
+
+    private void dispatch(Runnable call, long delayNanos) {
+        long latency = latencyNanos + delayNanos;
+        if (latency > 0) {
+            executor.schedule(call, latency, TimeUnit.NANOSECONDS);
+        } else {
+            executor.execute(call);
+        }
+    }
+}
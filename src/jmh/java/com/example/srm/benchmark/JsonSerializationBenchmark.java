@@ -0,0 +1,161 @@
+package com.example.srm.benchmark;
+
+import com.example.srm.model.Course;
+import com.example.srm.model.CourseStats;
+import com.example.srm.model.Dispute;
+import com.example.srm.model.ImportReport;
+import com.example.srm.model.ImportRowOutcome;
+import com.example.srm.model.Lecturer;
+import com.example.srm.model.LoginRequest;
+import com.example.srm.model.Page;
+import com.example.srm.model.Ranking;
+import com.example.srm.model.Result;
+import com.example.srm.model.SignUpRequest;
+import com.example.srm.model.Student;
+import com.example.srm.model.Transcript;
+import com.example.srm.model.TranscriptEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Jackson cost of the controllers' response bodies (writing) and request bodies (reading), with an
+ * ObjectMapper configured the way Spring MVC builds its own. List responses hold 'items' elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @State(Scope.Benchmark)
+    public static class Responses {
+
+        @Param({"students", "courses", "lecturers", "results", "disputes", "resultPage", "projectedResults",
+                "transcript", "courseStats", "ranking", "importReport"})
+        public String response;
+
+        @Param({"1000"})
+        public int items;
+
+        Object body;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            body = switch (response) {
+                case "students" -> list(i -> new Student("student-" + i, BenchmarkBackend.rollNumber(i),
+                        "Student " + i, "student" + i + "@example.edu"));
+                case "courses" -> list(i -> new Course("course-" + i, BenchmarkBackend.courseCode(i),
+                        "Course " + i, "Lecturer " + i));
+                case "lecturers" -> list(i -> new Lecturer("lecturer-" + i, "LEC" + i, "Lecturer " + i,
+                        "lecturer" + i + "@example.edu"));
+                case "results" -> list(i -> result(random, i));
+                case "disputes" -> list(i -> new Dispute("dispute-" + i, BenchmarkBackend.rollNumber(i),
+                        BenchmarkBackend.courseCode(i), "Marks for question " + i % 10 + " were not added.", "pending",
+                        null, null, null));
+                case "resultPage" -> new Page<>(list(i -> result(random, i)), "AQAFbWFya3NsAAAAAAAAAAAADXJlc3VsdC0wMDAxOTQ");
+                case "projectedResults" -> list(i -> {
+                    Map<String, Object> projected = new LinkedHashMap<>();
+                    projected.put("rollNumber", BenchmarkBackend.rollNumber(i));
+                    projected.put("grade", "A");
+                    return projected;
+                });
+                case "transcript" -> {
+                    List<TranscriptEntry> entries = new ArrayList<>();
+                    for (int i = 0; i < 40; i++) {
+                        entries.add(new TranscriptEntry("result-" + i, BenchmarkBackend.courseCode(i), "Course " + i,
+                                random.nextInt(101), "A", 8.0));
+                    }
+                    yield new Transcript("SRM000001", entries, entries.size(), 8.0);
+                }
+                case "courseStats" -> new CourseStats("CS001", 1200, 67.4, 68.0, 3, 100, 50, 0.81,
+                        new TreeMap<>(Map.of("O", 120L, "A", 300L, "B", 420L, "P", 130L, "F", 230L)));
+                case "ranking" -> new Ranking("CS001", "SRM000001", 87, 112, 1200, 90.75);
+                case "importReport" -> new ImportReport(items, items, 0, list(i ->
+                        new ImportRowOutcome(i + 1, ImportRowOutcome.CREATED, "result-" + i, null)));
+                default -> throw new IllegalArgumentException("Unknown response " + response);
+            };
+        }
+
+        private <T> List<T> list(IntFunction<T> factory) {
+            List<T> list = new ArrayList<>(items);
+            for (int i = 0; i < items; i++) {
+                list.add(factory.apply(i));
+            }
+            return list;
+        }
+
+        private static Result result(Random random, int i) {
+            Result result = BenchmarkBackend.result(random, i);
+            result.setId("result-" + i);
+            return result;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Requests {
+
+        @Param({"login", "signUp", "resultImport"})
+        public String request;
+
+        byte[] body;
+        ObjectReader reader;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            Random random = new Random(42);
+            Object value = switch (request) {
+                case "login", "signUp" -> Map.of("email", "student1@example.edu", "password", "correct-horse-battery");
+                case "resultImport" -> {
+                    List<Result> rows = new ArrayList<>();
+                    for (int i = 0; i < 1000; i++) {
+                        rows.add(BenchmarkBackend.result(random, i));
+                    }
+                    yield rows;
+                }
+                default -> throw new IllegalArgumentException("Unknown request " + request);
+            };
+            body = MAPPER.writeValueAsBytes(value);
+            reader = switch (request) {
+                case "login" -> MAPPER.readerFor(LoginRequest.class);
+                case "signUp" -> MAPPER.readerFor(SignUpRequest.class);
+                default -> MAPPER.readerForListOf(Result.class);
+            };
+        }
+    }
+
+    @Benchmark
+    public byte[] writeResponse(Responses responses) throws Exception {
+        return MAPPER.writeValueAsBytes(responses.body);
+    }
+
+    @Benchmark
+    public Object readRequest(Requests requests) throws Exception {
+        return requests.reader.readValue(requests.body);
+    }
+}
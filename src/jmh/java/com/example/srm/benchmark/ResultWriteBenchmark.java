@@ -0,0 +1,112 @@
+package com.example.srm.benchmark;
+
+import com.example.srm.model.Result;
+import com.example.srm.service.ResultWriteBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-result entry under concurrency, as during a grading window: THREADS callers each add one
+ * result at a time and wait for it to be committed, either one batch commit per result
+ * (FirestoreService.addResultAsync) or through ResultWriteBuffer's group commit.
+ * Throughput mode gives results per second; sample mode gives the latency distribution (p99).
+ *
+ * The in-memory backend answers every RPC after commitLatencyMillis, standing in for the round trip
+ * to Firestore, and lets each document take one write per DOCUMENT_WRITE_INTERVAL, standing in for
+ * Firestore's limited write rate per document. Every result increments its course's statistics
+ * document, so the results for one course contend for that document. 'courses' spreads the results
+ * over 50 courses (little contention) or puts them all in one course (a lecturer entering a cohort's
+ * marks), where a group commit increments the statistics document once for the whole group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(ResultWriteBenchmark.THREADS)
+@Fork(1)
+public class ResultWriteBenchmark {
+
+    static final int THREADS = 32;
+    // 100 writes per second per document; Firestore's documented sustained rate is lower
+    private static final Duration DOCUMENT_WRITE_INTERVAL = Duration.ofMillis(10);
+
+    @Param({"0", "10"})
+    public int commitLatencyMillis;
+
+    @Param({"50", "1"})
+    public int courses;
+
+    private BenchmarkBackend backend;
+    private ResultWriteBuffer writeBuffer;
+    // Students beyond the seeded ones, so added results never collide with an existing one
+    private final AtomicInteger nextStudent = new AtomicInteger(1000);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = new BenchmarkBackend();
+        backend.seed(1000);
+        backend.rpc.setLatency(Duration.ofMillis(commitLatencyMillis));
+        backend.rpc.setDocumentWriteInterval(DOCUMENT_WRITE_INTERVAL);
+
+        writeBuffer = new ResultWriteBuffer(backend.service, new SimpleMeterRegistry());
+        // The @Value defaults from application.properties, with write-behind switched on
+        ReflectionTestUtils.setField(writeBuffer, "enabled", true);
+        ReflectionTestUtils.setField(writeBuffer, "capacity", 10_000);
+        ReflectionTestUtils.setField(writeBuffer, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(writeBuffer, "maxDelay", Duration.ZERO);
+        ReflectionTestUtils.setField(writeBuffer, "offerTimeout", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(writeBuffer, "shutdownTimeout", Duration.ofSeconds(30));
+        writeBuffer.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reset() {
+        backend.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        writeBuffer.stop();
+        backend.close();
+    }
+
+    private Result nextResult() {
+        return BenchmarkBackend.result(ThreadLocalRandom.current(), nextStudent.getAndIncrement(), courses);
+    }
+
+    /**
+     * One batch commit per result: the result plus its course statistics and transcript updates.
+     */
+    @Benchmark
+    public Result synchronousCommit() {
+        return backend.service.addResultAsync(nextResult()).join();
+    }
+
+    /**
+     * Queued and committed together with the other threads' results.
+     */
+    @Benchmark
+    public Result groupCommit() {
+        return writeBuffer.submit(nextResult()).join();
+    }
+}
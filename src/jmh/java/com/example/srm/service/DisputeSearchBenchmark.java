@@ -0,0 +1,109 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Dispute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword search over 100,000 dispute reasons: the inverted index (InvertedIndex with
+ * DisputeSearchService's terms) against checking every dispute's reason words in memory, which is
+ * the cost of the old approach once all disputes have been downloaded. The query parameter is
+ * "keywords|status|courseCode" and covers a common word, a two-word query, the same with status and
+ * course filters, and a rare word; each returns up to 50 matches.
+ * In this package because the index is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisputeSearchBenchmark {
+
+    private static final int DISPUTES = 100_000;
+    private static final int LIMIT = 50;
+    private static final String[] PHRASES = {"please recount my marks", "missing paper in the bundle",
+            "total marks added wrong", "question 4 was not marked", "answer sheet page missing",
+            "grade does not match the marks", "my paper was marked by the wrong examiner",
+            "recount requested for the final exam", "supplementary answer sheet missing",
+            "calculator question marked incorrectly"};
+    private static final String[] STATUSES = {Dispute.PENDING, Dispute.UNDER_REVIEW, Dispute.RESOLVED, Dispute.REJECTED};
+
+    @Param({"recount||", "missing paper||", "missing paper|pending|CS007", "calculator||"})
+    public String query;
+
+    private InvertedIndex<Dispute> index;
+    private List<Dispute> disputes;
+    private List<String> queryTerms;
+    private String status;
+    private String courseCode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new InvertedIndex<>(DisputeSearchService::terms);
+        disputes = new ArrayList<>(DISPUTES);
+        Random random = new Random(42);
+        for (int i = 0; i < DISPUTES; i++) {
+            // Earlier phrases are more common, roughly as complaints are
+            String reason = PHRASES[Math.min(random.nextInt(PHRASES.length) * random.nextInt(2) + random.nextInt(3), PHRASES.length - 1)];
+            if (random.nextInt(4) == 0) {
+                reason = reason + "; " + PHRASES[random.nextInt(PHRASES.length)];
+            }
+            String id = String.format("dispute-%06d", i);
+            Dispute dispute = new Dispute(id, String.format("SRM%06d", random.nextInt(20_000)),
+                    String.format("CS%03d", random.nextInt(50)), reason, STATUSES[random.nextInt(STATUSES.length)],
+                    null, null, null);
+            disputes.add(dispute);
+            index.put(id, dispute);
+        }
+        String[] parts = query.split("\\|", -1);
+        status = parts[1].isEmpty() ? null : parts[1];
+        courseCode = parts[2].isEmpty() ? null : parts[2];
+        queryTerms = DisputeSearchService.words(parts[0]);
+        List<String> filtered = new ArrayList<>(queryTerms);
+        if (status != null) {
+            filtered.add("status:" + status);
+        }
+        if (courseCode != null) {
+            filtered.add("course:" + courseCode);
+        }
+        queryTerms = filtered;
+    }
+
+    @Benchmark
+    public List<Dispute> invertedIndex() {
+        return index.search(queryTerms, LIMIT);
+    }
+
+    @Benchmark
+    public List<Dispute> scan() {
+        List<String> words = DisputeSearchService.words(query.split("\\|", -1)[0]);
+        List<Dispute> matches = new ArrayList<>();
+        for (Dispute dispute : disputes) {
+            if ((status == null || status.equals(dispute.getStatus()))
+                    && (courseCode == null || courseCode.equals(dispute.getCourseCode()))
+                    && DisputeSearchService.words(dispute.getReason()).containsAll(words)) {
+                matches.add(dispute);
+                if (matches.size() == LIMIT) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+}
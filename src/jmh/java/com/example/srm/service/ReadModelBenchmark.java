@@ -0,0 +1,89 @@
+package com.example.srm.service;
+
+import com.example.srm.model.CourseStats;
+import com.example.srm.model.Transcript;
+import com.google.cloud.firestore.BenchmarkSnapshots;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of the read-model documents to their response models: a course statistics document
+ * (a full 0-100 marks histogram) to CourseStats, and a 40-course transcript document to Transcript.
+ * In this package because the projections' summarize methods are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadModelBenchmark {
+
+    private Firestore firestore;
+    private CourseStatsProjection courseStatsProjection;
+    private TranscriptProjection transcriptProjection;
+    private DocumentSnapshot statsDocument;
+    private DocumentSnapshot transcriptDocument;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        firestore = BenchmarkSnapshots.offlineFirestore();
+        ReferenceDataCache referenceDataCache = new ReferenceDataCache();
+        courseStatsProjection = new CourseStatsProjection();
+        ReflectionTestUtils.setField(courseStatsProjection, "passMark", 50);
+        transcriptProjection = new TranscriptProjection(referenceDataCache, "O=10,A+=9,A=8,B+=7,B=6,C=5,P=4,F=0,Ab=0");
+        Random random = new Random(42);
+
+        Map<String, Object> marks = new HashMap<>();
+        for (int mark = 0; mark <= 100; mark++) {
+            marks.put(String.valueOf(mark), (long) random.nextInt(30));
+        }
+        statsDocument = BenchmarkSnapshots.snapshot(firestore,
+                courseStatsProjection.statsDocument(firestore, "CS001"),
+                Map.of("courseCode", "CS001", "marks", marks,
+                        "grades", Map.of("O", 120L, "A", 300L, "B", 420L, "P", 130L, "F", 230L)));
+
+        String[] grades = {"O", "A+", "A", "B+", "B", "C", "P", "F"};
+        Map<String, Object> entries = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            entries.put("result-" + i, Map.of("courseCode", String.format("CS%03d", i), "courseName", "Course " + i,
+                    "marks", (long) random.nextInt(101), "grade", grades[random.nextInt(grades.length)]));
+        }
+        transcriptDocument = BenchmarkSnapshots.snapshot(firestore,
+                transcriptProjection.transcriptDocument(firestore, "SRM000001"),
+                Map.of("rollNumber", "SRM000001", "entries", entries));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        firestore.close();
+    }
+
+    @Benchmark
+    public CourseStats courseStats() {
+        return courseStatsProjection.summarize("CS001", statsDocument);
+    }
+
+    @Benchmark
+    public Transcript transcript() {
+        return transcriptProjection.summarize("SRM000001", transcriptDocument);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead queries against the student search index (PrefixIndex with SearchService's words)
+ * holding 100,000 students, with names drawn from small pools so common prefixes match thousands.
+ * The query parameter covers a one-letter prefix, a two-word name prefix, a roll number prefix,
+ * the trailing digits of a roll number, an email prefix and a miss; each returns the top 10.
+ * In this package because the index is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int STUDENTS = 100_000;
+    private static final String[] FIRST_NAMES = {"John", "Joanna", "Priya", "Mohammed", "Wei", "Olga", "Zoë",
+            "Carlos", "Aisha", "Liam", "Sofia", "Arjun", "Mei", "Noah", "Fatima", "Ivan", "Grace", "Kwame"};
+    private static final String[] LAST_NAMES = {"Smith", "Sharma", "Khan", "Chen", "Ivanova", "García", "Okafor",
+            "Nguyen", "Murphy", "Rossi", "Kowalski", "Tanaka", "Silva", "Müller", "Patel", "Johnson"};
+
+    @Param({"j", "jo sm", "SRM0421", "4217", "priya.kh", "zzz"})
+    public String query;
+
+    private PrefixIndex<Student> index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new PrefixIndex<>(SearchService::studentWords);
+        Random random = new Random(42);
+        for (int i = 0; i < STUDENTS; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String rollNumber = String.format("SRM%06d", i);
+            String email = PrefixIndex.normalize(first + "." + last) + i + "@university.edu";
+            index.put(rollNumber, new Student(rollNumber, rollNumber, first + " " + last, email));
+        }
+    }
+
+    @Benchmark
+    public List<Student> topTen() {
+        return index.search(query, 10);
+    }
+}
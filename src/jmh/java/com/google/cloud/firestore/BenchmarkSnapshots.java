@@ -0,0 +1,42 @@
+package com.google.cloud.firestore;
+
+import com.google.cloud.Timestamp;
+import com.google.firestore.v1.Document;
+
+import java.util.Map;
+
+/**
+ * Builds document snapshots without a Firestore backend, for benchmarks.
+ * Lives in the SDK's package because snapshot factories are package-private; the snapshot is created
+ * from a wire-format Document exactly like one returned by a query, so field reads decode the same
+ * protobuf values they would in production.
+ */
+public final class BenchmarkSnapshots {
+
+    private BenchmarkSnapshots() {
+    }
+
+    /**
+     * A Firestore client that never connects (pointed at an unused emulator address); only used to
+     * create references, snapshots and unsent write batches.
+     */
+    public static Firestore offlineFirestore() {
+        return FirestoreOptions.newBuilder()
+                .setProjectId("srm-benchmark")
+                .setEmulatorHost("localhost:9")
+                .build()
+                .getService();
+    }
+
+    public static QueryDocumentSnapshot snapshot(Firestore firestore, DocumentReference document, Map<String, Object> data) {
+        Timestamp now = Timestamp.now();
+        Document proto = Document.newBuilder()
+                .setName(document.getName())
+                .putAllFields(UserDataConverter.encodeValue(FieldPath.empty(), data, UserDataConverter.ARGUMENT)
+                        .getMapValue().getFieldsMap())
+                .setCreateTime(now.toProto())
+                .setUpdateTime(now.toProto())
+                .build();
+        return QueryDocumentSnapshot.fromDocument((FirestoreRpcContext<?>) firestore, now, proto);
+    }
+}
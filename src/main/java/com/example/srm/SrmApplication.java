@@ -2,8 +2,6 @@ package com.example.srm;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
 
 
 @SpringBootApplication
@@ -12,9 +10,4 @@ public class SrmApplication {
     public static void main(String[] args) {
         SpringApplication.run(SrmApplication.class, args);
     }
-
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
 }
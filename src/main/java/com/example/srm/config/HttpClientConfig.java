@@ -0,0 +1,116 @@
+package com.example.srm.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP client used for outbound calls (Firebase Auth REST sign-in, token signing keys).
+ *
+ * By default the RestTemplate is backed by a pooled Apache HttpClient: connections (and their TLS
+ * sessions) are kept alive and reused across logins instead of being opened per request, the pool
+ * is bounded by 'srm.http.client.max-connections', and every call has connect/read timeouts so a
+ * slow identity endpoint cannot tie up request threads indefinitely.
+ * With 'srm.http.client.http2=true' the JDK HttpClient is used instead, multiplexing requests over
+ * HTTP/2 connections it manages itself (no pool limits or pool statistics in that mode).
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientConfig.class);
+
+    @Value("${srm.http.client.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${srm.http.client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${srm.http.client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${srm.http.client.read-timeout:10s}")
+    private Duration readTimeout;
+
+    // How long a request waits for a free pooled connection before failing
+    @Value("${srm.http.client.connection-request-timeout:2s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${srm.http.client.keep-alive:60s}")
+    private Duration keepAlive;
+
+    @Value("${srm.http.client.http2:false}")
+    private boolean http2;
+
+    @Bean
+    @ConditionalOnProperty(name = "srm.http.client.http2", havingValue = "false", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        // Check a connection that sat idle for a while before reusing it
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "srm.http.client.http2", havingValue = "false", matchIfMissing = true)
+    public CloseableHttpClient pooledHttpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        // Used when the server does not send its own Keep-Alive header
+                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(ObjectProvider<CloseableHttpClient> pooledHttpClient) {
+        return new RestTemplate(requestFactory(pooledHttpClient.getIfAvailable()));
+    }
+
+    private ClientHttpRequestFactory requestFactory(CloseableHttpClient pooledHttpClient) {
+        if (http2) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build();
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+            factory.setReadTimeout(readTimeout);
+            logger.info("Outbound HTTP uses the JDK HTTP/2 client (connect timeout {}, read timeout {})",
+                    connectTimeout, readTimeout);
+            return factory;
+        }
+        logger.info("Outbound HTTP uses a pooled client (max {} connections, {} per route, keep-alive {}, "
+                + "connect timeout {}, read timeout {})",
+                maxConnections, maxConnectionsPerRoute, keepAlive, connectTimeout, readTimeout);
+        return new HttpComponentsClientHttpRequestFactory(pooledHttpClient);
+    }
+}
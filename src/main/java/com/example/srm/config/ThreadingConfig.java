@@ -0,0 +1,38 @@
+package com.example.srm.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports which threading mode the application runs in.
+ * Virtual threads are switched on with 'spring.threads.virtual.enabled=true'; Spring Boot then
+ * runs Tomcat request handling and its task executors on virtual threads. This only takes effect
+ * on Java 21+, so a warning is logged when the flag is set on an older runtime.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int tomcatMaxThreads;
+
+    @PostConstruct
+    public void logThreadingMode() {
+        int javaVersion = Runtime.version().feature();
+        if (!virtualThreadsEnabled) {
+            logger.info("Request handling uses the platform-thread pool (max {} Tomcat threads)", tomcatMaxThreads);
+        } else if (javaVersion < 21) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "falling back to the platform-thread pool (max {} Tomcat threads)", javaVersion, tomcatMaxThreads);
+        } else {
+            logger.info("Request handling and task executors use virtual threads (Java {})", javaVersion);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.srm.controller;
+
+import com.example.srm.model.CascadeDeleteReport;
+import com.example.srm.service.FirestoreService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams the progress of a cascading delete (see FirestoreService.deleteStudentCascadeAsync) as
+ * newline-delimited JSON: one CascadeDeleteReport per committed batch, the last with 'done' set.
+ * An empty stream means the document did not exist. If the client disconnects, the delete still runs
+ * to completion; only the progress lines are dropped.
+ */
+final class CascadeDeletes {
+
+    private static final Logger logger = LoggerFactory.getLogger(CascadeDeletes.class);
+
+    private CascadeDeletes() {
+    }
+
+    /**
+     * @param cascade Starts the delete with the given progress consumer
+     * @param label Describes the document in log messages, e.g. "student abc123"
+     */
+    static ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper,
+                                                        Function<Consumer<CascadeDeleteReport>, CompletableFuture<CascadeDeleteReport>> cascade,
+                                                        String label) {
+        StreamingResponseBody body = outputStream -> {
+            ProgressWriter writer = new ProgressWriter(objectMapper, outputStream);
+            try {
+                cascade.apply(writer).get();
+            } catch (ExecutionException | InterruptedException e) {
+                // Headers are already committed; the client sees a stream without a 'done' report
+                Throwable cause = FirestoreService.unwrap(e);
+                logger.error("Error deleting {}: {}", label, cause.getMessage(), cause);
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Failed to delete " + label + ".", cause);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    /**
+     * Writes each report as one line. Reports arrive one at a time, in order, from Firestore callback threads.
+     */
+    private static final class ProgressWriter implements Consumer<CascadeDeleteReport> {
+
+        private final ObjectMapper objectMapper;
+        private final OutputStream outputStream;
+        private volatile boolean disconnected;
+
+        ProgressWriter(ObjectMapper objectMapper, OutputStream outputStream) {
+            this.objectMapper = objectMapper;
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void accept(CascadeDeleteReport report) {
+            if (disconnected) {
+                return;
+            }
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(report));
+                outputStream.write('\n');
+                outputStream.flush();
+            } catch (IOException e) {
+                logger.debug("Client stopped reading delete progress: {}", e.getMessage());
+                disconnected = true;
+            }
+        }
+    }
+}
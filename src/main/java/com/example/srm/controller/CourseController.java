@@ -1,21 +1,27 @@
 package com.example.srm.controller;
 
 import com.example.srm.model.Course;
+import com.example.srm.model.Ranking;
 import com.example.srm.service.FirestoreService;
+import com.example.srm.service.RankingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for managing course-related operations.
- * Provides CRUD endpoints for course records in Firestore.
+ * Provides CRUD endpoints for course records in Firestore, plus per-course grade statistics and rankings.
  * All endpoints are prefixed with '/api/courses'.
+ * Handlers return CompletableFutures, so the servlet thread is released while Firestore RPCs are in flight.
  */
 @RestController
 @RequestMapping("/api/courses")
@@ -23,70 +29,203 @@ public class CourseController {
 
     private static final Logger logger = LoggerFactory.getLogger(CourseController.class);
     private final FirestoreService firestoreService;
+    private final RankingService rankingService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructor for dependency injection of FirestoreService.
+     * Constructor for dependency injection of FirestoreService, RankingService and Jackson's ObjectMapper.
      * @param firestoreService The service layer for Firestore operations
+     * @param rankingService In-memory rank/percentile index over results
+     * @param objectMapper The application's JSON mapper, used for streamed delete progress
      */
-    public CourseController(FirestoreService firestoreService) {
+    public CourseController(FirestoreService firestoreService, RankingService rankingService,
+                            ObjectMapper objectMapper) {
         this.firestoreService = firestoreService;
+        this.rankingService = rankingService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Creates a new course record.
      * @param course The course object to be created (from request body)
-     * @return ResponseEntity containing the created course or error message
+     * @return Future ResponseEntity containing the created course or error message
      */
     @PostMapping
-    public ResponseEntity<?> addCourse(@RequestBody Course course) {
-        try {
-            // Validate required fields
-            if (course.getCourseCode() == null || course.getCourseCode().isEmpty() ||
-                course.getCourseName() == null || course.getCourseName().isEmpty() ||
-                course.getCourseInstructor() == null || course.getCourseInstructor().isEmpty()) {
-                logger.warn("Add course request failed validation: {}", course);
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Course code, name, and instructor are required."
-                ));
-            }
+    public CompletableFuture<ResponseEntity<?>> addCourse(@RequestBody Course course) {
+        // Validate required fields
+        if (course.getCourseCode() == null || course.getCourseCode().isEmpty() ||
+            course.getCourseName() == null || course.getCourseName().isEmpty() ||
+            course.getCourseInstructor() == null || course.getCourseInstructor().isEmpty()) {
+            logger.warn("Add course request failed validation: {}", course);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                "error", "Course code, name, and instructor are required."
+            )));
+        }
 
-            Course createdCourse = firestoreService.addCourse(course);
-            logger.info("Course added successfully: ID={}, Code={}", 
-                createdCourse.getId(), createdCourse.getCourseCode());
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdCourse);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error adding course (Code={}): {}", 
-                course.getCourseCode(), e.getMessage(), e);
-            Thread.currentThread().interrupt(); // Restore interrupt status
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to add course. Please try again later."));
+        try {
+            return firestoreService.addCourseAsync(course)
+                .<ResponseEntity<?>>thenApply(createdCourse -> {
+                    logger.info("Course added successfully: ID={}, Code={}",
+                        createdCourse.getId(), createdCourse.getCourseCode());
+                    return ResponseEntity.status(HttpStatus.CREATED).body(createdCourse);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error adding course (Code={}): {}",
+                        course.getCourseCode(), cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to add course. Please try again later."));
+                });
         } catch (Exception e) {
-            logger.error("Unexpected error adding course (Code={}): {}", 
+            logger.error("Unexpected error adding course (Code={}): {}",
                 course.getCourseCode(), e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
-     * Retrieves all course records.
-     * @return ResponseEntity containing list of courses or error message
+     * Retrieves course records.
+     * Without paging parameters the whole collection is returned as a JSON array.
+     * When 'limit' or 'pageToken' is supplied, a single cursor page is returned instead.
+     * @param limit Maximum number of courses on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return, e.g. "courseCode,courseName"; only those are read from Firestore
+     * @param ifNoneMatch ETag of a previously returned full listing; answered with 304 if unchanged
+     * @return Future ResponseEntity containing list or page of courses, or error message
      */
     @GetMapping
-    public ResponseEntity<?> getAllCourses() {
+    public CompletableFuture<ResponseEntity<?>> getAllCourses(@RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String pageToken,
+                                                              @RequestParam(required = false) String orderBy,
+                                                              @RequestParam(required = false) String fields,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Course> courses = firestoreService.getAllCourses();
-            logger.debug("Retrieved {} courses.", courses.size());
-            return ResponseEntity.ok(courses);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error retrieving courses: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to retrieve courses. Please try again later."));
+            CompletableFuture<ResponseEntity<?>> response;
+            if (fields != null) {
+                response = limit != null || pageToken != null
+                    ? firestoreService.getPageProjectedAsync(Course.class, null, null, limit, pageToken, orderBy, fields)
+                        .thenApply(ResponseEntity::ok)
+                    : firestoreService.getAllProjectedAsync(Course.class, fields)
+                        .thenApply(ResponseEntity::ok);
+            } else if (limit != null || pageToken != null) {
+                response = firestoreService.getCoursesPageAsync(limit, pageToken, orderBy)
+                    .thenApply(page -> {
+                        logger.debug("Retrieved page of {} courses.", page.getItems().size());
+                        return ResponseEntity.ok(page);
+                    });
+            } else {
+                // Served from the reference data cache when warm, so a 304 costs no Firestore reads
+                response = firestoreService.getAllVersionedCoursesAsync()
+                    .thenApply(courses -> {
+                        logger.debug("Retrieved {} courses.", courses.value().size());
+                        return ETags.respond(ifNoneMatch, courses);
+                    });
+            }
+            return response.exceptionally(e -> {
+                Throwable cause = FirestoreService.unwrap(e);
+                logger.error("Error retrieving courses: {}", cause.getMessage(), cause);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve courses. Please try again later."));
+            });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid course page request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
             logger.error("Unexpected error retrieving courses: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Retrieves grade statistics for a course: mean, median, min/max, pass rate and grade distribution.
+     * Served from a per-course aggregate maintained on every result write, so this is one document read.
+     * @param courseCode The course code (e.g. "CS101")
+     * @return Future ResponseEntity containing the statistics or error message
+     */
+    @GetMapping("/{courseCode}/stats")
+    public CompletableFuture<ResponseEntity<?>> getCourseStats(@PathVariable String courseCode) {
+        try {
+            return firestoreService.getCourseStatsAsync(courseCode)
+                .<ResponseEntity<?>>thenApply(stats -> {
+                    logger.debug("Retrieved statistics for course {} ({} results).", courseCode, stats.getCount());
+                    return ResponseEntity.ok(stats);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving statistics for course {}: {}", courseCode, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve course statistics. Please try again later."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving statistics for course {}: {}", courseCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Recomputes a course's statistics from its results.
+     * Only needed for results recorded before statistics were maintained.
+     * @param courseCode The course code (e.g. "CS101")
+     * @return Future ResponseEntity containing the rebuilt statistics or error message
+     */
+    @PostMapping("/{courseCode}/stats/rebuild")
+    public CompletableFuture<ResponseEntity<?>> rebuildCourseStats(@PathVariable String courseCode) {
+        try {
+            return firestoreService.rebuildCourseStatsAsync(courseCode)
+                .<ResponseEntity<?>>thenApply(stats -> {
+                    logger.info("Rebuilt statistics for course {} ({} results).", courseCode, stats.getCount());
+                    return ResponseEntity.ok(stats);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error rebuilding statistics for course {}: {}", courseCode, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to rebuild course statistics. Please try again later."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error rebuilding statistics for course {}: {}", courseCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Looks up a rank and percentile within a course, in O(log n) from the in-memory ranking index.
+     * Either ranks a student by their marks in the course, or ranks an arbitrary marks value.
+     * @param courseCode The course code (e.g. "CS101")
+     * @param rollNumber The student to rank (their best result in the course)
+     * @param marks A marks value to rank instead of a student
+     * @return Future ResponseEntity containing the ranking or error message
+     */
+    @GetMapping("/{courseCode}/ranking")
+    public CompletableFuture<ResponseEntity<?>> getCourseRanking(@PathVariable String courseCode,
+                                                                 @RequestParam(required = false) String rollNumber,
+                                                                 @RequestParam(required = false) Integer marks) {
+        if ((rollNumber == null || rollNumber.isEmpty()) == (marks == null)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(Map.of("error", "Specify exactly one of rollNumber or marks.")));
+        }
+        try {
+            Ranking ranking = marks != null
+                ? rankingService.rankMarksInCourse(courseCode, marks)
+                : rankingService.rankInCourse(courseCode, rollNumber);
+            if (ranking == null) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "No result for student " + rollNumber + " in course " + courseCode)));
+            }
+            return CompletableFuture.completedFuture(ResponseEntity.ok(ranking));
+        } catch (IllegalStateException e) {
+            logger.warn("Ranking requested for course {} before the index was loaded.", courseCode);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error ranking in course {}: {}", courseCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
@@ -94,56 +233,112 @@ public class CourseController {
      * Updates a course record.
      * @param id The ID of the course to update
      * @param updatedData Map containing fields to update
-     * @return ResponseEntity with success/error message
+     * @return Future ResponseEntity with success/error message
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateCourse(@PathVariable String id, 
-                                        @RequestBody Map<String, Object> updatedData) {
+    public CompletableFuture<ResponseEntity<?>> updateCourse(@PathVariable String id,
+                                                             @RequestBody Map<String, Object> updatedData) {
         // Validate update payload
         if (updatedData == null || updatedData.isEmpty()) {
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Update data cannot be empty."));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(Map.of("error", "Update data cannot be empty.")));
         }
 
         try {
-            firestoreService.updateCourse(id, updatedData);
-            logger.info("Course updated successfully: {}", id);
-            return ResponseEntity.ok(Map.of(
-                "message", "Course updated successfully", 
-                "id", id
-            ));
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error updating course {}: {}", id, e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to update course. Please try again later."));
+            return firestoreService.updateCourseAsync(id, updatedData)
+                .<ResponseEntity<?>>thenApply(ignored -> {
+                    logger.info("Course updated successfully: {}", id);
+                    return ResponseEntity.ok(Map.of(
+                        "message", "Course updated successfully",
+                        "id", id
+                    ));
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error updating course {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to update course. Please try again later."));
+                });
         } catch (Exception e) {
             logger.error("Unexpected error updating course {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred during update."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred during update.")));
         }
     }
 
     /**
-     * Deletes a course record.
+     * Deletes a course record. Only the course document is deleted unless the caller opts in with
+     * 'cascade=true', which also deletes the results and disputes referencing its course code, in batches
+     * of at most 500 writes. With 'dryRun=true' nothing is deleted and the report only counts the
+     * results and disputes a cascading delete would affect.
      * @param id The ID of the course to delete
-     * @return ResponseEntity with success/error message
+     * @param cascade Whether to delete dependent results and disputes (default false)
+     * @param dryRun Only count what a cascading delete would affect
+     * @return Future ResponseEntity with a CascadeDeleteReport, 204 if there was nothing to delete, or error message
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteCourse(@PathVariable String id) {
+    public CompletableFuture<ResponseEntity<?>> deleteCourse(@PathVariable String id,
+                                                             @RequestParam(defaultValue = "false") boolean cascade,
+                                                             @RequestParam(defaultValue = "false") boolean dryRun) {
+        if (!cascade && !dryRun) {
+            return deleteCourseOnly(id);
+        }
+        try {
+            return firestoreService.deleteCourseCascadeAsync(id, dryRun, report -> { })
+                .<ResponseEntity<?>>thenApply(report -> {
+                    if (report == null) {
+                        logger.info("Course {} not found; nothing to delete", id);
+                        return ResponseEntity.noContent().build();
+                    }
+                    logger.info("Course {} delete finished (dryRun={}): {} results, {} disputes",
+                        id, dryRun, report.getResults(), report.getDisputes());
+                    return ResponseEntity.ok(report);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error deleting course {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to delete course. Please try again later."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error deleting course {}: {}", id, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred during deletion.")));
+        }
+    }
+
+    /**
+     * Cascading delete of a course, streaming a progress report per committed batch as newline-delimited JSON.
+     * Selected when the client sends 'Accept: application/x-ndjson' with 'cascade=true'; useful for courses
+     * with many results.
+     * @param id The ID of the course to delete
+     * @param dryRun Only count what the delete would affect (a single report)
+     * @return ResponseEntity wrapping the streaming response body
+     */
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_NDJSON_VALUE, params = "cascade=true")
+    public ResponseEntity<StreamingResponseBody> deleteCourseWithProgress(@PathVariable String id,
+                                                                          @RequestParam(defaultValue = "false") boolean dryRun) {
+        return CascadeDeletes.stream(objectMapper,
+            progress -> firestoreService.deleteCourseCascadeAsync(id, dryRun, progress), "course " + id);
+    }
+
+    private CompletableFuture<ResponseEntity<?>> deleteCourseOnly(String id) {
         try {
-            firestoreService.deleteCourse(id);
-            logger.info("Course deleted successfully: {}", id);
-            return ResponseEntity.noContent().build(); // HTTP 204
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error deleting course {}: {}", id, e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to delete course. Please try again later."));
+            return firestoreService.deleteCourseAsync(id)
+                .<ResponseEntity<?>>thenApply(ignored -> {
+                    logger.info("Course deleted successfully: {}", id);
+                    return ResponseEntity.noContent().build(); // HTTP 204
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error deleting course {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to delete course. Please try again later."));
+                });
         } catch (Exception e) {
             logger.error("Unexpected error deleting course {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred during deletion."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred during deletion.")));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.example.srm.controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV in UTF-8 with CRLF line endings. Starts with a byte order mark so Excel
+ * detects the encoding of non-ASCII names. A failed export ends with an ERROR_MARKER row.
+ */
+final class CsvSheetWriter implements SheetWriter {
+
+    // First cell of the row that ends a truncated file
+    static final String ERROR_MARKER = "#ERROR";
+
+    private final Writer writer;
+
+    CsvSheetWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void writeRow(List<?> cells) throws IOException {
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object cell = cells.get(i);
+            if (cell instanceof Number) {
+                writer.write(cell.toString());
+            } else if (cell != null) {
+                writeText(cell.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeText(String text) throws IOException {
+        // Text that a spreadsheet would evaluate as a formula is prefixed with an apostrophe
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void fail(String message) throws IOException {
+        writeRow(List.of(ERROR_MARKER, message));
+        writer.flush();
+    }
+}
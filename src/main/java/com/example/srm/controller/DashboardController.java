@@ -0,0 +1,60 @@
+package com.example.srm.controller;
+
+import com.example.srm.service.FirestoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST controller for the dashboard.
+ * Endpoints are prefixed with '/api/dashboard'.
+ * Handlers return CompletableFutures, so the servlet thread is released while Firestore RPCs are in flight.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardController.class);
+    private final FirestoreService firestoreService;
+
+    /**
+     * Constructor for dependency injection of FirestoreService.
+     * @param firestoreService The service layer for Firestore operations
+     */
+    public DashboardController(FirestoreService firestoreService) {
+        this.firestoreService = firestoreService;
+    }
+
+    /**
+     * Returns the number of students, courses, lecturers, results, disputes and pending disputes
+     * in one response, computed with concurrent count() aggregations instead of listing the collections.
+     * @return Future ResponseEntity containing the summary or error message
+     */
+    @GetMapping("/summary")
+    public CompletableFuture<ResponseEntity<?>> getSummary() {
+        try {
+            return firestoreService.getDashboardSummaryAsync()
+                .<ResponseEntity<?>>thenApply(summary -> {
+                    logger.debug("Dashboard summary: {}", summary);
+                    return ResponseEntity.ok(summary);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error computing dashboard summary: {}", cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve dashboard summary."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error computing dashboard summary: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+}
@@ -1,21 +1,27 @@
 package com.example.srm.controller;
 
 import com.example.srm.model.Dispute;
+import com.example.srm.model.DisputeTransition;
+import com.example.srm.model.Page;
+import com.example.srm.service.DisputeSearchService;
 import com.example.srm.service.FirestoreService;
+import com.example.srm.service.InvalidTransitionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for managing grade dispute operations.
- * Provides endpoints for creating and retrieving dispute records.
+ * Provides endpoints for creating and retrieving dispute records, moving disputes through their
+ * status workflow, paging through per-course and per-lecturer queues of disputes in one status,
+ * and searching dispute reasons by keyword.
  * All endpoints are prefixed with '/api/disputes'.
+ * Handlers return CompletableFutures, so the servlet thread is released while Firestore RPCs are in flight.
  */
 @RestController
 @RequestMapping("/api/disputes")
@@ -23,83 +29,355 @@ public class DisputeController {
 
     private static final Logger logger = LoggerFactory.getLogger(DisputeController.class);
     private final FirestoreService firestoreService;
+    private final DisputeSearchService disputeSearchService;
 
     /**
-     * Constructor for dependency injection of FirestoreService.
+     * Constructor for dependency injection of FirestoreService and DisputeSearchService.
      * @param firestoreService The service layer for Firestore operations
+     * @param disputeSearchService In-memory keyword index over dispute reasons
      */
-    public DisputeController(FirestoreService firestoreService) {
+    public DisputeController(FirestoreService firestoreService, DisputeSearchService disputeSearchService) {
         this.firestoreService = firestoreService;
+        this.disputeSearchService = disputeSearchService;
     }
 
     /**
      * Creates a new grade dispute record.
      * @param dispute The dispute object containing student, course, and reason details
-     * @return ResponseEntity containing the created dispute or error message
+     * @return Future ResponseEntity containing the created dispute or error message
      */
     @PostMapping
-    public ResponseEntity<?> addDispute(@RequestBody Dispute dispute) {
-        try {
-            // Validate required fields
-            if (dispute.getRollNumber() == null || dispute.getRollNumber().isEmpty() ||
-                dispute.getCourseCode() == null || dispute.getCourseCode().isEmpty() ||
-                dispute.getReason() == null || dispute.getReason().isEmpty()) {
-                logger.warn("Add dispute request failed validation: {}", dispute);
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Roll number, course code, and reason are required."
-                ));
-            }
+    public CompletableFuture<ResponseEntity<?>> addDispute(@RequestBody Dispute dispute) {
+        // Validate required fields
+        if (dispute.getRollNumber() == null || dispute.getRollNumber().isEmpty() ||
+            dispute.getCourseCode() == null || dispute.getCourseCode().isEmpty() ||
+            dispute.getReason() == null || dispute.getReason().isEmpty()) {
+            logger.warn("Add dispute request failed validation: {}", dispute);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                "error", "Roll number, course code, and reason are required."
+            )));
+        }
 
-            // Set default status if not provided
-            if (dispute.getStatus() == null || dispute.getStatus().isEmpty()) {
-                dispute.setStatus("pending");
-                logger.debug("Setting default 'pending' status for new dispute");
-            }
+        // Set default status if not provided; a dispute only leaves 'pending' through a transition
+        if (dispute.getStatus() == null || dispute.getStatus().isEmpty()) {
+            dispute.setStatus(Dispute.PENDING);
+            logger.debug("Setting default 'pending' status for new dispute");
+        } else if (!Dispute.PENDING.equals(dispute.getStatus())) {
+            logger.warn("Add dispute request with status '{}' rejected", dispute.getStatus());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                "error", "New disputes start as 'pending'; use PUT /api/disputes/{id}/status to change it."
+            )));
+        }
+        dispute.setResolution(null);
+        dispute.setPreviousMarks(null);
+        dispute.setRevisedMarks(null);
 
-            Dispute createdDispute = firestoreService.addDispute(dispute);
-            logger.info("Dispute added successfully: ID={}, Roll={}, Course={}", 
-                createdDispute.getId(), createdDispute.getRollNumber(), createdDispute.getCourseCode());
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdDispute);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error adding dispute (Roll={}, Course={}): {}", 
-                dispute.getRollNumber(), dispute.getCourseCode(), e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to add dispute."));
+        try {
+            return firestoreService.addDisputeAsync(dispute)
+                .<ResponseEntity<?>>thenApply(createdDispute -> {
+                    logger.info("Dispute added successfully: ID={}, Roll={}, Course={}",
+                        createdDispute.getId(), createdDispute.getRollNumber(), createdDispute.getCourseCode());
+                    return ResponseEntity.status(HttpStatus.CREATED).body(createdDispute);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error adding dispute (Roll={}, Course={}): {}",
+                        dispute.getRollNumber(), dispute.getCourseCode(), cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to add dispute."));
+                });
         } catch (Exception e) {
-            logger.error("Unexpected error adding dispute (Roll={}, Course={}): {}", 
+            logger.error("Unexpected error adding dispute (Roll={}, Course={}): {}",
                 dispute.getRollNumber(), dispute.getCourseCode(), e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
-     * Retrieves all dispute records.
-     * @return ResponseEntity containing list of disputes or error message
+     * Retrieves dispute records.
+     * Without paging parameters the whole collection is returned as a JSON array.
+     * When 'limit' or 'pageToken' is supplied, a single cursor page is returned instead.
+     * @param limit Maximum number of disputes on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return, e.g. "rollNumber,courseCode,status"; only those are read from Firestore
+     * @return Future ResponseEntity containing list or page of disputes, or error message
      */
     @GetMapping
-    public ResponseEntity<?> getAllDisputes() {
+    public CompletableFuture<ResponseEntity<?>> getAllDisputes(@RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String pageToken,
+                                                               @RequestParam(required = false) String orderBy,
+                                                               @RequestParam(required = false) String fields) {
         try {
-            List<Dispute> disputes = firestoreService.getAllDisputes();
-            logger.debug("Retrieved {} disputes.", disputes.size());
-            return ResponseEntity.ok(disputes);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error retrieving disputes: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to retrieve disputes."));
+            CompletableFuture<ResponseEntity<?>> response;
+            if (fields != null) {
+                response = limit != null || pageToken != null
+                    ? firestoreService.getPageProjectedAsync(Dispute.class, null, null, limit, pageToken, orderBy, fields)
+                        .thenApply(ResponseEntity::ok)
+                    : firestoreService.getAllProjectedAsync(Dispute.class, fields)
+                        .thenApply(ResponseEntity::ok);
+            } else if (limit != null || pageToken != null) {
+                response = firestoreService.getDisputesPageAsync(limit, pageToken, orderBy)
+                    .thenApply(page -> {
+                        logger.debug("Retrieved page of {} disputes.", page.getItems().size());
+                        return ResponseEntity.ok(page);
+                    });
+            } else {
+                response = firestoreService.getAllDisputesAsync()
+                    .thenApply(disputes -> {
+                        logger.debug("Retrieved {} disputes.", disputes.size());
+                        return ResponseEntity.ok(disputes);
+                    });
+            }
+            return response.exceptionally(e -> {
+                Throwable cause = FirestoreService.unwrap(e);
+                logger.error("Error retrieving disputes: {}", cause.getMessage(), cause);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve disputes."));
+            });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid dispute page request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
             logger.error("Unexpected error retrieving disputes: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Retrieves the disputes for a single student, one cursor page at a time.
+     * Backed by a Firestore equality query, so only matching documents are read.
+     * @param rollNumber The student to filter by
+     * @param limit Maximum number of disputes on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return
+     * @return Future ResponseEntity containing a page of disputes or error message
+     */
+    @GetMapping("/student/{rollNumber}")
+    public CompletableFuture<ResponseEntity<?>> getDisputesByStudent(@PathVariable String rollNumber,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     @RequestParam(required = false) String pageToken,
+                                                                     @RequestParam(required = false) String orderBy,
+                                                                     @RequestParam(required = false) String fields) {
+        try {
+            CompletableFuture<? extends Page<?>> pages = fields == null
+                ? firestoreService.getDisputesByStudentAsync(rollNumber, limit, pageToken, orderBy)
+                : firestoreService.getPageProjectedAsync(Dispute.class, "rollNumber", rollNumber, limit, pageToken, orderBy, fields);
+            return pages
+                .<ResponseEntity<?>>thenApply(page -> {
+                    logger.debug("Retrieved page of {} disputes for student {}.", page.getItems().size(), rollNumber);
+                    return ResponseEntity.ok(page);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving disputes for student {}: {}", rollNumber, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve disputes."));
+                });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid dispute page request for student {}: {}", rollNumber, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving disputes for student {}: {}", rollNumber, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Retrieves the disputes for a single course, one cursor page at a time.
+     * Backed by a Firestore equality query, so only matching documents are read.
+     * @param courseCode The course to filter by
+     * @param limit Maximum number of disputes on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return
+     * @return Future ResponseEntity containing a page of disputes or error message
+     */
+    @GetMapping("/course/{courseCode}")
+    public CompletableFuture<ResponseEntity<?>> getDisputesByCourse(@PathVariable String courseCode,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String pageToken,
+                                                                    @RequestParam(required = false) String orderBy,
+                                                                    @RequestParam(required = false) String fields) {
+        try {
+            CompletableFuture<? extends Page<?>> pages = fields == null
+                ? firestoreService.getDisputesByCourseAsync(courseCode, limit, pageToken, orderBy)
+                : firestoreService.getPageProjectedAsync(Dispute.class, "courseCode", courseCode, limit, pageToken, orderBy, fields);
+            return pages
+                .<ResponseEntity<?>>thenApply(page -> {
+                    logger.debug("Retrieved page of {} disputes for course {}.", page.getItems().size(), courseCode);
+                    return ResponseEntity.ok(page);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving disputes for course {}: {}", courseCode, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve disputes."));
+                });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid dispute page request for course {}: {}", courseCode, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving disputes for course {}: {}", courseCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Moves a dispute to its next status: pending -> under_review -> resolved or rejected.
+     * The transition is checked against the dispute's current status inside a Firestore transaction.
+     * Resolving with 'marks' and/or 'grade' corrects the student's result for the course in the same transaction.
+     * @param id The dispute's document ID
+     * @param transition The target status, optional corrected marks/grade, and optional resolution note
+     * @return Future ResponseEntity containing the updated dispute, 400 for a malformed request,
+     *         404 if the dispute does not exist, or 409 if the dispute's current status does not allow the
+     *         transition (or there is no result to correct)
+     */
+    @PutMapping("/{id}/status")
+    public CompletableFuture<ResponseEntity<?>> transitionDispute(@PathVariable String id,
+                                                                  @RequestBody DisputeTransition transition) {
+        try {
+            return firestoreService.transitionDisputeAsync(id, transition)
+                .<ResponseEntity<?>>thenApply(dispute -> {
+                    if (dispute == null) {
+                        logger.warn("Dispute transition failed: dispute {} not found.", id);
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Dispute not found."));
+                    }
+                    return ResponseEntity.ok(dispute);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    if (cause instanceof InvalidTransitionException) {
+                        logger.warn("Dispute {} transition to '{}' rejected: {}", id, transition.getStatus(), cause.getMessage());
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", cause.getMessage()));
+                    }
+                    if (cause instanceof IllegalArgumentException) {
+                        logger.warn("Invalid transition request for dispute {}: {}", id, cause.getMessage());
+                        return ResponseEntity.badRequest().body(Map.of("error", cause.getMessage()));
+                    }
+                    logger.error("Error moving dispute {} to '{}': {}", id, transition.getStatus(), cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to update dispute."));
+                });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid transition request for dispute {}: {}", id, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error updating dispute {}: {}", id, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Retrieves a course's dispute queue: its disputes in one status, one cursor page at a time.
+     * Backed by a Firestore query on (courseCode, status), so only the queue's documents are read.
+     * @param courseCode The course to filter by
+     * @param status The status to filter by (defaults to "pending")
+     * @param limit Maximum number of disputes on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @return Future ResponseEntity containing a page of disputes or error message
+     */
+    @GetMapping("/queue/course/{courseCode}")
+    public CompletableFuture<ResponseEntity<?>> getCourseQueue(@PathVariable String courseCode,
+                                                               @RequestParam(defaultValue = Dispute.PENDING) String status,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String pageToken) {
+        try {
+            return queueResponse(firestoreService.getDisputeQueueByCourseAsync(courseCode, status, limit, pageToken),
+                "course " + courseCode, status);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid dispute queue request for course {}: {}", courseCode, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving dispute queue for course {}: {}", courseCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Retrieves a lecturer's dispute queue: the disputes in one status across every course whose
+     * courseInstructor is the lecturer, one cursor page at a time.
+     * @param instructor The lecturer, as recorded in the courses' courseInstructor field
+     * @param status The status to filter by (defaults to "pending")
+     * @param limit Maximum number of disputes on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @return Future ResponseEntity containing a page of disputes or error message
+     */
+    @GetMapping("/queue/lecturer/{instructor}")
+    public CompletableFuture<ResponseEntity<?>> getLecturerQueue(@PathVariable String instructor,
+                                                                 @RequestParam(defaultValue = Dispute.PENDING) String status,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) String pageToken) {
+        try {
+            return queueResponse(firestoreService.getDisputeQueueByLecturerAsync(instructor, status, limit, pageToken),
+                "lecturer " + instructor, status);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid dispute queue request for lecturer {}: {}", instructor, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving dispute queue for lecturer {}: {}", instructor, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
+    /**
+     * Finds disputes whose reason contains every word of the query (e.g. "missing paper"), answered from
+     * the in-memory inverted index without any Firestore reads. Case, accents and stop words are ignored.
+     * @param q The keywords
+     * @param status Optional status to filter by
+     * @param courseCode Optional course to filter by
+     * @param limit Maximum number of disputes (default 50, at most DisputeSearchService.MAX_LIMIT)
+     * @return Future ResponseEntity containing the matching disputes or error message
+     */
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<?>> searchDisputes(@RequestParam String q,
+                                                               @RequestParam(required = false) String status,
+                                                               @RequestParam(required = false) String courseCode,
+                                                               @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.ok(disputeSearchService.search(q, status, courseCode, limit)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid dispute search: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (IllegalStateException e) {
+            logger.warn("Dispute search requested before the index was loaded.");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error searching disputes for '{}': {}", q, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<?>> queueResponse(CompletableFuture<Page<Dispute>> pages, String owner, String status) {
+        return pages
+            .<ResponseEntity<?>>thenApply(page -> {
+                logger.debug("Retrieved page of {} '{}' disputes for {}.", page.getItems().size(), status, owner);
+                return ResponseEntity.ok(page);
+            })
+            .exceptionally(e -> {
+                Throwable cause = FirestoreService.unwrap(e);
+                if (cause instanceof IllegalArgumentException) {
+                    logger.warn("Invalid dispute queue request for {}: {}", owner, cause.getMessage());
+                    return ResponseEntity.badRequest().body(Map.of("error", cause.getMessage()));
+                }
+                logger.error("Error retrieving dispute queue for {}: {}", owner, cause.getMessage(), cause);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve disputes."));
+            });
+    }
+
     // Future endpoints that could be implemented:
     // @GetMapping("/{id}") - Get specific dispute by ID
-    // @PutMapping("/{id}") - Update dispute status (e.g., from pending to resolved)
     // @DeleteMapping("/{id}") - Remove dispute record
-    // @GetMapping("/student/{rollNumber}") - Get disputes by student
-    // @GetMapping("/course/{courseCode}") - Get disputes by course
-}
\ No newline at end of file
+}
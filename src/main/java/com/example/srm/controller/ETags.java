@@ -0,0 +1,60 @@
+package com.example.srm.controller;
+
+import com.example.srm.service.Versioned;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Conditional GET support for controllers returning Versioned values.
+ * Responses carry the value's ETag with 'Cache-Control: no-cache', so browsers keep the body but
+ * revalidate on every request; a request whose If-None-Match names the current ETag gets
+ * 304 Not Modified without a body, so nothing is serialized.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param ifNoneMatch The If-None-Match header (may be null, '*', or a list of possibly weak tags)
+     * @param eTag The current unquoted ETag
+     * @return Whether the client already holds the current version
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            // If-None-Match uses the weak comparison (RFC 9110 13.1.2)
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.length() >= 2 && candidate.startsWith("\"") && candidate.endsWith("\"")) {
+                candidate = candidate.substring(1, candidate.length() - 1);
+            }
+            if (candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static ResponseEntity<?> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    /**
+     * @return 304 if the client holds the current version, otherwise 200 with the value and its ETag
+     */
+    static ResponseEntity<?> respond(String ifNoneMatch, Versioned<?> versioned) {
+        if (matches(ifNoneMatch, versioned.eTag())) {
+            return notModified(versioned.eTag());
+        }
+        return ResponseEntity.ok().eTag(versioned.eTag()).cacheControl(CacheControl.noCache()).body(versioned.value());
+    }
+}
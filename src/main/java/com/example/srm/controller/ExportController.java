@@ -0,0 +1,164 @@
+package com.example.srm.controller;
+
+import com.example.srm.model.Course;
+import com.example.srm.model.Result;
+import com.example.srm.model.Student;
+import com.example.srm.service.DocumentSink;
+import com.example.srm.service.FirestoreService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * REST controller for spreadsheet exports of results, students and courses as CSV or XLSX.
+ * Endpoints are prefixed with '/api/export'.
+ * Rows are written to the response as Firestore cursor pages arrive (see FirestoreService.exportResults),
+ * so memory use does not grow with the collection and the download starts with the first page.
+ * If reading fails part-way the status is already 200, so the file itself is marked: a CSV ends with a
+ * row whose first cell is "#ERROR", and an XLSX is left without its ZIP central directory so it cannot
+ * be opened.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    // Rows written between flushes of the response
+    private static final int FLUSH_INTERVAL = 500;
+
+    private static final List<String> RESULT_COLUMNS = List.of("id", "rollNumber", "courseCode", "marks", "grade");
+    private static final List<String> STUDENT_COLUMNS = List.of("id", "rollNumber", "name", "email");
+    private static final List<String> COURSE_COLUMNS = List.of("id", "courseCode", "courseName", "courseInstructor");
+
+    private final FirestoreService firestoreService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for dependency injection.
+     * @param firestoreService The service layer for Firestore operations
+     * @param objectMapper Serializes error bodies
+     */
+    public ExportController(FirestoreService firestoreService, ObjectMapper objectMapper) {
+        this.firestoreService = firestoreService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exports result records, optionally only those of one student and/or one course.
+     * @param format 'csv' (default) or 'xlsx'
+     * @param rollNumber Optional student to filter by
+     * @param courseCode Optional course to filter by
+     * @return ResponseEntity wrapping the streaming file, or 400 for an unknown format
+     */
+    @GetMapping("/results")
+    public ResponseEntity<StreamingResponseBody> exportResults(@RequestParam(defaultValue = "csv") String format,
+                                                               @RequestParam(required = false) String rollNumber,
+                                                               @RequestParam(required = false) String courseCode) {
+        return export(format, "results", RESULT_COLUMNS,
+            (Result result) -> Arrays.asList(result.getId(), result.getRollNumber(), result.getCourseCode(),
+                result.getMarks(), result.getGrade()),
+            sink -> firestoreService.exportResults(rollNumber, courseCode, sink));
+    }
+
+    /**
+     * Exports the student roster.
+     * @param format 'csv' (default) or 'xlsx'
+     * @return ResponseEntity wrapping the streaming file, or 400 for an unknown format
+     */
+    @GetMapping("/students")
+    public ResponseEntity<StreamingResponseBody> exportStudents(@RequestParam(defaultValue = "csv") String format) {
+        return export(format, "students", STUDENT_COLUMNS,
+            (Student student) -> Arrays.asList(student.getId(), student.getRollNumber(), student.getName(), student.getEmail()),
+            firestoreService::exportStudents);
+    }
+
+    /**
+     * Exports the course list.
+     * @param format 'csv' (default) or 'xlsx'
+     * @return ResponseEntity wrapping the streaming file, or 400 for an unknown format
+     */
+    @GetMapping("/courses")
+    public ResponseEntity<StreamingResponseBody> exportCourses(@RequestParam(defaultValue = "csv") String format) {
+        return export(format, "courses", COURSE_COLUMNS,
+            (Course course) -> Arrays.asList(course.getId(), course.getCourseCode(), course.getCourseName(),
+                course.getCourseInstructor()),
+            firestoreService::exportCourses);
+    }
+
+    /**
+     * One of FirestoreService's export methods.
+     */
+    @FunctionalInterface
+    private interface Exporter<T> {
+        long export(DocumentSink<T> sink) throws IOException, ExecutionException, InterruptedException;
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> export(String format, String name, List<String> columns,
+                                                             Function<T, List<?>> row, Exporter<T> exporter) {
+        SheetWriter.Format sheetFormat;
+        try {
+            sheetFormat = SheetWriter.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid export request: {}", e.getMessage());
+            byte[] error;
+            try {
+                error = objectMapper.writeValueAsBytes(Map.of("error", e.getMessage()));
+            } catch (IOException serializationError) {
+                throw new IllegalStateException(serializationError);
+            }
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> outputStream.write(error));
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            AtomicLong written = new AtomicLong();
+            SheetWriter writer = sheetFormat.open(outputStream, name);
+            writer.writeRow(columns);
+            // Sends the header straight away, so the download starts before the first page is read
+            writer.flush();
+            try {
+                exporter.export(item -> {
+                    writer.writeRow(row.apply(item));
+                    if (written.incrementAndGet() % FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                });
+                writer.finish();
+                logger.debug("Exported {} {} as {}.", written.get(), name, sheetFormat.extension());
+            } catch (ExecutionException | InterruptedException e) {
+                // Headers are already committed, so the status cannot change: mark the file itself as truncated
+                Throwable cause = FirestoreService.unwrap(e);
+                logger.error("Error exporting {} after {} rows: {}", name, written.get(), cause.getMessage(), cause);
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                writer.fail("Export of " + name + " failed after " + written.get() + " rows; the file is incomplete.");
+                throw new IOException("Failed to export " + name + ".", cause);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(sheetFormat.contentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + sheetFormat.extension()).build().toString())
+            .body(body);
+    }
+}
@@ -2,20 +2,22 @@ package com.example.srm.controller;
 
 import com.example.srm.model.Lecturer;
 import com.example.srm.service.FirestoreService;
+import com.example.srm.service.SearchService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for managing lecturer-related operations.
  * Provides CRUD endpoints for lecturer records in Firestore.
  * All endpoints are prefixed with '/api/lecturers'.
+ * Handlers return CompletableFutures, so the servlet thread is released while Firestore RPCs are in flight.
  */
 @RestController
 @RequestMapping("/api/lecturers")
@@ -23,98 +25,165 @@ public class LecturerController {
 
     private static final Logger logger = LoggerFactory.getLogger(LecturerController.class);
     private final FirestoreService firestoreService;
+    private final SearchService searchService;
 
     /**
-     * Constructor for dependency injection of FirestoreService.
+     * Constructor for dependency injection of FirestoreService and SearchService.
      * @param firestoreService The service layer for Firestore operations
+     * @param searchService In-memory typeahead index over students and lecturers
      */
-    public LecturerController(FirestoreService firestoreService) {
+    public LecturerController(FirestoreService firestoreService, SearchService searchService) {
         this.firestoreService = firestoreService;
+        this.searchService = searchService;
     }
 
     /**
      * Creates a new lecturer record.
      * @param lecturer The lecturer object to be created (from request body)
-     * @return ResponseEntity containing the created lecturer or error message
+     * @return Future ResponseEntity containing the created lecturer or error message
      */
     @PostMapping
-    public ResponseEntity<?> addLecturer(@RequestBody Lecturer lecturer) {
-        try {
-            // Validate required fields
-            if (lecturer.getLecturerId() == null || lecturer.getLecturerId().isEmpty() ||
-                lecturer.getLecturerName() == null || lecturer.getLecturerName().isEmpty() ||
-                lecturer.getLecturerEmail() == null || lecturer.getLecturerEmail().isEmpty()) {
-                logger.warn("Add lecturer request failed validation: {}", lecturer);
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Lecturer ID, name, and email are required."
-                ));
-            }
+    public CompletableFuture<ResponseEntity<?>> addLecturer(@RequestBody Lecturer lecturer) {
+        // Validate required fields
+        if (lecturer.getLecturerId() == null || lecturer.getLecturerId().isEmpty() ||
+            lecturer.getLecturerName() == null || lecturer.getLecturerName().isEmpty() ||
+            lecturer.getLecturerEmail() == null || lecturer.getLecturerEmail().isEmpty()) {
+            logger.warn("Add lecturer request failed validation: {}", lecturer);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                "error", "Lecturer ID, name, and email are required."
+            )));
+        }
 
-            Lecturer createdLecturer = firestoreService.addLecturer(lecturer);
-            logger.info("Lecturer added successfully: ID={}, LecturerID={}", 
-                createdLecturer.getId(), createdLecturer.getLecturerId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdLecturer);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error adding lecturer (LecturerID={}): {}", 
-                lecturer.getLecturerId(), e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to add lecturer."));
+        try {
+            return firestoreService.addLecturerAsync(lecturer)
+                .<ResponseEntity<?>>thenApply(createdLecturer -> {
+                    logger.info("Lecturer added successfully: ID={}, LecturerID={}",
+                        createdLecturer.getId(), createdLecturer.getLecturerId());
+                    return ResponseEntity.status(HttpStatus.CREATED).body(createdLecturer);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error adding lecturer (LecturerID={}): {}",
+                        lecturer.getLecturerId(), cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to add lecturer."));
+                });
         } catch (Exception e) {
-            logger.error("Unexpected error adding lecturer (LecturerID={}): {}", 
+            logger.error("Unexpected error adding lecturer (LecturerID={}): {}",
                 lecturer.getLecturerId(), e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
-     * Retrieves all lecturer records.
-     * @return ResponseEntity containing list of lecturers or error message
+     * Retrieves lecturer records.
+     * Without paging parameters the whole collection is returned as a JSON array.
+     * When 'limit' or 'pageToken' is supplied, a single cursor page is returned instead.
+     * @param limit Maximum number of lecturers on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return, e.g. "lecturerId,lecturerName"; only those are read from Firestore
+     * @param ifNoneMatch ETag of a previously returned full listing; answered with 304 if unchanged
+     * @return Future ResponseEntity containing list or page of lecturers, or error message
      */
     @GetMapping
-    public ResponseEntity<?> getAllLecturers() {
+    public CompletableFuture<ResponseEntity<?>> getAllLecturers(@RequestParam(required = false) Integer limit,
+                                                                @RequestParam(required = false) String pageToken,
+                                                                @RequestParam(required = false) String orderBy,
+                                                                @RequestParam(required = false) String fields,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Lecturer> lecturers = firestoreService.getAllLecturers();
-            logger.debug("Retrieved {} lecturers.", lecturers.size());
-            return ResponseEntity.ok(lecturers);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error retrieving lecturers: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to retrieve lecturers."));
+            CompletableFuture<ResponseEntity<?>> response;
+            if (fields != null) {
+                response = limit != null || pageToken != null
+                    ? firestoreService.getPageProjectedAsync(Lecturer.class, null, null, limit, pageToken, orderBy, fields)
+                        .thenApply(ResponseEntity::ok)
+                    : firestoreService.getAllProjectedAsync(Lecturer.class, fields)
+                        .thenApply(ResponseEntity::ok);
+            } else if (limit != null || pageToken != null) {
+                response = firestoreService.getLecturersPageAsync(limit, pageToken, orderBy)
+                    .thenApply(page -> {
+                        logger.debug("Retrieved page of {} lecturers.", page.getItems().size());
+                        return ResponseEntity.ok(page);
+                    });
+            } else {
+                // Served from the reference data cache when warm, so a 304 costs no Firestore reads
+                response = firestoreService.getAllVersionedLecturersAsync()
+                    .thenApply(lecturers -> {
+                        logger.debug("Retrieved {} lecturers.", lecturers.value().size());
+                        return ETags.respond(ifNoneMatch, lecturers);
+                    });
+            }
+            return response.exceptionally(e -> {
+                Throwable cause = FirestoreService.unwrap(e);
+                logger.error("Error retrieving lecturers: {}", cause.getMessage(), cause);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve lecturers."));
+            });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid lecturer page request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
             logger.error("Unexpected error retrieving lecturers: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
      * Deletes a lecturer record.
      * @param id The ID of the lecturer to delete
-     * @return ResponseEntity with success/error message
+     * @return Future ResponseEntity with success/error message
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteLecturer(@PathVariable String id) {
+    public CompletableFuture<ResponseEntity<?>> deleteLecturer(@PathVariable String id) {
         try {
-            firestoreService.deleteLecturer(id);
-            logger.info("Lecturer deleted successfully: {}", id);
-            return ResponseEntity.noContent().build(); // HTTP 204
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error deleting lecturer {}: {}", id, e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to delete lecturer."));
+            return firestoreService.deleteLecturerAsync(id)
+                .<ResponseEntity<?>>thenApply(ignored -> {
+                    logger.info("Lecturer deleted successfully: {}", id);
+                    return ResponseEntity.noContent().build(); // HTTP 204
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error deleting lecturer {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to delete lecturer."));
+                });
         } catch (Exception e) {
             logger.error("Unexpected error deleting lecturer {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Typeahead search by partial name or email, answered from the in-memory search index
+     * without any Firestore reads. Every word of the query must start a word of the lecturer's details.
+     * @param q The text typed so far, e.g. "ali" or "a.khan"
+     * @param limit Maximum number of matches (default 10, at most SearchService.MAX_LIMIT)
+     * @return Future ResponseEntity containing the matching lecturers or error message
+     */
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<?>> searchLecturers(@RequestParam String q,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(searchService.searchLecturers(q, limit)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid lecturer search: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (IllegalStateException e) {
+            logger.warn("Lecturer search requested before the index was loaded.");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error searching lecturers for '{}': {}", q, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     // Potential future endpoints:
     // @GetMapping("/{id}") - Get specific lecturer by ID
     // @PutMapping("/{id}") - Update lecturer information
-    // @GetMapping("/search") - Search lecturers by name/email
-}
\ No newline at end of file
+}
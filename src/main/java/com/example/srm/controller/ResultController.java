@@ -1,128 +1,419 @@
 package com.example.srm.controller;
 
+import com.example.srm.model.ImportReport;
+import com.example.srm.model.Page;
 import com.example.srm.model.Result;
+import com.example.srm.service.DuplicateDocumentException;
 import com.example.srm.service.FirestoreService;
+import com.example.srm.service.ResultImportService;
+import com.example.srm.service.ResultWriteBuffer;
+import com.example.srm.service.ResultValidator;
+import com.example.srm.service.WriteRejectedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * REST controller for managing student result operations.
- * Provides endpoints for creating, retrieving, and deleting academic results.
+ * Provides endpoints for creating (singly or by bulk import), retrieving, and deleting academic results.
  * All endpoints are prefixed with '/api/results'.
+ * Handlers return CompletableFutures, so the servlet thread is released while Firestore RPCs are in flight.
  */
 @RestController
 @RequestMapping("/api/results")
 public class ResultController {
 
     private static final Logger logger = LoggerFactory.getLogger(ResultController.class);
+
+    // Flush the streamed response after the first line and then every N lines
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+
     private final FirestoreService firestoreService;
+    private final ResultImportService resultImportService;
+    private final ResultWriteBuffer resultWriteBuffer;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructor for dependency injection of FirestoreService.
+     * Constructor for dependency injection of the services and Jackson's ObjectMapper.
      * @param firestoreService The service layer for Firestore operations
+     * @param resultImportService Bulk CSV/JSON import of results
+     * @param resultWriteBuffer Optional write-behind path for single results
+     * @param objectMapper The application's JSON mapper, used for streamed responses
      */
-    public ResultController(FirestoreService firestoreService) {
+    public ResultController(FirestoreService firestoreService, ResultImportService resultImportService,
+                            ResultWriteBuffer resultWriteBuffer, ObjectMapper objectMapper) {
         this.firestoreService = firestoreService;
+        this.resultImportService = resultImportService;
+        this.resultWriteBuffer = resultWriteBuffer;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Creates a new academic result record.
+     * Creates a new academic result record. A student has at most one result per course;
+     * a second one is rejected with 409 Conflict and the existing result is kept.
+     * With srm.results.write-behind.enabled the result is committed together with other concurrent
+     * submissions (see ResultWriteBuffer): 503 with Retry-After when the queue is full or the server is
+     * shutting down.
      * @param result The result object containing student, course, marks, and grade
-     * @return ResponseEntity containing the created result or error message
+     * @return Future ResponseEntity containing the created result or error message
      */
     @PostMapping
-    public ResponseEntity<?> addResult(@RequestBody Result result) {
-        try {
-            // Validate required fields and mark range
-            if (result.getRollNumber() == null || result.getRollNumber().isEmpty() ||
-                result.getCourseCode() == null || result.getCourseCode().isEmpty() ||
-                result.getGrade() == null || result.getGrade().isEmpty() ||
-                result.getMarks() < 0) {
-                logger.warn("Add result request failed validation: {}", result);
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Roll number, course code, grade, and non-negative marks are required."
-                ));
-            }
+    public CompletableFuture<ResponseEntity<?>> addResult(@RequestBody Result result) {
+        // Validate required fields and the marks range (same rules as bulk imports, see ResultValidator)
+        String validationError = ResultValidator.validationError(result);
+        if (validationError != null) {
+            logger.warn("Add result request failed validation: {}", result);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                "error", validationError
+            )));
+        }
 
-            // Consider adding additional validation:
-            // - Check if marks are within valid range (e.g., 0-100)
-            // - Verify grade consistency with marks
-            // - Validate student/course existence
-
-            Result createdResult = firestoreService.addResult(result);
-            logger.info("Result added successfully: ID={}, Roll={}, Course={}", 
-                createdResult.getId(), createdResult.getRollNumber(), createdResult.getCourseCode());
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdResult);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error adding result (Roll={}, Course={}): {}", 
-                result.getRollNumber(), result.getCourseCode(), e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to add result."));
+        // Consider adding additional validation:
+        // - Verify grade consistency with marks
+        // - Validate student/course existence
+
+        try {
+            // Group commit when write-behind is enabled (see ResultWriteBuffer)
+            CompletableFuture<Result> written = resultWriteBuffer.isEnabled()
+                ? resultWriteBuffer.submit(result)
+                : firestoreService.addResultAsync(result);
+            return written
+                .<ResponseEntity<?>>thenApply(createdResult -> {
+                    logger.info("Result added successfully: ID={}, Roll={}, Course={}",
+                        createdResult.getId(), createdResult.getRollNumber(), createdResult.getCourseCode());
+                    return ResponseEntity.status(HttpStatus.CREATED).body(createdResult);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    if (cause instanceof DuplicateDocumentException) {
+                        logger.warn("Duplicate result rejected (Roll={}, Course={})", result.getRollNumber(), result.getCourseCode());
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", cause.getMessage()));
+                    }
+                    if (cause instanceof WriteRejectedException) {
+                        // Still queued when write-behind shut down (see ResultWriteBuffer.stop)
+                        logger.warn("Result not written before shutdown (Roll={}, Course={})", result.getRollNumber(), result.getCourseCode());
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .body(Map.of("error", cause.getMessage()));
+                    }
+                    logger.error("Error adding result (Roll={}, Course={}): {}",
+                        result.getRollNumber(), result.getCourseCode(), cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to add result."));
+                });
+        } catch (WriteRejectedException e) {
+            logger.warn("Result write queue refused (Roll={}, Course={}): {}", result.getRollNumber(), result.getCourseCode(), e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
-            logger.error("Unexpected error adding result (Roll={}, Course={}): {}", 
+            logger.error("Unexpected error adding result (Roll={}, Course={}): {}",
                 result.getRollNumber(), result.getCourseCode(), e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Imports many results from a CSV upload (Content-Type: text/csv).
+     * The first line is a header naming the columns rollNumber, courseCode, marks and grade.
+     * Every row is validated like POST /api/results and valid rows are written in parallel batches.
+     * @param csv The CSV text
+     * @return Future ResponseEntity containing the per-row import report or error message
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public CompletableFuture<ResponseEntity<?>> importResultsCsv(@RequestBody String csv) {
+        try {
+            return respondWithReport(resultImportService.importCsv(csv));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid CSV result import: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error importing results from CSV: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
-     * Retrieves all result records.
-     * @return ResponseEntity containing list of results or error message
+     * Imports many results from a JSON array of result objects.
+     * Every row is validated like POST /api/results and valid rows are written in parallel batches.
+     * @param results The results to create
+     * @return Future ResponseEntity containing the per-row import report or error message
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<?>> importResultsJson(@RequestBody List<Result> results) {
+        try {
+            return respondWithReport(resultImportService.importResults(results));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid JSON result import: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error importing results from JSON: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<?>> respondWithReport(CompletableFuture<ImportReport> importReport) {
+        return importReport
+            .<ResponseEntity<?>>thenApply(report -> {
+                logger.info("Imported {} of {} results.", report.getCreated(), report.getTotal());
+                return ResponseEntity.ok(report);
+            })
+            .exceptionally(e -> {
+                Throwable cause = FirestoreService.unwrap(e);
+                logger.error("Error importing results: {}", cause.getMessage(), cause);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to import results."));
+            });
+    }
+
+    /**
+     * Retrieves result records.
+     * Without paging parameters the whole collection is returned as a JSON array.
+     * When 'limit' or 'pageToken' is supplied, a single cursor page is returned instead.
+     * @param limit Maximum number of results on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return, e.g. "rollNumber,courseCode,grade"; only those are read from Firestore
+     * @return Future ResponseEntity containing list or page of results, or error message
      */
     @GetMapping
-    public ResponseEntity<?> getAllResults() {
+    public CompletableFuture<ResponseEntity<?>> getAllResults(@RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String pageToken,
+                                                              @RequestParam(required = false) String orderBy,
+                                                              @RequestParam(required = false) String fields) {
         try {
-            List<Result> results = firestoreService.getAllResults();
-            logger.debug("Retrieved {} results.", results.size());
-            return ResponseEntity.ok(results);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error retrieving results: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to retrieve results."));
+            CompletableFuture<ResponseEntity<?>> response;
+            if (fields != null) {
+                response = limit != null || pageToken != null
+                    ? firestoreService.getPageProjectedAsync(Result.class, null, null, limit, pageToken, orderBy, fields)
+                        .thenApply(ResponseEntity::ok)
+                    : firestoreService.getAllProjectedAsync(Result.class, fields)
+                        .thenApply(ResponseEntity::ok);
+            } else if (limit != null || pageToken != null) {
+                response = firestoreService.getResultsPageAsync(limit, pageToken, orderBy)
+                    .thenApply(page -> {
+                        logger.debug("Retrieved page of {} results.", page.getItems().size());
+                        return ResponseEntity.ok(page);
+                    });
+            } else {
+                response = firestoreService.getAllResultsAsync()
+                    .thenApply(results -> {
+                        logger.debug("Retrieved {} results.", results.size());
+                        return ResponseEntity.ok(results);
+                    });
+            }
+            return response.exceptionally(e -> {
+                Throwable cause = FirestoreService.unwrap(e);
+                logger.error("Error retrieving results: {}", cause.getMessage(), cause);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve results."));
+            });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid result page request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
             logger.error("Unexpected error retrieving results: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Streams all result records as newline-delimited JSON (one result per line).
+     * Selected when the client sends 'Accept: application/x-ndjson'. Results are written
+     * as they arrive from Firestore, so heap use stays flat regardless of collection size
+     * and the first line reaches the client before the query has finished.
+     * @return ResponseEntity wrapping the streaming response body
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllResults() {
+        StreamingResponseBody body = outputStream -> {
+            AtomicLong written = new AtomicLong();
+            try {
+                firestoreService.streamAllResults(result -> {
+                    outputStream.write(objectMapper.writeValueAsBytes(result));
+                    outputStream.write('\n');
+                    if (written.incrementAndGet() % STREAM_FLUSH_INTERVAL == 1) {
+                        outputStream.flush();
+                    }
+                });
+                outputStream.flush();
+                logger.debug("Streamed {} results.", written.get());
+            } catch (ExecutionException | InterruptedException e) {
+                // Headers are already committed, so the client sees a truncated stream
+                logger.error("Error streaming results after {} rows: {}", written.get(), e.getMessage(), e);
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Failed to stream results.", e);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    /**
+     * Retrieves the results for a single student, one cursor page at a time.
+     * Backed by a Firestore equality query, so only matching documents are read.
+     * @param rollNumber The student to filter by
+     * @param limit Maximum number of results on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return
+     * @return Future ResponseEntity containing a page of results or error message
+     */
+    @GetMapping("/student/{rollNumber}")
+    public CompletableFuture<ResponseEntity<?>> getResultsByStudent(@PathVariable String rollNumber,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String pageToken,
+                                                                    @RequestParam(required = false) String orderBy,
+                                                                    @RequestParam(required = false) String fields) {
+        try {
+            CompletableFuture<? extends Page<?>> pages = fields == null
+                ? firestoreService.getResultsByStudentAsync(rollNumber, limit, pageToken, orderBy)
+                : firestoreService.getPageProjectedAsync(Result.class, "rollNumber", rollNumber, limit, pageToken, orderBy, fields);
+            return pages
+                .<ResponseEntity<?>>thenApply(page -> {
+                    logger.debug("Retrieved page of {} results for student {}.", page.getItems().size(), rollNumber);
+                    return ResponseEntity.ok(page);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving results for student {}: {}", rollNumber, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve results."));
+                });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid result page request for student {}: {}", rollNumber, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving results for student {}: {}", rollNumber, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Retrieves a student's result for one course.
+     * The result's document ID is derived from the roll number and course code, so this is one document read.
+     * @param rollNumber The student's roll number
+     * @param courseCode The course code
+     * @return Future ResponseEntity containing the result or error message
+     */
+    @GetMapping("/student/{rollNumber}/course/{courseCode}")
+    public CompletableFuture<ResponseEntity<?>> getResult(@PathVariable String rollNumber, @PathVariable String courseCode) {
+        try {
+            return firestoreService.getResultAsync(rollNumber, courseCode)
+                .<ResponseEntity<?>>thenApply(result -> {
+                    if (result == null) {
+                        logger.warn("No result for student {} in course {}", rollNumber, courseCode);
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "No result for student " + rollNumber + " in course " + courseCode));
+                    }
+                    logger.debug("Retrieved result for student {} in course {}", rollNumber, courseCode);
+                    return ResponseEntity.ok(result);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving result for student {} in course {}: {}",
+                        rollNumber, courseCode, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve result."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving result for student {} in course {}: {}",
+                rollNumber, courseCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Retrieves the results for a single course, one cursor page at a time.
+     * Backed by a Firestore equality query, so only matching documents are read.
+     * @param courseCode The course to filter by
+     * @param limit Maximum number of results on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return
+     * @return Future ResponseEntity containing a page of results or error message
+     */
+    @GetMapping("/course/{courseCode}")
+    public CompletableFuture<ResponseEntity<?>> getResultsByCourse(@PathVariable String courseCode,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   @RequestParam(required = false) String pageToken,
+                                                                   @RequestParam(required = false) String orderBy,
+                                                                   @RequestParam(required = false) String fields) {
+        try {
+            CompletableFuture<? extends Page<?>> pages = fields == null
+                ? firestoreService.getResultsByCourseAsync(courseCode, limit, pageToken, orderBy)
+                : firestoreService.getPageProjectedAsync(Result.class, "courseCode", courseCode, limit, pageToken, orderBy, fields);
+            return pages
+                .<ResponseEntity<?>>thenApply(page -> {
+                    logger.debug("Retrieved page of {} results for course {}.", page.getItems().size(), courseCode);
+                    return ResponseEntity.ok(page);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving results for course {}: {}", courseCode, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve results."));
+                });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid result page request for course {}: {}", courseCode, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving results for course {}: {}", courseCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
      * Deletes a specific result record.
      * @param id The Firestore document ID of the result to delete
-     * @return ResponseEntity with success/error message
+     * @return Future ResponseEntity with success/error message
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteResult(@PathVariable String id) {
+    public CompletableFuture<ResponseEntity<?>> deleteResult(@PathVariable String id) {
         try {
-            firestoreService.deleteResult(id);
-            logger.info("Result deleted successfully: {}", id);
-            return ResponseEntity.noContent().build(); // HTTP 204 No Content
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error deleting result {}: {}", id, e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to delete result."));
+            return firestoreService.deleteResultAsync(id)
+                .<ResponseEntity<?>>thenApply(ignored -> {
+                    logger.info("Result deleted successfully: {}", id);
+                    return ResponseEntity.noContent().build(); // HTTP 204 No Content
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error deleting result {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to delete result."));
+                });
         } catch (Exception e) {
             logger.error("Unexpected error deleting result {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     // Potential future endpoints:
     // @GetMapping("/{id}") - Get specific result by ID
     // @PutMapping("/{id}") - Update result details
-    // @GetMapping("/student/{rollNumber}") - Get results by student
-    // @GetMapping("/course/{courseCode}") - Get results by course
     // @GetMapping("/search") - Search results with filters
-}
\ No newline at end of file
+}
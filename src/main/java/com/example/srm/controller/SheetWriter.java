@@ -0,0 +1,70 @@
+package com.example.srm.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes a table one row at a time straight to an output stream, so an export never holds
+ * more than the row being written. Cells may be strings, numbers or null (an empty cell).
+ */
+interface SheetWriter {
+
+    void writeRow(List<?> cells) throws IOException;
+
+    /**
+     * Pushes the rows written so far to the client.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Completes the file (e.g. the XLSX archive's central directory) without closing the underlying stream.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Ends a file whose export failed part-way so the client cannot mistake it for a complete one
+     * (instead of finish()). The response headers are already sent by then, so this is the only signal.
+     */
+    void fail(String message) throws IOException;
+
+    /**
+     * Export file formats, selected with the 'format' request parameter.
+     */
+    enum Format {
+        CSV("csv", "text/csv; charset=UTF-8"),
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        String extension() {
+            return extension;
+        }
+
+        String contentType() {
+            return contentType;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the format is neither 'csv' nor 'xlsx'
+         */
+        static Format parse(String format) {
+            for (Format candidate : values()) {
+                if (candidate.extension.equalsIgnoreCase(format)) {
+                    return candidate;
+                }
+            }
+            throw new IllegalArgumentException("Unknown format '" + format + "'. Allowed: csv, xlsx");
+        }
+
+        SheetWriter open(OutputStream outputStream, String sheetName) throws IOException {
+            return this == CSV ? new CsvSheetWriter(outputStream) : new XlsxSheetWriter(outputStream, sheetName);
+        }
+    }
+}
@@ -1,21 +1,30 @@
 package com.example.srm.controller;
 
 import com.example.srm.model.Student;
+import com.example.srm.model.Ranking;
+import com.example.srm.service.DuplicateDocumentException;
 import com.example.srm.service.FirestoreService;
+import com.example.srm.service.RankingService;
+import com.example.srm.service.SearchService;
+import com.example.srm.service.Versioned;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for managing student-related operations.
- * Provides CRUD endpoints for student records in Firestore.
+ * Provides CRUD endpoints for student records in Firestore, plus student transcripts and rankings.
  * All endpoints are prefixed with '/api/students'.
+ * Handlers return CompletableFutures, so the servlet thread is released while Firestore RPCs are in flight.
  */
 @RestController
 @RequestMapping("/api/students")
@@ -23,155 +32,427 @@ public class StudentController {
 
     private static final Logger logger = LoggerFactory.getLogger(StudentController.class);
     private final FirestoreService firestoreService;
+    private final RankingService rankingService;
+    private final SearchService searchService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructor for dependency injection of FirestoreService.
+     * Constructor for dependency injection of FirestoreService, RankingService, SearchService and Jackson's ObjectMapper.
      * @param firestoreService The service layer for Firestore operations
+     * @param rankingService In-memory rank/percentile index over results
+     * @param searchService In-memory typeahead index over students and lecturers
+     * @param objectMapper The application's JSON mapper, used for streamed delete progress
      */
-    public StudentController(FirestoreService firestoreService) {
+    public StudentController(FirestoreService firestoreService, RankingService rankingService,
+                             SearchService searchService, ObjectMapper objectMapper) {
         this.firestoreService = firestoreService;
+        this.rankingService = rankingService;
+        this.searchService = searchService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Creates a new student record.
+     * Creates a new student record. The student's document ID is derived from the roll number,
+     * so a second student with the same roll number is rejected with 409 Conflict.
      * @param student The student object to be created (from request body)
-     * @return ResponseEntity containing the created student or error message
+     * @return Future ResponseEntity containing the created student or error message
      */
     @PostMapping
-    public ResponseEntity<?> addStudent(@RequestBody Student student) {
-        try {
-            // Validate required fields
-            if (student.getRollNumber() == null || student.getRollNumber().isEmpty() ||
-                student.getName() == null || student.getName().isEmpty() ||
-                student.getEmail() == null || student.getEmail().isEmpty()) {
-                logger.warn("Add student request failed validation: {}", student);
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Roll number, name, and email are required."
-                ));
-            }
+    public CompletableFuture<ResponseEntity<?>> addStudent(@RequestBody Student student) {
+        // Validate required fields
+        if (student.getRollNumber() == null || student.getRollNumber().isEmpty() ||
+            student.getName() == null || student.getName().isEmpty() ||
+            student.getEmail() == null || student.getEmail().isEmpty()) {
+            logger.warn("Add student request failed validation: {}", student);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                "error", "Roll number, name, and email are required."
+            )));
+        }
 
-            Student createdStudent = firestoreService.addStudent(student);
-            logger.info("Student added successfully: ID={}, Roll={}", 
-                createdStudent.getId(), createdStudent.getRollNumber());
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error adding student (Roll={}): {}", 
-                student.getRollNumber(), e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to add student. Please try again later."));
+        try {
+            return firestoreService.addStudentAsync(student)
+                .<ResponseEntity<?>>thenApply(createdStudent -> {
+                    logger.info("Student added successfully: ID={}, Roll={}",
+                        createdStudent.getId(), createdStudent.getRollNumber());
+                    return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    if (cause instanceof DuplicateDocumentException) {
+                        logger.warn("Duplicate student rejected (Roll={})", student.getRollNumber());
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", cause.getMessage()));
+                    }
+                    logger.error("Error adding student (Roll={}): {}",
+                        student.getRollNumber(), cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to add student. Please try again later."));
+                });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid student (Roll={}): {}", student.getRollNumber(), e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
-            logger.error("Unexpected error adding student (Roll={}): {}", 
+            logger.error("Unexpected error adding student (Roll={}): {}",
                 student.getRollNumber(), e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
-     * Retrieves all student records.
-     * @return ResponseEntity containing list of students or error message
+     * Retrieves student records.
+     * Without paging parameters the whole collection is returned as a JSON array.
+     * When 'limit' or 'pageToken' is supplied, a single cursor page is returned instead.
+     * @param limit Maximum number of students on the page
+     * @param pageToken Cursor returned as nextPageToken by the previous page
+     * @param orderBy Optional field to order by (defaults to document ID)
+     * @param fields Optional comma-separated fields to return, e.g. "rollNumber,name"; only those are read from Firestore
+     * @param ifNoneMatch ETag of a previously returned full listing; answered with 304 if unchanged
+     * @return Future ResponseEntity containing list or page of students, or error message
      */
     @GetMapping
-    public ResponseEntity<?> getAllStudents() {
+    public CompletableFuture<ResponseEntity<?>> getAllStudents(@RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String pageToken,
+                                                               @RequestParam(required = false) String orderBy,
+                                                               @RequestParam(required = false) String fields,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Student> students = firestoreService.getAllStudents();
-            logger.debug("Retrieved {} students.", students.size());
-            return ResponseEntity.ok(students);
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error retrieving students: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to retrieve students. Please try again later."));
+            CompletableFuture<ResponseEntity<?>> response;
+            if (fields != null) {
+                response = limit != null || pageToken != null
+                    ? firestoreService.getPageProjectedAsync(Student.class, null, null, limit, pageToken, orderBy, fields)
+                        .thenApply(ResponseEntity::ok)
+                    : firestoreService.getAllProjectedAsync(Student.class, fields)
+                        .thenApply(ResponseEntity::ok);
+            } else if (limit != null || pageToken != null) {
+                response = firestoreService.getStudentsPageAsync(limit, pageToken, orderBy)
+                    .thenApply(page -> {
+                        logger.debug("Retrieved page of {} students.", page.getItems().size());
+                        return ResponseEntity.ok(page);
+                    });
+            } else {
+                // The tracked version answers an unchanged listing with no Firestore reads at all; while it
+                // is not tracked the students are read and compared
+                String eTag = ifNoneMatch != null ? firestoreService.getStudentsETag() : null;
+                response = ETags.matches(ifNoneMatch, eTag)
+                    ? CompletableFuture.completedFuture(ETags.notModified(eTag))
+                    : firestoreService.getAllVersionedStudentsAsync()
+                        .thenApply(students -> {
+                            logger.debug("Retrieved {} students.", students.value().size());
+                            return ETags.respond(ifNoneMatch, students);
+                        });
+            }
+            return response.exceptionally(e -> {
+                Throwable cause = FirestoreService.unwrap(e);
+                logger.error("Error retrieving students: {}", cause.getMessage(), cause);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve students. Please try again later."));
+            });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid student page request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
             logger.error("Unexpected error retrieving students: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
      * Retrieves a specific student by ID.
      * @param id The ID of the student to retrieve
-     * @return ResponseEntity containing the student or error message
+     * @param fields Optional comma-separated fields to return; only those are read from Firestore
+     * @param ifNoneMatch ETag of a previously returned student; answered with 304 if unchanged
+     * @return Future ResponseEntity containing the student or error message
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getStudentById(@PathVariable String id) {
+    public CompletableFuture<ResponseEntity<?>> getStudentById(@PathVariable String id,
+                                                               @RequestParam(required = false) String fields,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Student student = firestoreService.getStudent(id);
-            if (student != null) {
-                logger.debug("Retrieved student by ID: {}", id);
-                return ResponseEntity.ok(student);
-            } else {
-                logger.warn("Student not found with ID: {}", id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "Student not found with ID: " + id));
-            }
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error retrieving student {}: {}", id, e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to retrieve student. Please try again later."));
+            CompletableFuture<?> lookup = fields == null
+                ? firestoreService.getVersionedStudentAsync(id)
+                : firestoreService.getProjectedAsync(Student.class, id, fields);
+            return lookup
+                .<ResponseEntity<?>>thenApply(student -> {
+                    if (student instanceof Versioned<?> versioned) {
+                        logger.debug("Retrieved student by ID: {}", id);
+                        return ETags.respond(ifNoneMatch, versioned);
+                    } else if (student != null) {
+                        logger.debug("Retrieved student by ID: {}", id);
+                        return ResponseEntity.ok(student);
+                    } else {
+                        logger.warn("Student not found with ID: {}", id);
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "Student not found with ID: " + id));
+                    }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving student {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve student. Please try again later."));
+                });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid student request {}: {}", id, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
             logger.error("Unexpected error retrieving student {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
         }
     }
 
     /**
-     * Updates a student record.
+     * Retrieves a student by roll number.
+     * The student's document ID is derived from the roll number, so this is one document read.
+     * @param rollNumber The student's roll number
+     * @return Future ResponseEntity containing the student or error message
+     */
+    @GetMapping("/roll/{rollNumber}")
+    public CompletableFuture<ResponseEntity<?>> getStudentByRollNumber(@PathVariable String rollNumber) {
+        try {
+            return firestoreService.getStudentByRollNumberAsync(rollNumber)
+                .<ResponseEntity<?>>thenApply(student -> {
+                    if (student == null) {
+                        logger.warn("Student not found with roll number: {}", rollNumber);
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "Student not found with roll number: " + rollNumber));
+                    }
+                    logger.debug("Retrieved student by roll number: {}", rollNumber);
+                    return ResponseEntity.ok(student);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving student with roll number {}: {}", rollNumber, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve student. Please try again later."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving student with roll number {}: {}", rollNumber, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Retrieves a student's transcript: every result joined with its course name, plus the CGPA.
+     * Served from a per-student read model maintained on every result write, so this is one document read.
+     * @param rollNumber The student's roll number
+     * @return Future ResponseEntity containing the transcript or error message
+     */
+    @GetMapping("/{rollNumber}/transcript")
+    public CompletableFuture<ResponseEntity<?>> getTranscript(@PathVariable String rollNumber) {
+        try {
+            return firestoreService.getTranscriptAsync(rollNumber)
+                .<ResponseEntity<?>>thenApply(transcript -> {
+                    logger.debug("Retrieved transcript for student {} ({} courses).", rollNumber, transcript.getCourses().size());
+                    return ResponseEntity.ok(transcript);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error retrieving transcript for student {}: {}", rollNumber, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to retrieve transcript. Please try again later."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error retrieving transcript for student {}: {}", rollNumber, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Recomputes a student's transcript from their results.
+     * Only needed for results recorded before transcripts were maintained.
+     * @param rollNumber The student's roll number
+     * @return Future ResponseEntity containing the rebuilt transcript or error message
+     */
+    @PostMapping("/{rollNumber}/transcript/rebuild")
+    public CompletableFuture<ResponseEntity<?>> rebuildTranscript(@PathVariable String rollNumber) {
+        try {
+            return firestoreService.rebuildTranscriptAsync(rollNumber)
+                .<ResponseEntity<?>>thenApply(transcript -> {
+                    logger.info("Rebuilt transcript for student {} ({} courses).", rollNumber, transcript.getCourses().size());
+                    return ResponseEntity.ok(transcript);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error rebuilding transcript for student {}: {}", rollNumber, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to rebuild transcript. Please try again later."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error rebuilding transcript for student {}: {}", rollNumber, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Typeahead search by partial name, roll number or email, answered from the in-memory search index
+     * without any Firestore reads. Every word of the query must start a word of the student's details.
+     * @param q The text typed so far, e.g. "jo sm" or "00123"
+     * @param limit Maximum number of matches (default 10, at most SearchService.MAX_LIMIT)
+     * @return Future ResponseEntity containing the matching students or error message
+     */
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<?>> searchStudents(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(searchService.searchStudents(q, limit)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid student search: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        } catch (IllegalStateException e) {
+            logger.warn("Student search requested before the index was loaded.");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error searching students for '{}': {}", q, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Looks up a student's overall rank and percentile by CGPA, in O(log n) from the in-memory ranking index.
+     * @param rollNumber The student's roll number
+     * @return Future ResponseEntity containing the ranking or error message
+     */
+    @GetMapping("/{rollNumber}/ranking")
+    public CompletableFuture<ResponseEntity<?>> getOverallRanking(@PathVariable String rollNumber) {
+        try {
+            Ranking ranking = rankingService.rankOverall(rollNumber);
+            if (ranking == null) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "No graded results for student " + rollNumber)));
+            }
+            return CompletableFuture.completedFuture(ResponseEntity.ok(ranking));
+        } catch (IllegalStateException e) {
+            logger.warn("Ranking requested for student {} before the index was loaded.", rollNumber);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("Unexpected error ranking student {}: {}", rollNumber, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+
+    /**
+     * Updates a student record. The roll number cannot be changed (400 Bad Request): it determines the
+     * student's document ID.
      * @param id The ID of the student to update
      * @param updatedData Map containing fields to update
-     * @return ResponseEntity with success/error message
+     * @return Future ResponseEntity with success/error message
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateStudent(@PathVariable String id, 
-                                         @RequestBody Map<String, Object> updatedData) {
+    public CompletableFuture<ResponseEntity<?>> updateStudent(@PathVariable String id,
+                                                              @RequestBody Map<String, Object> updatedData) {
         if (updatedData == null || updatedData.isEmpty()) {
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Update data cannot be empty."));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(Map.of("error", "Update data cannot be empty.")));
         }
 
         try {
-            firestoreService.updateStudent(id, updatedData);
-            logger.info("Student updated successfully: {}", id);
-            return ResponseEntity.ok(Map.of(
-                "message", "Student updated successfully", 
-                "id", id
-            ));
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error updating student {}: {}", id, e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to update student. Please try again later."));
+            return firestoreService.updateStudentAsync(id, updatedData)
+                .<ResponseEntity<?>>thenApply(ignored -> {
+                    logger.info("Student updated successfully: {}", id);
+                    return ResponseEntity.ok(Map.of(
+                        "message", "Student updated successfully",
+                        "id", id
+                    ));
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    if (cause instanceof IllegalArgumentException) {
+                        logger.warn("Invalid update of student {}: {}", id, cause.getMessage());
+                        return ResponseEntity.badRequest().body(Map.of("error", cause.getMessage()));
+                    }
+                    logger.error("Error updating student {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to update student. Please try again later."));
+                });
         } catch (Exception e) {
             logger.error("Unexpected error updating student {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred during update."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred during update.")));
         }
     }
 
     /**
-     * Deletes a student record.
+     * Deletes a student record. Only the student document is deleted unless the caller opts in with
+     * 'cascade=true', which also deletes the results and disputes referencing its roll number, in batches
+     * of at most 500 writes. With 'dryRun=true' nothing is deleted and the report only counts the
+     * results and disputes a cascading delete would affect.
      * @param id The ID of the student to delete
-     * @return ResponseEntity with success/error message
+     * @param cascade Whether to delete dependent results and disputes (default false)
+     * @param dryRun Only count what a cascading delete would affect
+     * @return Future ResponseEntity with a CascadeDeleteReport, 204 if there was nothing to delete, or error message
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteStudent(@PathVariable String id) {
+    public CompletableFuture<ResponseEntity<?>> deleteStudent(@PathVariable String id,
+                                                              @RequestParam(defaultValue = "false") boolean cascade,
+                                                              @RequestParam(defaultValue = "false") boolean dryRun) {
+        if (!cascade && !dryRun) {
+            return deleteStudentOnly(id);
+        }
+        try {
+            return firestoreService.deleteStudentCascadeAsync(id, dryRun, report -> { })
+                .<ResponseEntity<?>>thenApply(report -> {
+                    if (report == null) {
+                        logger.info("Student {} not found; nothing to delete", id);
+                        return ResponseEntity.noContent().build();
+                    }
+                    logger.info("Student {} delete finished (dryRun={}): {} results, {} disputes",
+                        id, dryRun, report.getResults(), report.getDisputes());
+                    return ResponseEntity.ok(report);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error deleting student {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to delete student. Please try again later."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error deleting student {}: {}", id, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred during deletion.")));
+        }
+    }
+
+    /**
+     * Cascading delete of a student, streaming a progress report per committed batch as newline-delimited JSON.
+     * Selected when the client sends 'Accept: application/x-ndjson' with 'cascade=true'; useful for students
+     * with many results.
+     * @param id The ID of the student to delete
+     * @param dryRun Only count what the delete would affect (a single report)
+     * @return ResponseEntity wrapping the streaming response body
+     */
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_NDJSON_VALUE, params = "cascade=true")
+    public ResponseEntity<StreamingResponseBody> deleteStudentWithProgress(@PathVariable String id,
+                                                                           @RequestParam(defaultValue = "false") boolean dryRun) {
+        return CascadeDeletes.stream(objectMapper,
+            progress -> firestoreService.deleteStudentCascadeAsync(id, dryRun, progress), "student " + id);
+    }
+
+    private CompletableFuture<ResponseEntity<?>> deleteStudentOnly(String id) {
         try {
-            firestoreService.deleteStudent(id);
-            logger.info("Student deleted successfully: {}", id);
-            return ResponseEntity.noContent().build(); // HTTP 204
-        } catch (ExecutionException | InterruptedException e) {
-            logger.error("Error deleting student {}: {}", id, e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to delete student. Please try again later."));
+            return firestoreService.deleteStudentAsync(id)
+                .<ResponseEntity<?>>thenApply(ignored -> {
+                    logger.info("Student deleted successfully: {}", id);
+                    return ResponseEntity.noContent().build(); // HTTP 204
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error deleting student {}: {}", id, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to delete student. Please try again later."));
+                });
         } catch (Exception e) {
             logger.error("Unexpected error deleting student {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "An unexpected error occurred during deletion."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred during deletion.")));
         }
     }
-}
\ No newline at end of file
+}
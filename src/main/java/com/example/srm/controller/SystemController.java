@@ -0,0 +1,87 @@
+package com.example.srm.controller;
+
+import com.example.srm.service.FirestoreService;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST controller exposing operational information about the running instance and data migrations.
+ * Endpoints are prefixed with `/api/system`.
+ */
+@RestController
+@RequestMapping("/api/system")
+public class SystemController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemController.class);
+
+    // Absent when the JDK HTTP/2 client is configured instead of the pooled client
+    private final ObjectProvider<PoolingHttpClientConnectionManager> httpConnectionManager;
+    private final FirestoreService firestoreService;
+
+    public SystemController(ObjectProvider<PoolingHttpClientConnectionManager> httpConnectionManager,
+                            FirestoreService firestoreService) {
+        this.httpConnectionManager = httpConnectionManager;
+        this.firestoreService = firestoreService;
+    }
+
+    /**
+     * Connection pool statistics of the outbound HTTP client used for Firebase Auth calls.
+     * 'leased' connections are in use, 'available' are idle and kept alive for reuse, 'pending'
+     * counts requests waiting for a connection because the pool is exhausted.
+     */
+    @GetMapping("/http-client")
+    public ResponseEntity<?> getHttpClientStats() {
+        PoolingHttpClientConnectionManager manager = httpConnectionManager.getIfAvailable();
+        if (manager == null) {
+            return ResponseEntity.ok(Map.of("mode", "http2"));
+        }
+        PoolStats stats = manager.getTotalStats();
+        return ResponseEntity.ok(Map.of(
+                "mode", "pooled",
+                "leased", stats.getLeased(),
+                "available", stats.getAvailable(),
+                "pending", stats.getPending(),
+                "max", stats.getMax(),
+                "routes", manager.getRoutes().size()));
+    }
+
+    /**
+     * Moves students and results that still have auto-generated document IDs to IDs derived from
+     * their natural keys (roll number; roll number and course code), and course statistics and transcripts
+     * from URL-encoded IDs to escaped ones, see FirestoreService.migrateToNaturalIdsAsync.
+     * Can be rerun; documents already migrated are left alone. Run it with dryRun=true first:
+     * documents whose natural key is taken by another document are listed as conflicts and not moved.
+     * @param dryRun Only report what would be moved (default true)
+     * @return Future ResponseEntity containing one report per collection or error message
+     */
+    @PostMapping("/migrations/natural-ids")
+    public CompletableFuture<ResponseEntity<?>> migrateToNaturalIds(@RequestParam(defaultValue = "true") boolean dryRun) {
+        try {
+            return firestoreService.migrateToNaturalIdsAsync(dryRun)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.error("Error migrating to natural IDs: {}", cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Migration stopped; rerun it to continue."));
+                });
+        } catch (Exception e) {
+            logger.error("Unexpected error migrating to natural IDs: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "An unexpected error occurred.")));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Represents the progress or outcome of a cascading delete in the Student Result Management System.
+ * Deleting a student or course also deletes the results and disputes that reference it by
+ * roll number or course code. Returned by the delete endpoints; when progress is streamed,
+ * one report is sent per committed batch and the last one has 'done' set.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class CascadeDeleteReport {
+
+    /**
+     * Collection of the document being deleted ("Students" or "Courses").
+     */
+    private String collection;
+
+    /**
+     * Document ID of the student or course being deleted.
+     */
+    private String id;
+
+    /**
+     * Roll number or course code the dependent documents were matched by.
+     */
+    private String key;
+
+    /**
+     * True if nothing was deleted and the counts only show what a delete would affect.
+     */
+    private boolean dryRun;
+
+    /**
+     * Number of dependent results found when the delete started.
+     */
+    private long results;
+
+    /**
+     * Number of dependent disputes found when the delete started.
+     */
+    private long disputes;
+
+    /**
+     * Documents deleted so far: dependents first, the student or course itself last.
+     * Always 0 for a dry run.
+     */
+    private long deleted;
+
+    /**
+     * Write batches committed so far.
+     */
+    private int batches;
+
+    /**
+     * True once the delete has finished (or, for a dry run, the counts are complete).
+     */
+    private boolean done;
+}
@@ -0,0 +1,64 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Represents aggregate grade statistics for one course in the Student Result Management System.
+ * Computed from a per-course aggregate document that is updated with every result write,
+ * so reading statistics never scans the results themselves.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class CourseStats {
+
+    /**
+     * The course these statistics describe (e.g. "CS101").
+     */
+    private String courseCode;
+
+    /**
+     * Number of results recorded for the course.
+     */
+    private long count;
+
+    /**
+     * Average marks; null when the course has no results.
+     */
+    private Double mean;
+
+    /**
+     * Median marks (average of the two middle values for an even count); null when there are no results.
+     */
+    private Double median;
+
+    /**
+     * Lowest marks; null when there are no results.
+     */
+    private Integer min;
+
+    /**
+     * Highest marks; null when there are no results.
+     */
+    private Integer max;
+
+    /**
+     * Marks at or above which a result counts as a pass (configured by 'srm.stats.pass-mark').
+     */
+    private int passMark;
+
+    /**
+     * Fraction of results (0.0 - 1.0) with marks at or above passMark; null when there are no results.
+     */
+    private Double passRate;
+
+    /**
+     * Number of results per grade (e.g. {"A": 12, "B+": 7}).
+     */
+    private Map<String, Long> gradeDistribution;
+}
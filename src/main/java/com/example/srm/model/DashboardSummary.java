@@ -0,0 +1,47 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Represents the record totals shown on the dashboard of the Student Result Management System.
+ * Returned by GET /api/dashboard/summary; every total comes from a Firestore count() aggregation
+ * (or the reference data cache), so no documents are downloaded to compute it.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class DashboardSummary {
+
+    /**
+     * Number of students.
+     */
+    private long students;
+
+    /**
+     * Number of courses.
+     */
+    private long courses;
+
+    /**
+     * Number of lecturers.
+     */
+    private long lecturers;
+
+    /**
+     * Number of results.
+     */
+    private long results;
+
+    /**
+     * Number of disputes in any status.
+     */
+    private long disputes;
+
+    /**
+     * Number of disputes still waiting for a lecturer (status "pending").
+     */
+    private long pendingDisputes;
+}
@@ -14,6 +14,11 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
 public class Dispute {
 
+    public static final String PENDING = "pending";
+    public static final String UNDER_REVIEW = "under_review";
+    public static final String RESOLVED = "resolved";
+    public static final String REJECTED = "rejected";
+
     /**
      * Auto-generated Firestore document ID that uniquely identifies this dispute.
      * This is automatically assigned by Firestore when the document is created.
@@ -39,12 +44,29 @@ public class Dispute {
     private String reason;
 
     /**
-     * Current status of the dispute resolution process.
-     * Typical values include:
+     * Current status of the dispute resolution process:
      * - "pending": Initial state when dispute is first submitted
-     * - "resolved": When dispute has been settled satisfactorily
-     * - "rejected": When dispute has been reviewed and denied
-     * Consider using an enum in future versions for type safety.
+     * - "under_review": A lecturer has taken the dispute up
+     * - "resolved": The dispute was upheld, possibly correcting the student's marks
+     * - "rejected": The dispute was reviewed and denied
+     * Disputes only move forward through these states (see DisputeWorkflow).
      */
     private String status;
-}
\ No newline at end of file
+
+    /**
+     * The lecturer's explanation of the outcome; set when the dispute is resolved or rejected.
+     */
+    private String resolution;
+
+    /**
+     * The student's marks for the course before the dispute was resolved.
+     * Null unless resolving the dispute changed the result.
+     */
+    private Integer previousMarks;
+
+    /**
+     * The marks the result was corrected to when the dispute was resolved.
+     * Null unless resolving the dispute changed the result.
+     */
+    private Integer revisedMarks;
+}
@@ -0,0 +1,37 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Represents a request to move a grade dispute to its next status in the Student Result Management System.
+ * Sent to PUT /api/disputes/{id}/status; the transition is applied in a Firestore transaction.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class DisputeTransition {
+
+    /**
+     * The status to move to: "under_review", "resolved" or "rejected".
+     */
+    private String status;
+
+    /**
+     * Optional corrected marks; only allowed when resolving. The student's result for the
+     * disputed course is updated in the same transaction as the dispute.
+     */
+    private Integer marks;
+
+    /**
+     * Optional corrected grade; only allowed when resolving, like marks.
+     */
+    private String grade;
+
+    /**
+     * Optional explanation of the outcome, stored on the dispute.
+     */
+    private String resolution;
+}
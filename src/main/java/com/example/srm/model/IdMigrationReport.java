@@ -0,0 +1,57 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the outcome of migrating one collection of the Student Result Management System
+ * to document IDs derived from natural keys (a student's roll number; a result's roll number
+ * and course code; the course code or roll number of a read-model document).
+ * Returned by POST /api/system/migrations/natural-ids, one per collection.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class IdMigrationReport {
+
+    /**
+     * Collection migrated ("Students", "Results", "CourseStats" or "Transcripts").
+     */
+    private String collection;
+
+    /**
+     * True if nothing was written and the counts only show what a migration would do.
+     */
+    private boolean dryRun;
+
+    /**
+     * Documents examined.
+     */
+    private long scanned;
+
+    /**
+     * Documents that already had their natural-key ID.
+     */
+    private long alreadyMigrated;
+
+    /**
+     * Documents moved to their natural-key ID (for a dry run, that would be moved).
+     */
+    private long migrated;
+
+    /**
+     * Documents left at their current ID because a key field (roll number, course code) is missing,
+     * or a read-model document has no key field and an ID that cannot be decoded.
+     */
+    private long skipped;
+
+    /**
+     * IDs of documents left in place because another document already has their natural key,
+     * e.g. a second result for the same student and course. Resolve them and rerun the migration.
+     */
+    private List<String> conflicts;
+}
@@ -0,0 +1,39 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the summary of a bulk import in the Student Result Management System.
+ * Returned by the import endpoints; rows are imported independently, so some may succeed
+ * while others are rejected.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class ImportReport {
+
+    /**
+     * Number of data rows received.
+     */
+    private int total;
+
+    /**
+     * Number of rows written to Firestore.
+     */
+    private int created;
+
+    /**
+     * Number of rows rejected by validation or by Firestore.
+     */
+    private int rejected;
+
+    /**
+     * Per-row outcomes, in submission order.
+     */
+    private List<ImportRowOutcome> rows;
+}
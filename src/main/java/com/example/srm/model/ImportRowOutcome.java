@@ -0,0 +1,43 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Represents the outcome of a single row of a bulk import in the Student Result Management System.
+ * One entry is returned per submitted row, in submission order.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class ImportRowOutcome {
+
+    public static final String CREATED = "created";
+    public static final String INVALID = "invalid";
+    public static final String DUPLICATE = "duplicate";
+    public static final String FAILED = "failed";
+
+    /**
+     * 1-based position of the row in the upload (data rows only, the CSV header is not counted).
+     */
+    private int row;
+
+    /**
+     * "created" when the row was written, "invalid" when it failed validation and was not sent
+     * to Firestore, "duplicate" when the student already has a result for the course (the existing
+     * result is kept), "failed" when the Firestore write itself failed.
+     */
+    private String status;
+
+    /**
+     * Firestore document ID of the created record; null unless status is "created".
+     */
+    private String id;
+
+    /**
+     * Reason the row was not imported; null when status is "created".
+     */
+    private String error;
+}
@@ -0,0 +1,33 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents a single page of a cursor-paginated listing in the Student Result Management System.
+ * Returned by the list endpoints when a 'limit' or 'pageToken' query parameter is supplied.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ *
+ * @param <T> The model type contained in the page (Student, Course, Result, ...)
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class Page<T> {
+
+    /**
+     * The documents on this page, in query order.
+     * Contains at most 'limit' entries.
+     */
+    private List<T> items;
+
+    /**
+     * Opaque cursor to pass back as 'pageToken' to fetch the following page.
+     * Null when this is the last page.
+     * Clients should not parse or construct this value themselves.
+     */
+    private String nextPageToken;
+}
@@ -0,0 +1,46 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Represents a student's standing within a cohort in the Student Result Management System:
+ * either among all results of one course (ranked by marks) or among all students (ranked by CGPA).
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class Ranking {
+
+    /**
+     * The course ranked within, or null for the overall CGPA ranking.
+     */
+    private String courseCode;
+
+    /**
+     * The student ranked, or null when ranking an arbitrary score.
+     */
+    private String rollNumber;
+
+    /**
+     * The score ranked: marks for a course ranking, CGPA for the overall ranking.
+     */
+    private double score;
+
+    /**
+     * 1-based rank; students with equal scores share a rank ("1, 2, 2, 4").
+     */
+    private long rank;
+
+    /**
+     * Number of entries in the cohort (results in the course, or students with a CGPA).
+     */
+    private long cohortSize;
+
+    /**
+     * Percentage (0 - 100) of the cohort scoring below, counting equal scores as half below.
+     */
+    private double percentile;
+}
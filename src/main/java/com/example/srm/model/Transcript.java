@@ -0,0 +1,40 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents a student's transcript in the Student Result Management System:
+ * every recorded result joined with its course name, plus the cumulative grade point average.
+ * Served from a per-student read model, so a transcript costs one document read.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class Transcript {
+
+    /**
+     * The student's roll number.
+     */
+    private String rollNumber;
+
+    /**
+     * The student's results ordered by course code.
+     */
+    private List<TranscriptEntry> courses;
+
+    /**
+     * Number of results whose grade is on the grade point scale and therefore counts towards the CGPA.
+     */
+    private int gradedCourses;
+
+    /**
+     * Cumulative grade point average over the graded courses, each course weighted equally
+     * (courses carry no credit values); null when no course is graded.
+     */
+    private Double cgpa;
+}
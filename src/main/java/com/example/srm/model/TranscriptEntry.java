@@ -0,0 +1,47 @@
+package com.example.srm.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Represents one course result on a student's transcript in the Student Result Management System.
+ * Joins a Result with the name of its course.
+ * Uses Lombok annotations to eliminate boilerplate code.
+ */
+@Data                       // Lombok: Generates getters, setters, equals(), hashCode(), and toString()
+@NoArgsConstructor          // Lombok: Generates a no-argument constructor
+@AllArgsConstructor         // Lombok: Generates a constructor with all fields as arguments
+public class TranscriptEntry {
+
+    /**
+     * Firestore document ID of the underlying Result.
+     */
+    private String resultId;
+
+    /**
+     * The course code (e.g. "CS101").
+     */
+    private String courseCode;
+
+    /**
+     * The course name, or null if the course is unknown.
+     */
+    private String courseName;
+
+    /**
+     * The numerical marks obtained.
+     */
+    private int marks;
+
+    /**
+     * The grade awarded (e.g. "A+").
+     */
+    private String grade;
+
+    /**
+     * Grade points for the grade on the configured scale ('srm.transcript.grade-points');
+     * null when the grade is not on the scale, in which case it does not count towards the CGPA.
+     */
+    private Double gradePoints;
+}
@@ -0,0 +1,156 @@
+package com.example.srm.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Verifies Firebase ID tokens locally, without a network call per request.
+ *
+ * A token is accepted when it is an RS256 JWT signed by a key from the SigningKeyProvider,
+ * issued by 'https://securetoken.google.com/<projectId>' for audience '<projectId>', has a
+ * subject, and is within its iat/exp window (with a small clock skew allowance).
+ *
+ * Successfully verified tokens are remembered in a bounded LRU keyed by the raw token until they
+ * expire, so repeat requests with the same token skip JSON parsing and the RSA signature check.
+ */
+@Component
+public class FirebaseTokenVerifier {
+
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+    private static final String ROLE_CLAIM = "role";
+
+    private final SigningKeyProvider keyProvider;
+    private final ObjectMapper objectMapper;
+    private final String projectId;
+    private final String issuer;
+    private final Clock clock;
+    private final Map<String, VerifiedToken> verifiedTokens;
+
+    @Autowired
+    public FirebaseTokenVerifier(SigningKeyProvider keyProvider, ObjectMapper objectMapper,
+                                 @Value("${firebase.project-id}") String projectId,
+                                 @Value("${srm.auth.verified-token-cache-size:10000}") int cacheSize) {
+        this(keyProvider, objectMapper, projectId, cacheSize, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor allowing a fixed clock, e.g. to verify tokens minted with local test keys.
+     */
+    public FirebaseTokenVerifier(SigningKeyProvider keyProvider, ObjectMapper objectMapper,
+                                 String projectId, int cacheSize, Clock clock) {
+        this.keyProvider = keyProvider;
+        this.objectMapper = objectMapper;
+        this.projectId = projectId;
+        this.issuer = "https://securetoken.google.com/" + projectId;
+        this.clock = clock;
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Verifies the token and returns the identity it carries.
+     * @param token The raw JWT from the 'Authorization: Bearer' header
+     * @return The verified identity, including the role custom claim
+     * @throws InvalidTokenException if the token is not valid for this project
+     */
+    public VerifiedToken verify(String token) {
+        Instant now = clock.instant();
+        VerifiedToken cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(token);
+        }
+        if (cached != null) {
+            if (now.isBefore(cached.getExpiresAt().plus(CLOCK_SKEW))) {
+                return cached;
+            }
+            synchronized (verifiedTokens) {
+                verifiedTokens.remove(token);
+            }
+            throw new InvalidTokenException("Token has expired.");
+        }
+
+        VerifiedToken verified = verifyUncached(token, now);
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(token, verified);
+        }
+        return verified;
+    }
+
+    private VerifiedToken verifyUncached(String token, Instant now) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            throw new InvalidTokenException("Token is not a JWT.");
+        }
+        JsonNode header = decodeJson(parts[0]);
+        if (!"RS256".equals(header.path("alg").asText())) {
+            throw new InvalidTokenException("Unsupported token algorithm.");
+        }
+        String keyId = header.path("kid").asText(null);
+        PublicKey key = keyId == null ? null : keyProvider.getKey(keyId);
+        if (key == null) {
+            throw new InvalidTokenException("Token signed with an unknown key.");
+        }
+        if (!signatureValid(key, parts)) {
+            throw new InvalidTokenException("Token signature is invalid.");
+        }
+
+        JsonNode claims = decodeJson(parts[1]);
+        if (!projectId.equals(claims.path("aud").asText())) {
+            throw new InvalidTokenException("Token was issued for a different project.");
+        }
+        if (!issuer.equals(claims.path("iss").asText())) {
+            throw new InvalidTokenException("Token has an unexpected issuer.");
+        }
+        String uid = claims.path("sub").asText("");
+        if (uid.isEmpty()) {
+            throw new InvalidTokenException("Token has no subject.");
+        }
+        Instant issuedAt = Instant.ofEpochSecond(claims.path("iat").asLong(0));
+        Instant expiresAt = Instant.ofEpochSecond(claims.path("exp").asLong(0));
+        if (issuedAt.isAfter(now.plus(CLOCK_SKEW))) {
+            throw new InvalidTokenException("Token is not yet valid.");
+        }
+        if (!now.isBefore(expiresAt.plus(CLOCK_SKEW))) {
+            throw new InvalidTokenException("Token has expired.");
+        }
+        return new VerifiedToken(uid, claims.path("email").asText(null), claims.path(ROLE_CLAIM).asText(null), expiresAt);
+    }
+
+    private static boolean signatureValid(PublicKey key, String[] parts) {
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(key);
+            signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            return signature.verify(Base64.getUrlDecoder().decode(parts[2]));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Token signature could not be checked.", e);
+        }
+    }
+
+    private JsonNode decodeJson(String segment) {
+        try {
+            return objectMapper.readTree(Base64.getUrlDecoder().decode(segment));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Token is malformed.", e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.srm.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches and caches the public keys Google uses to sign Firebase ID tokens.
+ * Keys are published as X.509 certificates keyed by 'kid'; the response's Cache-Control max-age
+ * tells us how long they stay valid, so the network is only hit when that expires or when a
+ * token arrives signed with a key we have not seen yet (key rotation).
+ */
+@Component
+public class GooglePublicKeyProvider implements SigningKeyProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(GooglePublicKeyProvider.class);
+
+    private static final String KEYS_URL =
+            "https://www.googleapis.com/robot/v1/metadata/x509/securetoken@system.gserviceaccount.com";
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+    // Minimum gap between refreshes triggered by an unknown 'kid', to avoid hammering the endpoint
+    private static final Duration UNKNOWN_KEY_REFRESH_INTERVAL = Duration.ofMinutes(1);
+
+    private final RestTemplate restTemplate;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile Instant expiresAt = Instant.EPOCH;
+    private volatile Instant lastRefresh = Instant.EPOCH;
+
+    public GooglePublicKeyProvider(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public PublicKey getKey(String keyId) {
+        Instant now = Instant.now();
+        if (now.isAfter(expiresAt)) {
+            refresh(now, false);
+        }
+        PublicKey key = keys.get(keyId);
+        if (key == null && now.isAfter(lastRefresh.plus(UNKNOWN_KEY_REFRESH_INTERVAL))) {
+            refresh(now, true);
+            key = keys.get(keyId);
+        }
+        return key;
+    }
+
+    private synchronized void refresh(Instant now, boolean force) {
+        // Another thread may have refreshed while we waited for the lock
+        if (!force && !now.isAfter(expiresAt)) {
+            return;
+        }
+        try {
+            ResponseEntity<Map<String, String>> response = restTemplate.exchange(
+                    KEYS_URL, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, String>>() {});
+            Map<String, String> certificates = response.getBody();
+            if (certificates == null || certificates.isEmpty()) {
+                throw new IllegalStateException("Empty key set returned from " + KEYS_URL);
+            }
+            CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            Map<String, PublicKey> parsed = new HashMap<>();
+            for (Map.Entry<String, String> entry : certificates.entrySet()) {
+                byte[] pem = entry.getValue().getBytes(StandardCharsets.US_ASCII);
+                parsed.put(entry.getKey(), factory.generateCertificate(new ByteArrayInputStream(pem)).getPublicKey());
+            }
+            keys = Map.copyOf(parsed);
+            expiresAt = now.plus(maxAge(response.getHeaders().getCacheControl()));
+            logger.info("Loaded {} Firebase token signing keys, valid until {}", parsed.size(), expiresAt);
+        } catch (CertificateException | RuntimeException e) {
+            // Keep serving the previous keys; retry on the next unknown key or after the short interval
+            logger.error("Failed to refresh Firebase token signing keys: {}", e.getMessage(), e);
+            expiresAt = now.plus(UNKNOWN_KEY_REFRESH_INTERVAL);
+        } finally {
+            lastRefresh = now;
+        }
+    }
+
+    private static Duration maxAge(String cacheControl) {
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                return Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return DEFAULT_MAX_AGE;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.srm.security;
+
+/**
+ * Thrown when a Firebase ID token is malformed, has an invalid signature,
+ * is expired, or was not issued for this Firebase project.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
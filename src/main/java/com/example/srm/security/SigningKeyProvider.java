@@ -0,0 +1,17 @@
+package com.example.srm.security;
+
+import java.security.PublicKey;
+
+/**
+ * Source of the public keys used to verify Firebase ID token signatures, looked up by the
+ * token header's 'kid'. The production implementation caches Google's published keys;
+ * tests can supply keys they minted locally.
+ */
+public interface SigningKeyProvider {
+
+    /**
+     * @param keyId The 'kid' from the token header
+     * @return The matching public key, or null if no such key is known
+     */
+    PublicKey getKey(String keyId);
+}
@@ -0,0 +1,35 @@
+package com.example.srm.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * The verified identity carried by a Firebase ID token.
+ * Stored as a request attribute by FirebaseAuthFilter so controllers can read the caller's role.
+ * Immutable: Lombok's @Value makes all fields private final and generates getters only.
+ */
+@Value
+public class VerifiedToken {
+
+    /**
+     * Firebase user ID ('sub' claim).
+     */
+    String uid;
+
+    /**
+     * The user's email address ('email' claim), may be null for non-email sign-in providers.
+     */
+    String email;
+
+    /**
+     * Application role taken from the 'role' custom claim (e.g. "student", "lecturer", "admin").
+     * Null when no role has been assigned to the user.
+     */
+    String role;
+
+    /**
+     * When the token stops being valid ('exp' claim).
+     */
+    Instant expiresAt;
+}
@@ -5,6 +5,9 @@ import com.example.srm.model.SignUpRequest;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.UserRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,15 +29,55 @@ public class AuthService {
     @Value("${firebase.rest.api-key}")
     private String apiKey;
 
+    // Base URL of the Identity Toolkit REST API; can point at a local stub for benchmarking
+    @Value("${firebase.rest.identity-base-url:https://identitytoolkit.googleapis.com}")
+    private String identityBaseUrl;
+
     private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
 
-    // Inject RestTemplate
-    public AuthService(RestTemplate restTemplate) {
+    // Inject RestTemplate (pooled, with timeouts; see HttpClientConfig)
+    public AuthService(RestTemplate restTemplate, MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records a finished auth call: its latency as srm.auth.requests (tagged operation and
+     * outcome=success|error) and, on failure, srm.auth.errors tagged with the underlying exception
+     * (e.g. BadRequest for rejected credentials, ResourceAccessException for timeouts).
+     */
+    private void record(Timer.Sample sample, String operation, Exception error) {
+        sample.stop(Timer.builder("srm.auth.requests")
+                .description("Latency of Firebase Auth calls")
+                .tag("operation", operation)
+                .tag("outcome", error == null ? "success" : "error")
+                .register(meterRegistry));
+        if (error != null) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            Counter.builder("srm.auth.errors")
+                    .description("Failed Firebase Auth calls")
+                    .tag("operation", operation)
+                    .tag("exception", cause.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+        }
     }
 
     // Using Firebase Admin SDK for Sign Up
     public UserRecord signUp(SignUpRequest signUpRequest) throws FirebaseAuthException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            UserRecord userRecord = createUser(signUpRequest);
+            record(sample, "signUp", null);
+            return userRecord;
+        } catch (FirebaseAuthException | RuntimeException e) {
+            record(sample, "signUp", e);
+            throw e;
+        }
+    }
+
+    private UserRecord createUser(SignUpRequest signUpRequest) throws FirebaseAuthException {
         logger.info("Attempting Firebase Admin SDK sign-up for email: {}", signUpRequest.getEmail());
          UserRecord.CreateRequest request = new UserRecord.CreateRequest()
                 .setEmail(signUpRequest.getEmail())
@@ -50,8 +93,20 @@ public class AuthService {
 
     // Replicating the REST API call for Sign In from auth_lib.py
     public Map<String, Object> signInWithPassword(LoginRequest loginRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Map<String, Object> response = postSignIn(loginRequest);
+            record(sample, "signInWithPassword", null);
+            return response;
+        } catch (RuntimeException e) {
+            record(sample, "signInWithPassword", e);
+            throw e;
+        }
+    }
+
+    private Map<String, Object> postSignIn(LoginRequest loginRequest) {
         logger.info("Attempting Firebase REST API sign-in for email: {}", loginRequest.getEmail());
-        final String uri = "https://identitytoolkit.googleapis.com/v1/accounts:signInWithPassword?key=" + apiKey;
+        final String uri = identityBaseUrl + "/v1/accounts:signInWithPassword?key=" + apiKey;
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
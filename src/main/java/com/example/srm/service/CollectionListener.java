@@ -0,0 +1,139 @@
+package com.example.srm.service;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreException;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.firebase.cloud.FirestoreClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot listener on one collection that keeps an in-memory mirror (cache or search index) current.
+ *
+ * Every snapshot is handed to onSnapshot: the first one carries every document as ADDED, later ones
+ * only the added/modified/removed documents. Firestore terminates a listener after an error, so on an
+ * error the mirror is reset through onReset (it must not answer from data that no longer follows the
+ * collection) and a new listener is attached after a backoff, doubling from INITIAL_BACKOFF up to
+ * MAX_BACKOFF while attempts keep failing. The new listener's first snapshot reloads the mirror.
+ *
+ * Callbacks come from the Firestore SDK, which invokes one listener serially; a listener replaced by a
+ * newer one or stopped is ignored, so the mirror never sees two listeners at once.
+ */
+final class CollectionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionListener.class);
+
+    static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    // Re-subscriptions of all mirrors; they only attach a listener, so one thread is plenty
+    private static final ScheduledExecutorService RETRIES = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "collection-listener-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String collection;
+    private final String mirror;
+    private final Consumer<QuerySnapshot> onSnapshot;
+    private final Runnable onReset;
+    private final Supplier<Firestore> firestore;
+    private final Duration initialBackoff;
+
+    private ListenerRegistration registration;
+    // Identifies the current listener; callbacks of earlier ones are ignored
+    private long generation;
+    private boolean running;
+    private Duration backoff;
+
+    /**
+     * @param mirror What the listener feeds, for log messages (e.g. "ranking index")
+     */
+    CollectionListener(String collection, String mirror, Consumer<QuerySnapshot> onSnapshot, Runnable onReset) {
+        this(collection, mirror, onSnapshot, onReset, FirestoreClient::getFirestore, INITIAL_BACKOFF);
+    }
+
+    CollectionListener(String collection, String mirror, Consumer<QuerySnapshot> onSnapshot, Runnable onReset,
+                       Supplier<Firestore> firestore, Duration initialBackoff) {
+        this.collection = collection;
+        this.mirror = mirror;
+        this.onSnapshot = onSnapshot;
+        this.onReset = onReset;
+        this.firestore = firestore;
+        this.initialBackoff = initialBackoff;
+        this.backoff = initialBackoff;
+    }
+
+    synchronized void start() {
+        running = true;
+        subscribe();
+        logger.info("Started {} listener on {}", mirror, collection);
+    }
+
+    /**
+     * Detaches the listener and cancels a pending re-subscription. Does not reset the mirror.
+     */
+    synchronized void stop() {
+        running = false;
+        generation++;
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    private synchronized void subscribe() {
+        if (!running) {
+            return;
+        }
+        long current = ++generation;
+        registration = firestore.get().collection(collection).addSnapshotListener((querySnapshot, error) -> {
+            if (!isCurrent(current)) {
+                return;
+            }
+            if (error != null) {
+                failed(current, error);
+                return;
+            }
+            synchronized (this) {
+                backoff = initialBackoff;
+            }
+            onSnapshot.accept(querySnapshot);
+        });
+    }
+
+    private synchronized boolean isCurrent(long listener) {
+        return running && listener == generation;
+    }
+
+    private void failed(long listener, FirestoreException error) {
+        Duration delay;
+        synchronized (this) {
+            if (!isCurrent(listener)) {
+                return;
+            }
+            registration = null;
+            delay = backoff;
+            backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+        }
+        logger.error("Snapshot listener for {} on {} failed, re-subscribing in {} ms: {}",
+                mirror, collection, delay.toMillis(), error.getMessage(), error);
+        onReset.run();
+        RETRIES.schedule(() -> {
+            try {
+                subscribe();
+            } catch (RuntimeException e) {
+                // Attaching failed outright (e.g. the client is closed); nothing more to retry
+                logger.error("Could not re-subscribe {} listener on {}: {}", mirror, collection, e.getMessage(), e);
+            }
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.srm.service;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.firebase.cloud.FirestoreClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Version (ETag, see Versioned) of one whole collection, maintained from a snapshot listener that keeps
+ * only each document's update time, not its fields.
+ *
+ * The listener delivers a write some time after it commits, so on its own the version could still
+ * describe the state before a write whose response the client already has, and a conditional GET right
+ * after it would get 304 for stale data. Writes made through this instance are therefore reported with
+ * written(commitTime), and eTag() withholds the version until a snapshot read at or after the latest
+ * such commit has been applied. Writes made by other instances are only seen once the listener
+ * delivers them, typically within a second.
+ */
+final class CollectionVersion {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionVersion.class);
+
+    private final String collection;
+    private final CollectionListener listener;
+    // Only touched from the listener callback, which the Firestore SDK invokes serially
+    private final Map<String, Timestamp> updateTimes = new TreeMap<>();
+    private volatile Applied applied;
+    private volatile Timestamp latestWrite;
+
+    CollectionVersion(String collection) {
+        this(collection, FirestoreClient::getFirestore);
+    }
+
+    CollectionVersion(String collection, Supplier<Firestore> firestore) {
+        this.collection = collection;
+        this.listener = new CollectionListener(collection, "version tracker", this::apply, this::reset,
+                firestore, CollectionListener.INITIAL_BACKOFF);
+    }
+
+    void start() {
+        listener.start();
+    }
+
+    void stop() {
+        listener.stop();
+        applied = null;
+    }
+
+    /**
+     * @return The collection's ETag, or null while it is not loaded or does not include the latest write
+     *         reported with written()
+     */
+    String eTag() {
+        Applied current = applied;
+        Timestamp write = latestWrite;
+        if (current == null || (write != null && current.readTime().compareTo(write) < 0)) {
+            return null;
+        }
+        return current.eTag();
+    }
+
+    /**
+     * Withholds the version until the listener has applied a snapshot read at or after commitTime.
+     */
+    synchronized void written(Timestamp commitTime) {
+        if (commitTime != null && (latestWrite == null || commitTime.compareTo(latestWrite) > 0)) {
+            latestWrite = commitTime;
+        }
+    }
+
+    private void reset() {
+        updateTimes.clear();
+        applied = null;
+    }
+
+    private void apply(QuerySnapshot querySnapshot) {
+        for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+            String id = change.getDocument().getId();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                updateTimes.remove(id);
+            } else {
+                updateTimes.put(id, change.getDocument().getUpdateTime());
+            }
+        }
+        applied = new Applied(Versioned.eTag(updateTimes), querySnapshot.getReadTime());
+        logger.debug("Applied {} changes to {} version ({} documents)",
+                querySnapshot.getDocumentChanges().size(), collection, updateTimes.size());
+    }
+
+    /**
+     * @param readTime Time the snapshot the ETag was computed from was read at
+     */
+    private record Applied(String eTag, Timestamp readTime) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.srm.service;
+
+import com.example.srm.model.CourseStats;
+import com.example.srm.model.Result;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains one aggregate document per course in 'CourseStats', holding a histogram of marks
+ * ({"85": 3, ...}) and a count per grade ({"A": 12, ...}). Every result add/delete increments or
+ * decrements the matching buckets, and mean, median, min/max and pass rate are derived from the
+ * histogram on read, so a statistics read is a single document read whose cost does not grow with
+ * the number of results (the histogram has at most one bucket per distinct mark).
+ */
+@Component
+public class CourseStatsProjection implements ResultProjection {
+
+    static final String STATS_COLLECTION = "CourseStats";
+
+    private static final String COURSE_CODE_FIELD = "courseCode";
+    private static final String MARKS_FIELD = "marks";
+    private static final String GRADES_FIELD = "grades";
+
+    @Value("${srm.stats.pass-mark:50}")
+    private int passMark;
+
+    DocumentReference statsDocument(Firestore db, String courseCode) {
+        return db.collection(STATS_COLLECTION).document(ResultProjection.documentId(courseCode));
+    }
+
+    @Override
+    public Map<DocumentReference, Map<String, Object>> changes(Firestore db, List<Result> results, boolean added) {
+        long delta = added ? 1 : -1;
+        Map<String, Map<String, Long>> marksByCourse = new HashMap<>();
+        Map<String, Map<String, Long>> gradesByCourse = new HashMap<>();
+        for (Result result : results) {
+            marksByCourse.computeIfAbsent(result.getCourseCode(), code -> new HashMap<>())
+                    .merge(String.valueOf(result.getMarks()), delta, Long::sum);
+            gradesByCourse.computeIfAbsent(result.getCourseCode(), code -> new HashMap<>())
+                    .merge(result.getGrade(), delta, Long::sum);
+        }
+
+        Map<DocumentReference, Map<String, Object>> changes = new HashMap<>();
+        for (String courseCode : marksByCourse.keySet()) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put(COURSE_CODE_FIELD, courseCode);
+            payload.put(MARKS_FIELD, increments(marksByCourse.get(courseCode)));
+            payload.put(GRADES_FIELD, increments(gradesByCourse.get(courseCode)));
+            changes.put(statsDocument(db, courseCode), payload);
+        }
+        return changes;
+    }
+
+    private static Map<String, Object> increments(Map<String, Long> deltas) {
+        Map<String, Object> increments = new HashMap<>();
+        deltas.forEach((bucket, delta) -> increments.put(bucket, FieldValue.increment(delta)));
+        return increments;
+    }
+
+    /**
+     * Derives the statistics from an aggregate document.
+     * @param document The course's aggregate document (may not exist, meaning no results yet)
+     */
+    CourseStats summarize(String courseCode, DocumentSnapshot document) {
+        TreeMap<Integer, Long> histogram = new TreeMap<>();
+        counts(document, MARKS_FIELD).forEach((marks, count) -> histogram.put(Integer.parseInt(marks), count));
+        Map<String, Long> grades = new LinkedHashMap<>(new TreeMap<>(counts(document, GRADES_FIELD)));
+
+        long count = 0;
+        long total = 0;
+        long passed = 0;
+        for (Map.Entry<Integer, Long> bucket : histogram.entrySet()) {
+            count += bucket.getValue();
+            total += (long) bucket.getKey() * bucket.getValue();
+            if (bucket.getKey() >= passMark) {
+                passed += bucket.getValue();
+            }
+        }
+        if (count == 0) {
+            return new CourseStats(courseCode, 0, null, null, null, null, passMark, null, grades);
+        }
+        double median = (valueAtRank(histogram, (count - 1) / 2) + valueAtRank(histogram, count / 2)) / 2.0;
+        return new CourseStats(courseCode, count, (double) total / count, median,
+                histogram.firstKey(), histogram.lastKey(), passMark, (double) passed / count, grades);
+    }
+
+    /**
+     * @return The marks of the result at the given 0-based position in ascending order
+     */
+    private static int valueAtRank(TreeMap<Integer, Long> histogram, long rank) {
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bucket : histogram.entrySet()) {
+            seen += bucket.getValue();
+            if (rank < seen) {
+                return bucket.getKey();
+            }
+        }
+        throw new IllegalStateException("Rank " + rank + " beyond histogram size " + seen);
+    }
+
+    /**
+     * Reads a bucket map, dropping buckets whose count has been decremented back to zero.
+     */
+    private static Map<String, Long> counts(DocumentSnapshot document, String field) {
+        Map<String, Long> counts = new HashMap<>();
+        Object value = document != null && document.exists() ? document.get(field) : null;
+        if (value instanceof Map<?, ?> buckets) {
+            buckets.forEach((bucket, count) -> {
+                if (count instanceof Number number && number.longValue() > 0) {
+                    counts.put(String.valueOf(bucket), number.longValue());
+                }
+            });
+        }
+        return counts;
+    }
+}
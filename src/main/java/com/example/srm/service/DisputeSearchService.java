@@ -0,0 +1,167 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Dispute;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.QuerySnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keyword search over dispute reasons ("recount", "missing paper"), which Firestore queries cannot do.
+ *
+ * Reasons are split into words (case and accents ignored, common English stop words dropped) and kept in
+ * an InvertedIndex together with each dispute's status and course code as extra terms, so the status and
+ * course filters are intersected like words instead of being checked dispute by dispute.
+ *
+ * The index is fed by a Firestore snapshot listener on the Disputes collection (see CollectionListener): the
+ * first snapshot loads every dispute, later snapshots apply only the added/modified/removed disputes, so new
+ * disputes and status transitions from any instance are picked up. Until the first snapshot arrives, and
+ * while the listener re-subscribes after an error, the search throws IllegalStateException.
+ */
+@Service
+public class DisputeSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisputeSearchService.class);
+
+    // Most disputes one search returns
+    public static final int MAX_LIMIT = 500;
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "but", "by",
+            "for", "from", "has", "have", "i", "in", "is", "it", "me", "my", "of", "on", "or", "so", "that", "the",
+            "this", "to", "was", "were", "with");
+
+    // Prefixes of the filter terms; words never contain ':', so they cannot collide
+    private static final String STATUS_TERM = "status:";
+    private static final String COURSE_TERM = "course:";
+
+    private final InvertedIndex<Dispute> index = new InvertedIndex<>(DisputeSearchService::terms);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${srm.search.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean ready;
+    private final CollectionListener listener =
+            new CollectionListener(FirestoreService.DISPUTES_COLLECTION, "dispute search index", this::apply, this::clear);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled) {
+            logger.info("Dispute search index disabled");
+            return;
+        }
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        listener.stop();
+        clear();
+    }
+
+    /**
+     * Finds disputes whose reason contains every word of the query, oldest indexed first.
+     * @param status Only disputes in this status (null for any)
+     * @param courseCode Only disputes about this course (null or empty for any)
+     * @throws IllegalArgumentException if the query has no words besides stop words, the status is unknown
+     *                                  or the limit is not 1..MAX_LIMIT
+     * @throws IllegalStateException if the index has not finished loading
+     */
+    public List<Dispute> search(String query, String status, String courseCode, int limit) {
+        List<String> queryTerms = words(query);
+        if (queryTerms.isEmpty()) {
+            throw new IllegalArgumentException("q must contain at least one word that is not a stop word.");
+        }
+        if (status != null && !status.isEmpty()) {
+            queryTerms.add(STATUS_TERM + DisputeWorkflow.requireStatus(status));
+        }
+        if (courseCode != null && !courseCode.isEmpty()) {
+            queryTerms.add(COURSE_TERM + courseCode);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                throw new IllegalStateException("Dispute search index is not loaded yet.");
+            }
+            return index.search(queryTerms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The words of a reason or query, without stop words.
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : PrefixIndex.words(text)) {
+            if (!STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * The terms a dispute is indexed under: the words of its reason, its status and its course code.
+     */
+    static Collection<String> terms(Dispute dispute) {
+        List<String> terms = words(dispute.getReason());
+        String status = dispute.getStatus() == null || dispute.getStatus().isEmpty() ? Dispute.PENDING : dispute.getStatus();
+        terms.add(STATUS_TERM + status);
+        if (dispute.getCourseCode() != null) {
+            terms.add(COURSE_TERM + dispute.getCourseCode());
+        }
+        return terms;
+    }
+
+    // --- Index maintenance (listener thread) ---
+
+    private void apply(QuerySnapshot querySnapshot) {
+        lock.writeLock().lock();
+        try {
+            for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+                String id = change.getDocument().getId();
+                Dispute dispute = change.getType() == DocumentChange.Type.REMOVED
+                        ? null : FirestoreService.toDispute(change.getDocument());
+                if (dispute == null) {
+                    index.remove(id);
+                } else {
+                    index.put(id, dispute);
+                }
+            }
+            if (!ready) {
+                logger.info("Dispute search index loaded: {} disputes, {} bytes of postings",
+                        index.size(), index.postingBytes());
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            index.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
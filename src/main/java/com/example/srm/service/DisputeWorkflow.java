@@ -0,0 +1,66 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Dispute;
+import com.example.srm.model.DisputeTransition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The status transitions a grade dispute may make:
+ * pending -> under_review -> resolved or rejected. Resolved and rejected are final.
+ * Shared by the transition endpoint and FirestoreService, which re-checks the transition against
+ * the status read inside its transaction.
+ */
+public final class DisputeWorkflow {
+
+    public static final List<String> STATUSES =
+            List.of(Dispute.PENDING, Dispute.UNDER_REVIEW, Dispute.RESOLVED, Dispute.REJECTED);
+
+    private static final Map<String, Set<String>> NEXT = Map.of(
+            Dispute.PENDING, Set.of(Dispute.UNDER_REVIEW),
+            Dispute.UNDER_REVIEW, Set.of(Dispute.RESOLVED, Dispute.REJECTED));
+
+    private DisputeWorkflow() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the status is not one of STATUSES
+     */
+    public static String requireStatus(String status) {
+        if (status == null || !STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Status must be one of " + STATUSES + ".");
+        }
+        return status;
+    }
+
+    /**
+     * @param from Current status; disputes stored without one count as pending
+     */
+    public static boolean canTransition(String from, String to) {
+        String current = from == null || from.isEmpty() ? Dispute.PENDING : from;
+        return NEXT.getOrDefault(current, Set.of()).contains(to);
+    }
+
+    /**
+     * @return The reason the transition request is malformed, or null if it may be applied
+     */
+    public static String validationError(DisputeTransition transition) {
+        if (transition == null || transition.getStatus() == null || !STATUSES.contains(transition.getStatus())
+                || Dispute.PENDING.equals(transition.getStatus())) {
+            return "Status must be one of " + STATUSES.subList(1, STATUSES.size()) + ".";
+        }
+        boolean correction = transition.getMarks() != null || transition.getGrade() != null;
+        if (correction && !Dispute.RESOLVED.equals(transition.getStatus())) {
+            return "Marks and grade can only be corrected when resolving a dispute.";
+        }
+        if (transition.getMarks() != null && (transition.getMarks() < 0 || transition.getMarks() > ResultValidator.MAX_MARKS)) {
+            return ResultValidator.MARKS_RANGE_MESSAGE;
+        }
+        if (transition.getGrade() != null && transition.getGrade().isEmpty()) {
+            return "Grade must not be empty.";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.srm.service;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+
+/**
+ * Converts between a Firestore document and a model object.
+ * Implementations for the application's models (see DocumentCodecs) read and write fields by name,
+ * avoiding the per-document reflection of DocumentSnapshot.toObject() and of set(pojo).
+ * @param <T> The model type
+ */
+public interface DocumentCodec<T> {
+
+    /**
+     * Builds the model from an existing document; 'id' is set to the document ID.
+     * @return The model, or null if the document does not exist
+     */
+    T decode(DocumentSnapshot document);
+
+    /**
+     * @return The value to pass to set(): the model's fields as a map for codec-backed models,
+     *         or the model itself when Firestore's reflective mapper does the conversion
+     */
+    Object encode(T model);
+}
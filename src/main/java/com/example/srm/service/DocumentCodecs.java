@@ -0,0 +1,197 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Course;
+import com.example.srm.model.Dispute;
+import com.example.srm.model.Lecturer;
+import com.example.srm.model.Result;
+import com.example.srm.model.Student;
+import com.google.cloud.firestore.DocumentSnapshot;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hand-written codecs for the Firestore-backed models.
+ *
+ * Each codec reads only the model's fields from the snapshot (DocumentSnapshot.get converts just the
+ * requested value) and writes a plain field map, so neither direction goes through Firestore's
+ * reflective bean mapper. The stored document shape is the same as the mapper's: every property,
+ * including 'id', is a top-level field, and missing fields decode to null (0 for marks).
+ * Models without a codec here fall back to the reflective path via forType().
+ *
+ * When a field is added to one of these models, add it to its codec as well.
+ */
+public final class DocumentCodecs {
+
+    public static final DocumentCodec<Student> STUDENT = new DocumentCodec<>() {
+        @Override
+        public Student decode(DocumentSnapshot document) {
+            if (!document.exists()) {
+                return null;
+            }
+            return new Student(document.getId(), document.getString("rollNumber"),
+                    document.getString("name"), document.getString("email"));
+        }
+
+        @Override
+        public Object encode(Student student) {
+            Map<String, Object> fields = new HashMap<>(8);
+            fields.put("id", student.getId());
+            fields.put("rollNumber", student.getRollNumber());
+            fields.put("name", student.getName());
+            fields.put("email", student.getEmail());
+            return fields;
+        }
+    };
+
+    public static final DocumentCodec<Course> COURSE = new DocumentCodec<>() {
+        @Override
+        public Course decode(DocumentSnapshot document) {
+            if (!document.exists()) {
+                return null;
+            }
+            return new Course(document.getId(), document.getString("courseCode"),
+                    document.getString("courseName"), document.getString("courseInstructor"));
+        }
+
+        @Override
+        public Object encode(Course course) {
+            Map<String, Object> fields = new HashMap<>(8);
+            fields.put("id", course.getId());
+            fields.put("courseCode", course.getCourseCode());
+            fields.put("courseName", course.getCourseName());
+            fields.put("courseInstructor", course.getCourseInstructor());
+            return fields;
+        }
+    };
+
+    public static final DocumentCodec<Lecturer> LECTURER = new DocumentCodec<>() {
+        @Override
+        public Lecturer decode(DocumentSnapshot document) {
+            if (!document.exists()) {
+                return null;
+            }
+            return new Lecturer(document.getId(), document.getString("lecturerId"),
+                    document.getString("lecturerName"), document.getString("lecturerEmail"));
+        }
+
+        @Override
+        public Object encode(Lecturer lecturer) {
+            Map<String, Object> fields = new HashMap<>(8);
+            fields.put("id", lecturer.getId());
+            fields.put("lecturerId", lecturer.getLecturerId());
+            fields.put("lecturerName", lecturer.getLecturerName());
+            fields.put("lecturerEmail", lecturer.getLecturerEmail());
+            return fields;
+        }
+    };
+
+    public static final DocumentCodec<Result> RESULT = new DocumentCodec<>() {
+        @Override
+        public Result decode(DocumentSnapshot document) {
+            if (!document.exists()) {
+                return null;
+            }
+            Long marks = document.getLong("marks");
+            return new Result(document.getId(), document.getString("rollNumber"),
+                    document.getString("courseCode"), marks == null ? 0 : Math.toIntExact(marks),
+                    document.getString("grade"));
+        }
+
+        @Override
+        public Object encode(Result result) {
+            Map<String, Object> fields = new HashMap<>(8);
+            fields.put("id", result.getId());
+            fields.put("rollNumber", result.getRollNumber());
+            fields.put("courseCode", result.getCourseCode());
+            fields.put("marks", result.getMarks());
+            fields.put("grade", result.getGrade());
+            return fields;
+        }
+    };
+
+    public static final DocumentCodec<Dispute> DISPUTE = new DocumentCodec<>() {
+        @Override
+        public Dispute decode(DocumentSnapshot document) {
+            if (!document.exists()) {
+                return null;
+            }
+            return new Dispute(document.getId(), document.getString("rollNumber"),
+                    document.getString("courseCode"), document.getString("reason"),
+                    document.getString("status"), document.getString("resolution"),
+                    intOrNull(document.getLong("previousMarks")), intOrNull(document.getLong("revisedMarks")));
+        }
+
+        @Override
+        public Object encode(Dispute dispute) {
+            Map<String, Object> fields = new HashMap<>(8);
+            fields.put("id", dispute.getId());
+            fields.put("rollNumber", dispute.getRollNumber());
+            fields.put("courseCode", dispute.getCourseCode());
+            fields.put("reason", dispute.getReason());
+            fields.put("status", dispute.getStatus());
+            fields.put("resolution", dispute.getResolution());
+            fields.put("previousMarks", dispute.getPreviousMarks());
+            fields.put("revisedMarks", dispute.getRevisedMarks());
+            return fields;
+        }
+    };
+
+    private static final Map<Class<?>, DocumentCodec<?>> CODECS = new ConcurrentHashMap<>(Map.of(
+            Student.class, STUDENT,
+            Course.class, COURSE,
+            Lecturer.class, LECTURER,
+            Result.class, RESULT,
+            Dispute.class, DISPUTE));
+
+    private DocumentCodecs() {
+    }
+
+    private static Integer intOrNull(Long value) {
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    /**
+     * @return The hand-written codec for a model, or a reflective codec for models without one
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DocumentCodec<T> forType(Class<T> type) {
+        return (DocumentCodec<T>) CODECS.computeIfAbsent(type, ReflectiveCodec::new);
+    }
+
+    /**
+     * Firestore's bean mapper: DocumentSnapshot.toObject() to read, and the model itself handed to set()
+     * to write.
+     */
+    public static final class ReflectiveCodec<T> implements DocumentCodec<T> {
+
+        private final Class<T> type;
+        // Setter for the model's 'id' property, if it has one
+        private final Method idSetter;
+
+        public ReflectiveCodec(Class<T> type) {
+            this.type = type;
+            PropertyDescriptor id = BeanUtils.getPropertyDescriptor(type, "id");
+            this.idSetter = id != null ? id.getWriteMethod() : null;
+        }
+
+        @Override
+        public T decode(DocumentSnapshot document) {
+            T model = document.toObject(type);
+            if (model != null && idSetter != null) {
+                ReflectionUtils.invokeMethod(idSetter, model, document.getId());
+            }
+            return model;
+        }
+
+        @Override
+        public Object encode(T model) {
+            return model;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.srm.service;
+
+/**
+ * Document IDs derived from natural keys: a student's ID is its roll number and a result's ID is
+ * its (roll number, course code) pair. Looking a record up by its key is then a single document
+ * read, and creating it with DocumentReference.create() rejects a duplicate atomically, without a
+ * query or a read first.
+ * Key parts are joined with ':'. Characters that cannot appear in an ID ('/'), the separator and
+ * the escape character are written as '!' plus two hex digits, so two different keys never map to
+ * the same ID and typical keys (letters, digits, '-') are used unchanged. Unlike URL encoding this
+ * never emits '%': the Firestore client formats server error messages, which quote the document
+ * path, as format strings, and a '%' there makes a failed BulkWriter write never complete.
+ */
+public final class DocumentIds {
+
+    private static final char SEPARATOR = ':';
+    private static final char ESCAPE = '!';
+    private static final String ESCAPED = "/%:!";
+
+    private DocumentIds() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the roll number is null or empty
+     */
+    public static String student(String rollNumber) {
+        return valid(part("Roll number", rollNumber));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the roll number or course code is null or empty
+     */
+    public static String result(String rollNumber, String courseCode) {
+        return valid(part("Roll number", rollNumber) + SEPARATOR + part("Course code", courseCode));
+    }
+
+    /**
+     * The ID of a document keyed by a single natural key other than a roll number, e.g. the
+     * read-model document of a course (see ResultProjection.documentId).
+     * @throws IllegalArgumentException if the key is null or empty
+     */
+    public static String key(String naturalKey) {
+        return valid(part("Key", naturalKey));
+    }
+
+    private static String part(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(name + " is required.");
+        }
+        StringBuilder id = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (ESCAPED.indexOf(c) >= 0) {
+                escape(id, c);
+            } else {
+                id.append(c);
+            }
+        }
+        return id.toString();
+    }
+
+    /**
+     * Escapes the first character of the IDs Firestore reserves: "." and "..", and names matching __.*__.
+     */
+    private static String valid(String id) {
+        boolean reserved = id.equals(".") || id.equals("..") || (id.length() >= 4 && id.startsWith("__") && id.endsWith("__"));
+        if (!reserved) {
+            return id;
+        }
+        StringBuilder escaped = new StringBuilder(id.length() + 2);
+        escape(escaped, id.charAt(0));
+        return escaped.append(id, 1, id.length()).toString();
+    }
+
+    private static void escape(StringBuilder id, char c) {
+        id.append(ESCAPE).append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+    }
+}
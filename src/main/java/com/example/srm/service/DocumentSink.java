@@ -0,0 +1,21 @@
+package com.example.srm.service;
+
+import java.io.IOException;
+
+/**
+ * Receives documents one at a time from a streaming Firestore read.
+ * Implementations typically write each item straight to an HTTP response,
+ * so the whole collection never has to be held in memory.
+ *
+ * @param <T> The model type being streamed
+ */
+@FunctionalInterface
+public interface DocumentSink<T> {
+
+    /**
+     * Consumes the next document in query order.
+     * @param item The mapped document
+     * @throws IOException if the item cannot be written (e.g. client disconnected); the stream is then abandoned
+     */
+    void accept(T item) throws IOException;
+}
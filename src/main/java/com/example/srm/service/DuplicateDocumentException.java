@@ -0,0 +1,18 @@
+package com.example.srm.service;
+
+/**
+ * Thrown when a record is created with a natural key (see DocumentIds) that another record
+ * already has, e.g. a second result for the same student and course.
+ */
+public class DuplicateDocumentException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicateDocumentException(String message) {
+        super(message);
+    }
+
+    public DuplicateDocumentException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.srm.service;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree of counts over the integer values 0..capacity-1.
+ * Adding or removing a value and counting the values at or below a bound are both O(log capacity),
+ * which is what rank and percentile lookups need. The capacity grows on demand when a larger value
+ * is added. Not thread-safe; callers synchronise.
+ */
+final class FenwickTree {
+
+    private long[] tree;
+    private long size;
+
+    FenwickTree(int capacity) {
+        tree = new long[Math.max(capacity, 1) + 1];
+    }
+
+    /**
+     * Adds delta occurrences of value (negative to remove).
+     */
+    void add(int value, long delta) {
+        if (value < 0 || value == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        if (value + 1 >= tree.length) {
+            grow(value + 1);
+        }
+        for (int i = value + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+        size += delta;
+    }
+
+    /**
+     * @return The number of values less than or equal to value
+     */
+    long countAtMost(int value) {
+        if (value < 0) {
+            return 0;
+        }
+        long count = 0;
+        for (int i = Math.min(value + 1, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of values equal to value
+     */
+    long countOf(int value) {
+        return countAtMost(value) - countAtMost(value - 1);
+    }
+
+    /**
+     * @return The total number of values
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Removes all values, keeping the capacity.
+     */
+    void clear() {
+        Arrays.fill(tree, 0);
+        size = 0;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = tree.length - 1;
+        long[] counts = new long[capacity];
+        for (int value = 0; value < capacity; value++) {
+            counts[value] = countOf(value);
+        }
+        tree = new long[Math.max(capacity * 2, minCapacity) + 1];
+        // Linear-time rebuild: each node pushes its partial sum to its parent
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= capacity) {
+                tree[i] += counts[i - 1];
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
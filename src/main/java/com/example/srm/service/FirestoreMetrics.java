@@ -0,0 +1,89 @@
+package com.example.srm.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Micrometer instrumentation of the Firestore operations issued by FirestoreService.
+ * Every meter is tagged with the Firestore collection and the operation (list, page, get, add, ...):
+ * - srm.firestore.requests (timer, also tagged outcome=success|error): latency of each operation,
+ *   from issuing the call until Firestore has answered
+ * - srm.firestore.documents (distribution summary): documents read or written per operation,
+ *   which shows the collection scans
+ * - srm.firestore.errors (counter, also tagged exception): failed operations
+ * Percentiles and histogram buckets are configured through management.metrics.distribution.* properties.
+ */
+@Component
+public class FirestoreMetrics {
+
+    static final String REQUESTS = "srm.firestore.requests";
+    static final String DOCUMENTS = "srm.firestore.documents";
+    static final String ERRORS = "srm.firestore.errors";
+
+    private final MeterRegistry registry;
+
+    public FirestoreMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Records a finished operation.
+     * @param documents Documents read or written (recorded for successful operations only)
+     * @param error The failure, or null if the operation succeeded
+     */
+    public void stop(Timer.Sample sample, String collection, String operation, long documents, Throwable error) {
+        sample.stop(Timer.builder(REQUESTS)
+                .description("Latency of Firestore operations")
+                .tag("collection", collection)
+                .tag("operation", operation)
+                .tag("outcome", error == null ? "success" : "error")
+                .register(registry));
+        if (error == null) {
+            DistributionSummary.builder(DOCUMENTS)
+                    .description("Documents read or written per Firestore operation")
+                    .baseUnit("documents")
+                    .tag("collection", collection)
+                    .tag("operation", operation)
+                    .register(registry)
+                    .record(documents);
+        } else {
+            Counter.builder(ERRORS)
+                    .description("Failed Firestore operations")
+                    .tag("collection", collection)
+                    .tag("operation", operation)
+                    .tag("exception", FirestoreService.unwrap(error).getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    /**
+     * Times an asynchronous operation until its future completes. Exceptions thrown synchronously
+     * (e.g. IllegalArgumentException for invalid arguments) are recorded and rethrown as-is.
+     * @param documents Counts the documents read or written from the operation's result
+     */
+    public <T> CompletableFuture<T> record(String collection, String operation, Supplier<CompletableFuture<T>> call,
+                                           ToIntFunction<? super T> documents) {
+        Timer.Sample sample = start();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            stop(sample, collection, operation, 0, e);
+            throw e;
+        }
+        return future.whenComplete((value, error) ->
+                stop(sample, collection, operation, error == null ? documents.applyAsInt(value) : 0, error));
+    }
+}
@@ -2,27 +2,134 @@ package com.example.srm.service;
 
 import com.google.firebase.FirebaseApp;
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.api.gax.rpc.ApiStreamObserver;
 import com.google.cloud.firestore.*;
 import com.google.firebase.cloud.FirestoreClient;
 import com.example.srm.model.*; // Import all models
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Timer;
 
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
+/**
+ * Service layer for all Firestore reads and writes.
+ * Every operation comes as a pair, following the Firebase Admin SDK convention
+ * (e.g. FirebaseAuth.createUser / createUserAsync):
+ * - xxxAsync returns a CompletableFuture adapted from Firestore's ApiFuture and never blocks,
+ *   so callers such as the controllers can release their thread while the RPC is in flight
+ * - xxx blocks on the async variant and throws ExecutionException/InterruptedException
+ */
 @Service
 public class FirestoreService {
 
     private static final Logger logger = LoggerFactory.getLogger(FirestoreService.class);
-    private static final String STUDENTS_COLLECTION = "Students";
-    private static final String COURSES_COLLECTION = "Courses";
-    private static final String LECTURERS_COLLECTION = "Lecturers";
-    private static final String RESULTS_COLLECTION = "Results"; // Assuming collection name
-    private static final String DISPUTES_COLLECTION = "Disputes";
+    static final String STUDENTS_COLLECTION = "Students";
+    static final String COURSES_COLLECTION = "Courses";
+    static final String LECTURERS_COLLECTION = "Lecturers";
+    static final String RESULTS_COLLECTION = "Results"; // Assuming collection name
+    static final String DISPUTES_COLLECTION = "Disputes";
+
+    // Fields each collection may be ordered by when paginating (document ID is always allowed)
+    private static final Set<String> STUDENT_SORT_FIELDS = Set.of("rollNumber", "name", "email");
+    private static final Set<String> COURSE_SORT_FIELDS = Set.of("courseCode", "courseName", "courseInstructor");
+    private static final Set<String> LECTURER_SORT_FIELDS = Set.of("lecturerId", "lecturerName", "lecturerEmail");
+    private static final Set<String> RESULT_SORT_FIELDS = Set.of("rollNumber", "courseCode", "marks", "grade");
+    private static final Set<String> DISPUTE_SORT_FIELDS = Set.of("rollNumber", "courseCode", "status");
+
+    // Models whose listings support 'fields=' projection
+    private static final Map<Class<?>, CollectionSpec> PROJECTABLE = Map.of(
+            Student.class, CollectionSpec.of(STUDENTS_COLLECTION, STUDENT_SORT_FIELDS, Student.class),
+            Course.class, CollectionSpec.of(COURSES_COLLECTION, COURSE_SORT_FIELDS, Course.class),
+            Lecturer.class, CollectionSpec.of(LECTURERS_COLLECTION, LECTURER_SORT_FIELDS, Lecturer.class),
+            Result.class, CollectionSpec.of(RESULTS_COLLECTION, RESULT_SORT_FIELDS, Result.class),
+            Dispute.class, CollectionSpec.of(DISPUTES_COLLECTION, DISPUTE_SORT_FIELDS, Dispute.class));
+
+    // Documents buffered between the Firestore stream and the consumer when streaming a collection
+    private static final int STREAM_BUFFER_SIZE = 256;
+    private static final Object STREAM_END = new Object();
+    // How long the gRPC callback thread waits for a consumer that does not make room before cancelling the stream
+    private static final long STREAM_STALL_TIMEOUT_SECONDS = 60;
+
+    // Firestore's limit on the writes in one batch
+    private static final int MAX_BATCH_WRITES = 500;
+
+    // Firestore's limit on the values of one 'in' filter
+    private static final int MAX_IN_VALUES = 30;
+
+    // Documents read per page when exporting a collection (clamped to srm.pagination.max-limit)
+    private static final int EXPORT_PAGE_SIZE = 500;
+
+    // Documents read per page when migrating a collection to natural-key IDs
+    private static final int MIGRATION_PAGE_SIZE = 300;
+
+    @Value("${srm.pagination.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${srm.pagination.max-limit:500}")
+    private int maxPageLimit;
+
+    // Starting write rate of bulk imports; BulkWriter ramps up from here (500/50/5 rule)
+    @Value("${srm.import.initial-ops-per-second:500}")
+    private int bulkInitialOpsPerSecond;
+
+    // Fall back to a query when a natural-key lookup misses, for records added before IDs were
+    // derived from natural keys (see DocumentIds); disable once migrateToNaturalIdsAsync has run
+    @Value("${srm.ids.legacy-lookup:true}")
+    private boolean legacyLookup;
+
+    private final ReferenceDataCache referenceDataCache;
+    private final List<ResultProjection> resultProjections;
+    private final CourseStatsProjection courseStatsProjection;
+    private final TranscriptProjection transcriptProjection;
+    private final FirestoreMetrics metrics;
+
+    public FirestoreService(ReferenceDataCache referenceDataCache, List<ResultProjection> resultProjections,
+                            CourseStatsProjection courseStatsProjection, TranscriptProjection transcriptProjection,
+                            FirestoreMetrics metrics) {
+        this.referenceDataCache = referenceDataCache;
+        this.resultProjections = resultProjections;
+        this.courseStatsProjection = courseStatsProjection;
+        this.transcriptProjection = transcriptProjection;
+        this.metrics = metrics;
+    }
 
     private Firestore getDb() {
         // Ensure FirebaseApp is initialized before calling this
@@ -33,176 +140,1742 @@ public class FirestoreService {
         return FirestoreClient.getFirestore();
     }
 
+    // --- Async Helpers ---
+
+    /**
+     * Adapts a Firestore ApiFuture to a CompletableFuture without blocking any thread.
+     * Callbacks run directly on the gRPC thread that completes the RPC, so continuations must stay cheap.
+     */
+    private static <T> CompletableFuture<T> toCompletable(ApiFuture<T> apiFuture) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                future.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    /**
+     * Issues a Firestore call and adapts its result, recording its latency, the documents it read or
+     * wrote and any failure under the collection and operation tags (see FirestoreMetrics).
+     * @param documents Counts the documents read or written from the call's result
+     */
+    private <T> CompletableFuture<T> call(String collection, String operation, Supplier<ApiFuture<T>> rpc,
+                                          ToIntFunction<? super T> documents) {
+        return metrics.record(collection, operation, () -> toCompletable(rpc.get()), documents);
+    }
+
+    private static int found(DocumentSnapshot document) {
+        return document.exists() ? 1 : 0;
+    }
+
+    /**
+     * Whether a write failed because create() found its document already present.
+     */
+    static boolean isAlreadyExists(Throwable throwable) {
+        for (Throwable cause = unwrap(throwable); cause != null; cause = cause.getCause()) {
+            if (cause instanceof FirestoreException firestoreException && firestoreException.getStatus() != null) {
+                return firestoreException.getStatus().getCode() == Status.Code.ALREADY_EXISTS;
+            }
+            if (cause instanceof ApiException apiException) {
+                return apiException.getStatusCode().getCode() == StatusCode.Code.ALREADY_EXISTS;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fails the future with DuplicateDocumentException instead if its create() found the document present.
+     */
+    private static <T> CompletableFuture<T> rejectDuplicate(CompletableFuture<T> future, String message) {
+        return future.exceptionallyCompose(e -> CompletableFuture.failedFuture(
+                isAlreadyExists(e) ? new DuplicateDocumentException(message, unwrap(e)) : e));
+    }
+
+    /**
+     * Unwraps the CompletionException/ExecutionException layers added by CompletableFuture stages,
+     * returning the exception actually raised by Firestore or the service.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private <T> CompletableFuture<List<T>> getAllAsync(String collection, Function<DocumentSnapshot, T> mapper) {
+        return getAllAsync(collection, null, mapper);
+    }
+
+    /**
+     * @param select Fields to fetch (a Firestore projection), or null for whole documents
+     */
+    private <T> CompletableFuture<List<T>> getAllAsync(String collection, List<String> select,
+                                                       Function<DocumentSnapshot, T> mapper) {
+        Query query = getDb().collection(collection);
+        if (select != null) {
+            query = query.select(storedFields(select));
+        }
+        return call(collection, "list", query::get, QuerySnapshot::size)
+                .thenApply(snapshot -> mapAll(snapshot.getDocuments(), mapper));
+    }
+
+    private static <T> List<T> mapAll(List<? extends DocumentSnapshot> documents, Function<DocumentSnapshot, T> mapper) {
+        List<T> items = new ArrayList<>(documents.size());
+        for (DocumentSnapshot document : documents) {
+            T item = mapper.apply(document);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    // --- Versions (ETags) ---
+
+    /**
+     * Reads every document of a collection together with the ETag of the documents read (see Versioned).
+     */
+    private <T> CompletableFuture<Versioned<List<T>>> getAllVersionedAsync(String collection,
+                                                                          Function<DocumentSnapshot, T> mapper) {
+        return call(collection, "list", getDb().collection(collection)::get, QuerySnapshot::size)
+                .thenApply(snapshot -> new Versioned<>(mapAll(snapshot.getDocuments(), mapper),
+                        Versioned.eTag(snapshot.getDocuments())));
+    }
+
+    private <T> CompletableFuture<T> addAsync(DocumentReference docRef, T model, DocumentCodec<T> codec, String label) {
+        // create() rather than set(): for natural-key IDs it is what rejects duplicates
+        return call(docRef.getParent().getId(), "add", () -> docRef.create(codec.encode(model)), writeResult -> 1)
+                .thenApply(writeResult -> {
+                    referenceDataCache.written(docRef.getParent().getId(), writeResult.getUpdateTime());
+                    logger.info("Added {} {} at {}", label, docRef.getId(), writeResult.getUpdateTime());
+                    return model;
+                });
+    }
+
+    private CompletableFuture<Void> updateAsync(String collection, String id, Map<String, Object> updatedData, String label) {
+        // Remove 'id' field from update map if present, as it should not be changed
+        updatedData.remove("id");
+        DocumentReference docRef = getDb().collection(collection).document(id);
+        return call(collection, "update", () -> docRef.update(updatedData), writeResult -> 1).thenAccept(writeResult -> {
+            referenceDataCache.written(collection, writeResult.getUpdateTime());
+            logger.info("Updated {} {} at {}", label, id, writeResult.getUpdateTime());
+        });
+    }
+
+    private CompletableFuture<Void> deleteAsync(String collection, String id, String label) {
+        DocumentReference docRef = getDb().collection(collection).document(id);
+        return call(collection, "delete", docRef::delete, writeResult -> 1).thenAccept(writeResult -> {
+            referenceDataCache.written(collection, writeResult.getUpdateTime());
+            logger.info("Deleted {} {} at {}", label, id, writeResult.getUpdateTime());
+        });
+    }
+
+    // --- Read Models ---
+
+    /**
+     * Adds the read-model updates implied by results being added or removed to a batch or transaction,
+     * so they commit atomically with the result writes.
+     */
+    private void applyProjections(Firestore db, UpdateBuilder<?> writes, List<Result> results, boolean added) {
+        for (ResultProjection projection : resultProjections) {
+            projection.changes(db, results, added).forEach((docRef, payload) -> writes.set(docRef, payload, SetOptions.merge()));
+        }
+    }
+
+    /**
+     * Replaces one read-model document with the state the projection derives from all results
+     * whose filterField equals value (a plain set applies the increments to an empty document).
+     * @return The number of results the document was rebuilt from
+     */
+    private CompletableFuture<Integer> rebuildReadModelAsync(Firestore db, String filterField, String value,
+                                                             ResultProjection projection, DocumentReference target) {
+        Query query = db.collection(RESULTS_COLLECTION).whereEqualTo(filterField, value);
+        return call(RESULTS_COLLECTION, "query", query::get, QuerySnapshot::size)
+                .thenCompose(snapshot -> {
+                    List<Result> results = snapshot.getDocuments().stream().map(FirestoreService::toResult).toList();
+                    Map<String, Object> payload = projection.changes(db, results, true)
+                            .getOrDefault(target, Map.of(filterField, value));
+                    return call(target.getParent().getId(), "rebuild", () -> target.set(payload), writeResult -> 1)
+                            .thenApply(writeResult -> {
+                                logger.info("Rebuilt {} from {} results", target.getPath(), results.size());
+                                return results.size();
+                            });
+                });
+    }
+
+    // --- Cascading Deletes ---
+
+    /**
+     * Deletes a student or course together with the results and disputes whose keyField
+     * (rollNumber or courseCode) matches it. Dependents go first, in batches of at most
+     * MAX_BATCH_WRITES writes: each batch re-runs the dependent query with a limit, so memory stays
+     * bounded however many dependents there are, and a cascade that fails part-way can be retried.
+     * Result deletes carry their read-model updates in the same batch and are guarded by an
+     * update-time precondition, so a result changed or deleted concurrently fails the batch instead
+     * of being subtracted from the read models twice. The student or course itself is deleted last.
+     *
+     * @param dryRun Only count the dependents, delete nothing
+     * @param progress Receives the report once the dependents are counted and after every committed batch
+     * @return The final report, or null if the document does not exist
+     */
+    private CompletableFuture<CascadeDeleteReport> deleteCascadeAsync(String collection, String id, String keyField,
+                                                                     boolean dryRun, Consumer<CascadeDeleteReport> progress) {
+        Firestore db = getDb();
+        DocumentReference parent = db.collection(collection).document(id);
+        return call(collection, "get", parent::get, FirestoreService::found).thenCompose(document -> {
+            if (!document.exists()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            String key = document.getString(keyField);
+            CascadeDeleteReport report = new CascadeDeleteReport(collection, id, key, dryRun, 0, 0, 0, 0, false);
+            // Without a key nothing can reference the document
+            Query results = key == null ? null : db.collection(RESULTS_COLLECTION).whereEqualTo(keyField, key);
+            Query disputes = key == null ? null : db.collection(DISPUTES_COLLECTION).whereEqualTo(keyField, key);
+            CompletableFuture<Long> resultCount = results == null
+                    ? CompletableFuture.completedFuture(0L) : countAsync(RESULTS_COLLECTION, results);
+            CompletableFuture<Long> disputeCount = disputes == null
+                    ? CompletableFuture.completedFuture(0L) : countAsync(DISPUTES_COLLECTION, disputes);
+            return resultCount.thenCombine(disputeCount, (resultTotal, disputeTotal) -> {
+                report.setResults(resultTotal);
+                report.setDisputes(disputeTotal);
+                report.setDone(dryRun);
+                progress.accept(report);
+                return report;
+            }).thenCompose(counted -> {
+                if (dryRun) {
+                    return CompletableFuture.completedFuture(report);
+                }
+                // Every result delete can bring one read-model write per projection into its batch
+                int resultsPerBatch = MAX_BATCH_WRITES / (1 + resultProjections.size());
+                CompletableFuture<Void> dependents = key == null
+                        ? CompletableFuture.completedFuture(null)
+                        : deleteMatchingAsync(db, RESULTS_COLLECTION, results, resultsPerBatch, report, progress)
+                            .thenCompose(ignored -> deleteMatchingAsync(db, DISPUTES_COLLECTION, disputes,
+                                    MAX_BATCH_WRITES, report, progress));
+                return dependents
+                        .thenCompose(ignored -> call(collection, "delete", parent::delete, writeResult -> 1))
+                        .thenApply(writeResult -> {
+                            referenceDataCache.written(collection, writeResult.getUpdateTime());
+                            report.setDeleted(report.getDeleted() + 1);
+                            report.setDone(true);
+                            progress.accept(report);
+                            logger.info("Deleted {} {} with {} dependent documents in {} batches",
+                                    collection, id, report.getDeleted() - 1, report.getBatches());
+                            return report;
+                        });
+            });
+        });
+    }
+
+    /**
+     * Deletes every document matching the query, one limited read and one batch at a time, until none is left.
+     */
+    private CompletableFuture<Void> deleteMatchingAsync(Firestore db, String collection, Query query, int batchSize,
+                                                       CascadeDeleteReport report, Consumer<CascadeDeleteReport> progress) {
+        return call(collection, "query", query.limit(batchSize)::get, QuerySnapshot::size).thenCompose(snapshot -> {
+            if (snapshot.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            WriteBatch batch = db.batch();
+            for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+                batch.delete(document.getReference(), Precondition.updatedAt(document.getUpdateTime()));
+            }
+            if (RESULTS_COLLECTION.equals(collection)) {
+                applyProjections(db, batch, snapshot.getDocuments().stream().map(FirestoreService::toResult).toList(), false);
+            }
+            return call(collection, "cascadeDelete", batch::commit, List::size).thenCompose(writeResults -> {
+                report.setDeleted(report.getDeleted() + snapshot.size());
+                report.setBatches(report.getBatches() + 1);
+                logger.info("Deleting {} {}: {} of {} dependent documents deleted", report.getCollection(), report.getId(),
+                        report.getDeleted(), report.getResults() + report.getDisputes());
+                progress.accept(report);
+                return deleteMatchingAsync(db, collection, query, batchSize, report, progress);
+            });
+        });
+    }
+
+    /**
+     * Counts the documents matching a query with a count() aggregation, without reading them.
+     */
+    private CompletableFuture<Long> countAsync(String collection, Query query) {
+        AggregateQuery count = query.count();
+        return call(collection, "count", count::get, snapshot -> 0).thenApply(AggregateQuerySnapshot::getCount);
+    }
+
+    // --- Natural Keys ---
+
+    /**
+     * Reads the record whose document ID is derived from its natural key (see DocumentIds).
+     * On a miss, and while srm.ids.legacy-lookup is enabled, looks for a record that still has an
+     * auto-generated ID with the legacy query instead.
+     * @return The mapped record, or null if there is none
+     */
+    private <T> CompletableFuture<T> getByNaturalKeyAsync(String collection, String id, Supplier<Query> legacyQuery,
+                                                          Function<DocumentSnapshot, T> mapper) {
+        DocumentReference docRef = getDb().collection(collection).document(id);
+        return call(collection, "get", docRef::get, FirestoreService::found).thenCompose(document -> {
+            if (document.exists() || !legacyLookup) {
+                return CompletableFuture.completedFuture(document.exists() ? mapper.apply(document) : null);
+            }
+            Query query = legacyQuery.get().limit(1);
+            return call(collection, "query", query::get, QuerySnapshot::size)
+                    .thenApply(snapshot -> snapshot.isEmpty() ? null : mapper.apply(snapshot.getDocuments().get(0)));
+        });
+    }
+
+    /**
+     * The ID a student or result document should have according to its stored key fields
+     * (see DocumentIds), or null if a key field is missing.
+     */
+    private static String naturalId(String collection, DocumentSnapshot document) {
+        if (!(document.get("rollNumber") instanceof String rollNumber) || rollNumber.isEmpty()) {
+            return null;
+        }
+        if (STUDENTS_COLLECTION.equals(collection)) {
+            return DocumentIds.student(rollNumber);
+        }
+        if (!(document.get("courseCode") instanceof String courseCode) || courseCode.isEmpty()) {
+            return null;
+        }
+        return DocumentIds.result(rollNumber, courseCode);
+    }
+
+    /**
+     * Moves the documents of a collection that still have auto-generated IDs to their natural-key IDs,
+     * one page (ordered by document ID) at a time. Documents whose natural key is already taken, by an
+     * existing document or one moved earlier in this run, are left in place and reported as conflicts.
+     *
+     * @param claimed Natural IDs moved to (or, for a dry run, that would be moved to) in this run; the scan
+     *                skips those documents when it reaches them further on
+     */
+    private CompletableFuture<Void> migrateCollectionAsync(Firestore db, IdMigrationReport report,
+                                                          DocumentSnapshot startAfter, Set<String> claimed) {
+        String collection = report.getCollection();
+        Query page = db.collection(collection).orderBy(FieldPath.documentId()).limit(MIGRATION_PAGE_SIZE);
+        if (startAfter != null) {
+            page = page.startAfter(startAfter);
+        }
+        return call(collection, "query", page::get, QuerySnapshot::size).thenCompose(snapshot -> {
+            List<QueryDocumentSnapshot> candidates = new ArrayList<>();
+            Set<DocumentReference> targets = new LinkedHashSet<>();
+            for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+                if (claimed.contains(document.getId())) {
+                    continue;
+                }
+                report.setScanned(report.getScanned() + 1);
+                String target = naturalId(collection, document);
+                if (target == null) {
+                    report.setSkipped(report.getSkipped() + 1);
+                } else if (target.equals(document.getId())) {
+                    report.setAlreadyMigrated(report.getAlreadyMigrated() + 1);
+                } else {
+                    candidates.add(document);
+                    targets.add(db.collection(collection).document(target));
+                }
+            }
+            CompletableFuture<List<DocumentSnapshot>> existing = targets.isEmpty()
+                    ? CompletableFuture.completedFuture(List.of())
+                    : call(collection, "get", () -> db.getAll(targets.toArray(new DocumentReference[0])), List::size);
+            return existing.thenCompose(found -> {
+                Set<String> taken = new HashSet<>();
+                found.stream().filter(DocumentSnapshot::exists).forEach(document -> taken.add(document.getId()));
+                List<QueryDocumentSnapshot> moves = new ArrayList<>(candidates.size());
+                for (QueryDocumentSnapshot document : candidates) {
+                    String target = naturalId(collection, document);
+                    if (taken.contains(target) || !claimed.add(target)) {
+                        report.getConflicts().add(document.getId());
+                    } else {
+                        moves.add(document);
+                    }
+                }
+                CompletableFuture<Void> moved;
+                if (report.isDryRun()) {
+                    report.setMigrated(report.getMigrated() + moves.size());
+                    moved = CompletableFuture.completedFuture(null);
+                } else {
+                    moved = moveToNaturalIdsAsync(db, report, moves, 0);
+                }
+                if (snapshot.size() < MIGRATION_PAGE_SIZE) {
+                    return moved;
+                }
+                DocumentSnapshot last = snapshot.getDocuments().get(snapshot.size() - 1);
+                return moved.thenCompose(ignored -> migrateCollectionAsync(db, report, last, claimed));
+            });
+        });
+    }
+
+    /**
+     * Moves documents from index 'from' on, one batch at a time. Each batch creates the new documents
+     * and deletes the old ones, so a document is never lost or duplicated; for results it also moves
+     * their read-model entries (transcript entries are keyed by result ID). create() and the update-time
+     * precondition on the delete fail the batch, and the migration, if either document changed since it
+     * was read; rerunning the migration picks up where it stopped.
+     */
+    private CompletableFuture<Void> moveToNaturalIdsAsync(Firestore db, IdMigrationReport report,
+                                                         List<QueryDocumentSnapshot> moves, int from) {
+        if (from >= moves.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String collection = report.getCollection();
+        boolean results = RESULTS_COLLECTION.equals(collection);
+        // A create and a delete per document, plus for results one write per projection for each
+        int batchSize = MAX_BATCH_WRITES / (results ? 2 + 2 * resultProjections.size() : 2);
+        List<QueryDocumentSnapshot> chunk = moves.subList(from, Math.min(from + batchSize, moves.size()));
+        WriteBatch batch = db.batch();
+        List<Result> removed = new ArrayList<>();
+        List<Result> added = new ArrayList<>();
+        for (QueryDocumentSnapshot document : chunk) {
+            String target = naturalId(collection, document);
+            Map<String, Object> data = new HashMap<>(document.getData());
+            if (data.containsKey("id")) {
+                data.put("id", target);
+            }
+            batch.create(db.collection(collection).document(target), data);
+            batch.delete(document.getReference(), Precondition.updatedAt(document.getUpdateTime()));
+            if (results) {
+                removed.add(toResult(document));
+                Result moved = toResult(document);
+                moved.setId(target);
+                added.add(moved);
+            }
+        }
+        if (results) {
+            applyProjections(db, batch, removed, false);
+            applyProjections(db, batch, added, true);
+        }
+        return call(collection, "migrate", batch::commit, List::size).thenCompose(writeResults -> {
+            // A batch commits atomically, so every write has the same commit time
+            referenceDataCache.written(collection, writeResults.get(0).getUpdateTime());
+            report.setMigrated(report.getMigrated() + chunk.size());
+            logger.info("Migrating {} to natural IDs: {} documents moved", collection, report.getMigrated());
+            return moveToNaturalIdsAsync(db, report, moves, from + chunk.size());
+        });
+    }
+
+    /**
+     * Moves the read-model documents of a collection (CourseStats, Transcripts) from their earlier
+     * URL-encoded IDs to the escaped IDs of ResultProjection.documentId, one page at a time (see
+     * legacyReadModelKey for how a legacy document is recognised). Since results written after the switch
+     * update the new document, a legacy document is not copied: the new one is rebuilt from the results
+     * whose filterField equals its key, and the legacy one is deleted after that.
+     *
+     * @param document The read-model document for a natural key
+     */
+    private CompletableFuture<Void> migrateReadModelAsync(Firestore db, IdMigrationReport report, String filterField,
+                                                         ResultProjection projection, Function<String, DocumentReference> document,
+                                                         DocumentSnapshot startAfter) {
+        String collection = report.getCollection();
+        Query page = db.collection(collection).orderBy(FieldPath.documentId()).limit(MIGRATION_PAGE_SIZE);
+        if (startAfter != null) {
+            page = page.startAfter(startAfter);
+        }
+        return call(collection, "query", page::get, QuerySnapshot::size).thenCompose(snapshot -> {
+            CompletableFuture<Void> moved = CompletableFuture.completedFuture(null);
+            for (QueryDocumentSnapshot legacy : snapshot.getDocuments()) {
+                report.setScanned(report.getScanned() + 1);
+                String naturalKey;
+                try {
+                    naturalKey = legacyReadModelKey(legacy, filterField);
+                } catch (IllegalArgumentException e) {
+                    report.setSkipped(report.getSkipped() + 1);
+                    continue;
+                }
+                if (naturalKey == null) {
+                    report.setAlreadyMigrated(report.getAlreadyMigrated() + 1);
+                    continue;
+                }
+                if (report.isDryRun()) {
+                    report.setMigrated(report.getMigrated() + 1);
+                    continue;
+                }
+                moved = moved
+                        .thenCompose(ignored -> rebuildReadModelAsync(db, filterField, naturalKey, projection, document.apply(naturalKey)))
+                        .thenCompose(ignored -> call(collection, "migrate",
+                                () -> legacy.getReference().delete(Precondition.updatedAt(legacy.getUpdateTime())), writeResult -> 1))
+                        .thenRun(() -> report.setMigrated(report.getMigrated() + 1));
+            }
+            if (snapshot.size() < MIGRATION_PAGE_SIZE) {
+                return moved;
+            }
+            DocumentSnapshot last = snapshot.getDocuments().get(snapshot.size() - 1);
+            return moved.thenCompose(ignored -> migrateReadModelAsync(db, report, filterField, projection, document, last));
+        });
+    }
+
+    /**
+     * Whether a read-model document still has its earlier URL-encoded ID. Every such document stores
+     * its key in keyField, so the ID is compared with the one ResultProjection.documentId gives that key;
+     * the ID alone is ambiguous, as "a+b" is the URL encoding of "a b" and also the current ID of "a+b".
+     * Only for a document without the key field is the ID decoded, and only if it contains '%', which
+     * current IDs never do.
+     *
+     * @return The document's natural key if it is not at its current ID, or null if it is
+     * @throws IllegalArgumentException if that cannot be determined
+     */
+    static String legacyReadModelKey(DocumentSnapshot document, String keyField) {
+        String id = document.getId();
+        String naturalKey = document.getString(keyField);
+        if (naturalKey == null || naturalKey.isEmpty()) {
+            if (id.indexOf('%') < 0) {
+                throw new IllegalArgumentException("No " + keyField + " in " + id);
+            }
+            naturalKey = URLDecoder.decode(id, StandardCharsets.UTF_8);
+        }
+        return id.equals(ResultProjection.documentId(naturalKey)) ? null : naturalKey;
+    }
+
+    // --- Pagination ---
+
+    /**
+     * Reads one page of a collection using a limit + startAfter cursor, so each call
+     * reads at most 'limit' documents regardless of the collection size.
+     * The listing is ordered by document ID, or by 'orderBy' followed by document ID.
+     *
+     * @param limit Requested page size (null for the configured default, clamped to the configured maximum)
+     * @param pageToken Cursor from a previous page's nextPageToken (null for the first page)
+     * @param orderBy Optional field to order by; must be one of sortableFields
+     * @throws IllegalArgumentException (synchronously) if the limit, token or ordering field is invalid
+     */
+    private <T> CompletableFuture<Page<T>> getPageAsync(String collection, Set<String> sortableFields, Integer limit,
+                                                        String pageToken, String orderBy, Function<DocumentSnapshot, T> mapper) {
+        return getPageAsync(collection, null, null, sortableFields, limit, pageToken, orderBy, null, mapper);
+    }
+
+    /**
+     * Same as the unfiltered variant, restricted to documents whose filterField equals filterValue.
+     * Ordering by a field other than the document ID needs a composite index on
+     * (filterField, orderBy); those are declared in firestore.indexes.json.
+     *
+     * @param select Fields to fetch (a Firestore projection), or null for whole documents;
+     *               the ordering field is always fetched as the next page's cursor needs it
+     */
+    private <T> CompletableFuture<Page<T>> getPageAsync(String collection, String filterField, Object filterValue,
+                                                        Set<String> sortableFields, Integer limit, String pageToken,
+                                                        String orderBy, List<String> select,
+                                                        Function<DocumentSnapshot, T> mapper) {
+        return getPageAsync(collection, filterField == null ? Map.of() : Map.of(filterField, filterValue),
+                sortableFields, limit, pageToken, orderBy, select, mapper);
+    }
+
+    /**
+     * Same as the single-filter variant, restricted to documents matching every filter: a field
+     * equal to the value, or, for a collection value, equal to one of its (at most 30) elements.
+     */
+    private <T> CompletableFuture<Page<T>> getPageAsync(String collection, Map<String, Object> filters,
+                                                        Set<String> sortableFields, Integer limit, String pageToken,
+                                                        String orderBy, List<String> select,
+                                                        Function<DocumentSnapshot, T> mapper) {
+        int requested = limit == null ? defaultPageLimit : limit;
+        if (requested <= 0) {
+            throw new IllegalArgumentException("limit must be a positive number.");
+        }
+        int pageSize = Math.min(requested, maxPageLimit);
+
+        PageToken cursor = pageToken == null || pageToken.isEmpty() ? null : PageToken.decode(pageToken);
+        String sortField = orderBy == null || orderBy.isEmpty() ? PageToken.DOCUMENT_ID : orderBy;
+        if (!PageToken.DOCUMENT_ID.equals(sortField)
+                && (!sortableFields.contains(sortField) || filters.containsKey(sortField))) {
+            throw new IllegalArgumentException("Cannot order by '" + orderBy + "'. Allowed: " + sortableFields);
+        }
+        if (cursor != null && !cursor.getOrderBy().equals(sortField)) {
+            throw new IllegalArgumentException("pageToken was issued for a different orderBy.");
+        }
+
+        Query query = getDb().collection(collection);
+        if (select != null) {
+            List<String> fetched = new ArrayList<>(List.of(storedFields(select)));
+            if (!PageToken.DOCUMENT_ID.equals(sortField) && !fetched.contains(sortField)) {
+                fetched.add(sortField);
+            }
+            query = query.select(fetched.toArray(new String[0]));
+        }
+        for (Map.Entry<String, Object> filter : filters.entrySet()) {
+            query = filter.getValue() instanceof Collection<?> values
+                    ? query.whereIn(filter.getKey(), List.copyOf(values))
+                    : query.whereEqualTo(filter.getKey(), filter.getValue());
+        }
+        if (!PageToken.DOCUMENT_ID.equals(sortField)) {
+            query = query.orderBy(sortField);
+        }
+        query = query.orderBy(FieldPath.documentId());
+        if (cursor != null) {
+            query = query.startAfter(cursor.cursorValues());
+        }
+        // Fetch one extra document to know whether another page exists
+        String operation = filters.isEmpty() ? "page" : "query";
+        return call(collection, operation, query.limit(pageSize + 1)::get, QuerySnapshot::size).thenApply(snapshot -> {
+            List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+            boolean hasMore = documents.size() > pageSize;
+            List<QueryDocumentSnapshot> pageDocuments = hasMore ? documents.subList(0, pageSize) : documents;
+            List<T> items = new ArrayList<>(pageDocuments.size());
+            for (DocumentSnapshot document : pageDocuments) {
+                T item = mapper.apply(document);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            String nextPageToken = hasMore
+                    ? PageToken.after(sortField, pageDocuments.get(pageDocuments.size() - 1)).encode()
+                    : null;
+            logger.debug("Read page of {} {} (more={})", items.size(), collection, hasMore);
+            return new Page<>(items, nextPageToken);
+        });
+    }
+
+    // --- Streaming ---
+
+    /**
+     * Streams every document of a collection through Firestore's server-streaming query API.
+     * Documents are handed from the gRPC callback thread to the calling thread through a bounded
+     * queue, so at most STREAM_BUFFER_SIZE documents are held in memory and a slow consumer
+     * throttles the RPC instead of growing the heap. Blocks until the stream completes or fails.
+     *
+     * The completion or error is kept outside the queue, so it is never lost to a full buffer.
+     * The callback thread waits at most STREAM_STALL_TIMEOUT_SECONDS for room; if the consumer stalls
+     * that long, stops early or the thread is interrupted, the next callback throws, which makes gRPC
+     * cancel the call (Query.stream in this client version exposes no stream controller), and the
+     * consumer sees the cancellation as an error rather than a short stream.
+     *
+     * @return The number of documents delivered to the sink
+     * @throws IOException if the sink fails (e.g. the client disconnected)
+     */
+    private <T> long streamCollection(String collection, Function<DocumentSnapshot, T> mapper, DocumentSink<T> sink)
+            throws IOException, ExecutionException, InterruptedException {
+        BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(STREAM_BUFFER_SIZE);
+        AtomicBoolean abandoned = new AtomicBoolean(false);
+        // STREAM_END or the stream's error, once the stream has terminated
+        AtomicReference<Object> terminal = new AtomicReference<>();
+
+        getDb().collection(collection).stream(new ApiStreamObserver<DocumentSnapshot>() {
+            @Override
+            public void onNext(DocumentSnapshot document) {
+                if (abandoned.get()) {
+                    throw new CancellationException("Stream of " + collection + " abandoned by its consumer");
+                }
+                try {
+                    // Wait for the consumer to make room, unless it gives up or stalls
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STREAM_STALL_TIMEOUT_SECONDS);
+                    while (!buffer.offer(document, 1, TimeUnit.SECONDS)) {
+                        if (abandoned.get() || System.nanoTime() > deadline) {
+                            abandoned.set(true);
+                            throw new CancellationException("Stream of " + collection + " abandoned by its consumer");
+                        }
+                        logger.trace("Stream buffer for {} full, waiting for consumer", collection);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    abandoned.set(true);
+                    throw new CancellationException("Stream of " + collection + " interrupted");
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                terminate(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                terminate(STREAM_END);
+            }
+
+            private void terminate(Object outcome) {
+                terminal.compareAndSet(null, outcome);
+                // Wakes a consumer waiting on an empty buffer; if the buffer is full it is not waiting
+                buffer.offer(STREAM_END);
+            }
+        });
+
+        long count = 0;
+        try {
+            while (true) {
+                Object next = buffer.poll(1, TimeUnit.SECONDS);
+                if (next == null || next == STREAM_END) {
+                    // Everything delivered before the stream terminated is in the buffer ahead of this check
+                    Object outcome = terminal.get();
+                    if (outcome == null || !buffer.isEmpty()) {
+                        continue;
+                    }
+                    if (outcome instanceof Throwable t) {
+                        throw new ExecutionException(t);
+                    }
+                    logger.debug("Streamed {} documents from {}", count, collection);
+                    return count;
+                }
+                T item = mapper.apply((DocumentSnapshot) next);
+                if (item != null) {
+                    sink.accept(item);
+                    count++;
+                }
+            }
+        } finally {
+            // Makes the callback thread cancel the stream if we stop early; remaining documents are dropped
+            abandoned.set(true);
+            buffer.clear();
+        }
+    }
+
+    static Student toStudent(DocumentSnapshot document) {
+        return DocumentCodecs.STUDENT.decode(document);
+    }
+
+    static Course toCourse(DocumentSnapshot document) {
+        return DocumentCodecs.COURSE.decode(document);
+    }
+
+    static Lecturer toLecturer(DocumentSnapshot document) {
+        return DocumentCodecs.LECTURER.decode(document);
+    }
+
+    static Result toResult(DocumentSnapshot document) {
+        return DocumentCodecs.RESULT.decode(document);
+    }
+
+    static Dispute toDispute(DocumentSnapshot document) {
+        return DocumentCodecs.DISPUTE.decode(document);
+    }
+
+    // --- Field Projection ---
+
+    /**
+     * Collection, sortable fields and selectable fields of a model. Selectable fields are the model's
+     * declared properties ('id' being the document ID), so they follow changes to the model classes.
+     */
+    private record CollectionSpec(String collection, Set<String> sortableFields, Set<String> fields) {
+
+        static CollectionSpec of(String collection, Set<String> sortableFields, Class<?> model) {
+            Set<String> fields = new LinkedHashSet<>();
+            for (Field field : model.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fields.add(field.getName());
+                }
+            }
+            return new CollectionSpec(collection, sortableFields, Collections.unmodifiableSet(fields));
+        }
+    }
+
+    private static CollectionSpec spec(Class<?> model) {
+        CollectionSpec spec = PROJECTABLE.get(model);
+        if (spec == null) {
+            throw new IllegalArgumentException("Field projection is not supported for " + model.getSimpleName());
+        }
+        return spec;
+    }
+
+    /**
+     * Parses a comma-separated 'fields' parameter, e.g. "rollNumber,courseCode,grade".
+     * @throws IllegalArgumentException if it names no field or a field the model does not have
+     */
+    private static List<String> parseFields(CollectionSpec spec, String fields) {
+        List<String> selected = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || selected.contains(name)) {
+                continue;
+            }
+            if (!spec.fields().contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Allowed: " + spec.fields());
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field.");
+        }
+        return selected;
+    }
+
+    /**
+     * @return The requested fields that are stored in the document ('id' is the document ID, not a field)
+     */
+    private static String[] storedFields(List<String> fields) {
+        return fields.stream().filter(field -> !"id".equals(field)).toArray(String[]::new);
+    }
+
+    private static Map<String, Object> project(DocumentSnapshot document, List<String> fields) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : fields) {
+            projected.put(field, "id".equals(field) ? document.getId() : document.get(field));
+        }
+        return projected;
+    }
+
+    private static Map<String, Object> project(Object model, List<String> fields) {
+        BeanWrapper bean = PropertyAccessorFactory.forBeanPropertyAccess(model);
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : fields) {
+            projected.put(field, bean.getPropertyValue(field));
+        }
+        return projected;
+    }
+
+    /**
+     * Reads every document of the model's collection, fetching only the requested fields
+     * (a Firestore select projection) and returning each document as a map of just those fields.
+     * Courses and lecturers are projected from the reference data cache when it is warm.
+     * @param fields Comma-separated field names
+     * @throws IllegalArgumentException (synchronously) if a field is unknown
+     */
+    public CompletableFuture<List<Map<String, Object>>> getAllProjectedAsync(Class<?> model, String fields) {
+        CollectionSpec spec = spec(model);
+        List<String> selected = parseFields(spec, fields);
+        List<?> cached = model == Course.class ? referenceDataCache.getCourses()
+                : model == Lecturer.class ? referenceDataCache.getLecturers() : null;
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.stream().map(item -> project(item, selected)).toList());
+        }
+        return getAllAsync(spec.collection(), selected, document -> project(document, selected));
+    }
+
+    public List<Map<String, Object>> getAllProjected(Class<?> model, String fields) throws ExecutionException, InterruptedException {
+        return getAllProjectedAsync(model, fields).get();
+    }
+
+    /**
+     * Reads one cursor page of the model's collection with only the requested fields.
+     * Same paging and ordering rules as the unprojected page methods.
+     * @param filterField Optional field to filter on (equality), null for the whole collection
+     * @param fields Comma-separated field names
+     * @throws IllegalArgumentException (synchronously) if a field, the limit, token or ordering is invalid
+     */
+    public CompletableFuture<Page<Map<String, Object>>> getPageProjectedAsync(Class<?> model, String filterField, Object filterValue,
+                                                                            Integer limit, String pageToken, String orderBy,
+                                                                            String fields) {
+        CollectionSpec spec = spec(model);
+        List<String> selected = parseFields(spec, fields);
+        if (filterField != null && !spec.fields().contains(filterField)) {
+            throw new IllegalArgumentException("Cannot filter by '" + filterField + "'.");
+        }
+        return getPageAsync(spec.collection(), filterField, filterValue, spec.sortableFields(), limit, pageToken,
+                orderBy, selected, document -> project(document, selected));
+    }
+
+    public Page<Map<String, Object>> getPageProjected(Class<?> model, String filterField, Object filterValue, Integer limit,
+                                                      String pageToken, String orderBy, String fields)
+            throws ExecutionException, InterruptedException {
+        return getPageProjectedAsync(model, filterField, filterValue, limit, pageToken, orderBy, fields).get();
+    }
+
+    /**
+     * Reads a single document with only the requested fields (a Firestore field mask).
+     * @return The projected document, or null if it does not exist
+     */
+    public CompletableFuture<Map<String, Object>> getProjectedAsync(Class<?> model, String id, String fields) {
+        CollectionSpec spec = spec(model);
+        List<String> selected = parseFields(spec, fields);
+        DocumentReference docRef = getDb().collection(spec.collection()).document(id);
+        return call(spec.collection(), "get", () -> docRef.get(FieldMask.of(storedFields(selected))), FirestoreService::found)
+                .thenApply(document -> document.exists() ? project(document, selected) : null);
+    }
+
+    public Map<String, Object> getProjected(Class<?> model, String id, String fields) throws ExecutionException, InterruptedException {
+        return getProjectedAsync(model, id, fields).get();
+    }
+
     // --- Student Methods ---
 
+    /**
+     * Adds the student under the ID derived from their roll number (see DocumentIds).
+     * Fails with DuplicateDocumentException if a student with that roll number exists.
+     * @throws IllegalArgumentException (synchronously) if the roll number is missing
+     */
+    public CompletableFuture<Student> addStudentAsync(Student student) {
+        DocumentReference docRef = getDb().collection(STUDENTS_COLLECTION).document(DocumentIds.student(student.getRollNumber()));
+        student.setId(docRef.getId());
+        return rejectDuplicate(addAsync(docRef, student, DocumentCodecs.STUDENT, "student"),
+                "A student with roll number " + student.getRollNumber() + " already exists.");
+    }
+
     public Student addStudent(Student student) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = getDb().collection(STUDENTS_COLLECTION).document();
-        student.setId(docRef.getId()); // Set the auto-generated ID
-        ApiFuture<WriteResult> future = docRef.set(student);
-        logger.info("Added student {} at {}", student.getId(), future.get().getUpdateTime());
-        return student;
+        return addStudentAsync(student).get();
+    }
+
+    public CompletableFuture<Student> getStudentAsync(String studentId) {
+        DocumentReference docRef = getDb().collection(STUDENTS_COLLECTION).document(studentId);
+        return call(STUDENTS_COLLECTION, "get", docRef::get, FirestoreService::found)
+            .thenApply(document -> document.exists() ? toStudent(document) : null); // Sets the ID after deserialization
     }
 
     public Student getStudent(String studentId) throws ExecutionException, InterruptedException {
+        return getStudentAsync(studentId).get();
+    }
+
+    /**
+     * Looks the student up by roll number with a single document read (see getByNaturalKeyAsync).
+     * @return The student, or null if there is none
+     */
+    public CompletableFuture<Student> getStudentByRollNumberAsync(String rollNumber) {
+        return getByNaturalKeyAsync(STUDENTS_COLLECTION, DocumentIds.student(rollNumber),
+                () -> getDb().collection(STUDENTS_COLLECTION).whereEqualTo("rollNumber", rollNumber),
+                FirestoreService::toStudent);
+    }
+
+    public Student getStudentByRollNumber(String rollNumber) throws ExecutionException, InterruptedException {
+        return getStudentByRollNumberAsync(rollNumber).get();
+    }
+
+    /**
+     * @return The student with the ETag of its document, or null if it does not exist
+     */
+    public CompletableFuture<Versioned<Student>> getVersionedStudentAsync(String studentId) {
         DocumentReference docRef = getDb().collection(STUDENTS_COLLECTION).document(studentId);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
-        DocumentSnapshot document = future.get();
-        if (document.exists()) {
-            Student student = document.toObject(Student.class);
-            if (student != null) { // Set the ID after deserialization
-                 student.setId(document.getId());
-            }
-            return student;
-        } else {
-            return null;
-        }
+        return call(STUDENTS_COLLECTION, "get", docRef::get, FirestoreService::found)
+            .thenApply(document -> document.exists()
+                ? new Versioned<>(toStudent(document), Versioned.eTag(List.of(document)))
+                : null);
     }
 
-     public List<Student> getAllStudents() throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = getDb().collection(STUDENTS_COLLECTION).get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-        List<Student> students = new ArrayList<>();
-        for (DocumentSnapshot document : documents) {
-             Student student = document.toObject(Student.class);
-             if (student != null) {
-                 student.setId(document.getId());
-                 students.add(student);
-             }
+    public Versioned<Student> getVersionedStudent(String studentId) throws ExecutionException, InterruptedException {
+        return getVersionedStudentAsync(studentId).get();
+    }
+
+    public CompletableFuture<List<Student>> getAllStudentsAsync() {
+        return getAllAsync(STUDENTS_COLLECTION, FirestoreService::toStudent);
+    }
+
+    public List<Student> getAllStudents() throws ExecutionException, InterruptedException {
+        return getAllStudentsAsync().get();
+    }
+
+    public CompletableFuture<Versioned<List<Student>>> getAllVersionedStudentsAsync() {
+        return getAllVersionedAsync(STUDENTS_COLLECTION, FirestoreService::toStudent);
+    }
+
+    public Versioned<List<Student>> getAllVersionedStudents() throws ExecutionException, InterruptedException {
+        return getAllVersionedStudentsAsync().get();
+    }
+
+    /**
+     * The ETag getAllVersionedStudentsAsync would return, from the version ReferenceDataCache tracks with
+     * a snapshot listener; lets a conditional GET be answered with 304 without any Firestore reads.
+     *
+     * @return The ETag, or null while it is not tracked (cache disabled, not warm yet, or re-subscribing)
+     */
+    public String getStudentsETag() {
+        return referenceDataCache.getStudentsETag();
+    }
+
+    public CompletableFuture<Page<Student>> getStudentsPageAsync(Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(STUDENTS_COLLECTION, STUDENT_SORT_FIELDS, limit, pageToken, orderBy, FirestoreService::toStudent);
+    }
+
+    public Page<Student> getStudentsPage(Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getStudentsPageAsync(limit, pageToken, orderBy).get();
+    }
+
+    /**
+     * Updates the given fields. A student's roll number is their document ID, so an update may repeat it
+     * but not change it (IllegalArgumentException); delete and re-add the student instead. Students that
+     * still have an auto-generated ID can change it until they are migrated.
+     */
+    public CompletableFuture<Void> updateStudentAsync(String studentId, Map<String, Object> updatedData) {
+        if (!updatedData.containsKey("rollNumber")
+                || (updatedData.get("rollNumber") instanceof String rollNumber && !rollNumber.isEmpty()
+                    && DocumentIds.student(rollNumber).equals(studentId))) {
+            return updateAsync(STUDENTS_COLLECTION, studentId, updatedData, "student");
         }
-        return students;
+        // Either a change of roll number or a student with an auto-generated ID; only the stored document tells
+        DocumentReference docRef = getDb().collection(STUDENTS_COLLECTION).document(studentId);
+        return call(STUDENTS_COLLECTION, "get", docRef::get, FirestoreService::found).thenCompose(document -> {
+            if (document.exists() && studentId.equals(naturalId(STUDENTS_COLLECTION, document))) {
+                throw new IllegalArgumentException("The roll number of a student cannot be changed.");
+            }
+            return updateAsync(STUDENTS_COLLECTION, studentId, updatedData, "student");
+        });
+    }
+
+    public void updateStudent(String studentId, Map<String, Object> updatedData) throws ExecutionException, InterruptedException {
+        updateStudentAsync(studentId, updatedData).get();
+    }
+
+    public CompletableFuture<Void> deleteStudentAsync(String studentId) {
+        return deleteAsync(STUDENTS_COLLECTION, studentId, "student");
     }
 
-     public void updateStudent(String studentId, Map<String, Object> updatedData) throws ExecutionException, InterruptedException {
-         // Remove 'id' field from update map if present, as it should not be changed
-         updatedData.remove("id");
-         DocumentReference docRef = getDb().collection(STUDENTS_COLLECTION).document(studentId);
-         ApiFuture<WriteResult> future = docRef.update(updatedData);
-         logger.info("Updated student {} at {}", studentId, future.get().getUpdateTime());
-     }
+    public void deleteStudent(String studentId) throws ExecutionException, InterruptedException {
+        deleteStudentAsync(studentId).get();
+    }
+
+    /**
+     * Deletes the student together with their results and disputes (matched by roll number).
+     * See deleteCascadeAsync for the batching and consistency rules.
+     * @param dryRun Only count the results and disputes that would be deleted
+     * @param progress Receives a report after the counts and after every committed batch
+     * @return The final report, or null if the student does not exist
+     */
+    public CompletableFuture<CascadeDeleteReport> deleteStudentCascadeAsync(String studentId, boolean dryRun,
+                                                                            Consumer<CascadeDeleteReport> progress) {
+        return deleteCascadeAsync(STUDENTS_COLLECTION, studentId, "rollNumber", dryRun, progress);
+    }
 
-     public void deleteStudent(String studentId) throws ExecutionException, InterruptedException {
-         ApiFuture<WriteResult> future = getDb().collection(STUDENTS_COLLECTION).document(studentId).delete();
-         logger.info("Deleted student {} at {}", studentId, future.get().getUpdateTime());
-     }
+    public CascadeDeleteReport deleteStudentCascade(String studentId, boolean dryRun) throws ExecutionException, InterruptedException {
+        return deleteStudentCascadeAsync(studentId, dryRun, report -> { }).get();
+    }
 
 
     // --- Course Methods ---
 
-    public Course addCourse(Course course) throws ExecutionException, InterruptedException {
+    public CompletableFuture<Course> addCourseAsync(Course course) {
         DocumentReference docRef = getDb().collection(COURSES_COLLECTION).document();
         course.setId(docRef.getId());
-        ApiFuture<WriteResult> future = docRef.set(course);
-        logger.info("Added course {} at {}", course.getId(), future.get().getUpdateTime());
-        return course;
+        return addAsync(docRef, course, DocumentCodecs.COURSE, "course");
+    }
+
+    public Course addCourse(Course course) throws ExecutionException, InterruptedException {
+        return addCourseAsync(course).get();
+    }
+
+    /**
+     * Served from the listener-backed ReferenceDataCache when it is warm (no Firestore reads),
+     * otherwise read directly from Firestore.
+     */
+    public CompletableFuture<List<Course>> getAllCoursesAsync() {
+        List<Course> cached = referenceDataCache.getCourses();
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return getAllAsync(COURSES_COLLECTION, FirestoreService::toCourse);
     }
 
     public List<Course> getAllCourses() throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = getDb().collection(COURSES_COLLECTION).get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-        List<Course> courses = new ArrayList<>();
-        for (DocumentSnapshot document : documents) {
-            Course course = document.toObject(Course.class);
-             if (course != null) {
-                 course.setId(document.getId());
-                 courses.add(course);
-             }
+        return getAllCoursesAsync().get();
+    }
+
+    /**
+     * Same as getAllCoursesAsync, with an ETag; when the cache is warm both come from memory.
+     */
+    public CompletableFuture<Versioned<List<Course>>> getAllVersionedCoursesAsync() {
+        Versioned<List<Course>> cached = referenceDataCache.getVersionedCourses();
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
-        return courses;
+        return getAllVersionedAsync(COURSES_COLLECTION, FirestoreService::toCourse);
+    }
+
+    public Versioned<List<Course>> getAllVersionedCourses() throws ExecutionException, InterruptedException {
+        return getAllVersionedCoursesAsync().get();
+    }
+
+    public CompletableFuture<Page<Course>> getCoursesPageAsync(Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(COURSES_COLLECTION, COURSE_SORT_FIELDS, limit, pageToken, orderBy, FirestoreService::toCourse);
     }
 
-     public void updateCourse(String courseId, Map<String, Object> updatedData) throws ExecutionException, InterruptedException {
-         updatedData.remove("id");
-         DocumentReference docRef = getDb().collection(COURSES_COLLECTION).document(courseId);
-         ApiFuture<WriteResult> future = docRef.update(updatedData);
-         logger.info("Updated course {} at {}", courseId, future.get().getUpdateTime());
-     }
+    public Page<Course> getCoursesPage(Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getCoursesPageAsync(limit, pageToken, orderBy).get();
+    }
+
+    public CompletableFuture<Void> updateCourseAsync(String courseId, Map<String, Object> updatedData) {
+        return updateAsync(COURSES_COLLECTION, courseId, updatedData, "course");
+    }
+
+    public void updateCourse(String courseId, Map<String, Object> updatedData) throws ExecutionException, InterruptedException {
+        updateCourseAsync(courseId, updatedData).get();
+    }
+
+    public CompletableFuture<Void> deleteCourseAsync(String courseId) {
+        return deleteAsync(COURSES_COLLECTION, courseId, "course");
+    }
+
+    public void deleteCourse(String courseId) throws ExecutionException, InterruptedException {
+        deleteCourseAsync(courseId).get();
+    }
 
-     public void deleteCourse(String courseId) throws ExecutionException, InterruptedException {
-         ApiFuture<WriteResult> future = getDb().collection(COURSES_COLLECTION).document(courseId).delete();
-         logger.info("Deleted course {} at {}", courseId, future.get().getUpdateTime());
-     }
+    /**
+     * Deletes the course together with its results and disputes (matched by course code).
+     * See deleteCascadeAsync for the batching and consistency rules.
+     * @param dryRun Only count the results and disputes that would be deleted
+     * @param progress Receives a report after the counts and after every committed batch
+     * @return The final report, or null if the course does not exist
+     */
+    public CompletableFuture<CascadeDeleteReport> deleteCourseCascadeAsync(String courseId, boolean dryRun,
+                                                                           Consumer<CascadeDeleteReport> progress) {
+        return deleteCascadeAsync(COURSES_COLLECTION, courseId, "courseCode", dryRun, progress);
+    }
+
+    public CascadeDeleteReport deleteCourseCascade(String courseId, boolean dryRun) throws ExecutionException, InterruptedException {
+        return deleteCourseCascadeAsync(courseId, dryRun, report -> { }).get();
+    }
 
     // --- Lecturer Methods ---
 
-     public Lecturer addLecturer(Lecturer lecturer) throws ExecutionException, InterruptedException {
+    public CompletableFuture<Lecturer> addLecturerAsync(Lecturer lecturer) {
         DocumentReference docRef = getDb().collection(LECTURERS_COLLECTION).document();
         lecturer.setId(docRef.getId());
-        ApiFuture<WriteResult> future = docRef.set(lecturer);
-        logger.info("Added lecturer {} at {}", lecturer.getId(), future.get().getUpdateTime());
-        return lecturer;
+        return addAsync(docRef, lecturer, DocumentCodecs.LECTURER, "lecturer");
+    }
+
+    public Lecturer addLecturer(Lecturer lecturer) throws ExecutionException, InterruptedException {
+        return addLecturerAsync(lecturer).get();
+    }
+
+    /**
+     * Served from the listener-backed ReferenceDataCache when it is warm (no Firestore reads),
+     * otherwise read directly from Firestore.
+     */
+    public CompletableFuture<List<Lecturer>> getAllLecturersAsync() {
+        List<Lecturer> cached = referenceDataCache.getLecturers();
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return getAllAsync(LECTURERS_COLLECTION, FirestoreService::toLecturer);
     }
 
     public List<Lecturer> getAllLecturers() throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = getDb().collection(LECTURERS_COLLECTION).get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-        List<Lecturer> lecturers = new ArrayList<>();
-        for (DocumentSnapshot document : documents) {
-             Lecturer lecturer = document.toObject(Lecturer.class);
-             if (lecturer != null) {
-                 lecturer.setId(document.getId());
-                 lecturers.add(lecturer);
-             }
+        return getAllLecturersAsync().get();
+    }
+
+    /**
+     * Same as getAllLecturersAsync, with an ETag; when the cache is warm both come from memory.
+     */
+    public CompletableFuture<Versioned<List<Lecturer>>> getAllVersionedLecturersAsync() {
+        Versioned<List<Lecturer>> cached = referenceDataCache.getVersionedLecturers();
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
-        return lecturers;
+        return getAllVersionedAsync(LECTURERS_COLLECTION, FirestoreService::toLecturer);
+    }
+
+    public Versioned<List<Lecturer>> getAllVersionedLecturers() throws ExecutionException, InterruptedException {
+        return getAllVersionedLecturersAsync().get();
     }
 
-     public void deleteLecturer(String lecturerId) throws ExecutionException, InterruptedException {
-         ApiFuture<WriteResult> future = getDb().collection(LECTURERS_COLLECTION).document(lecturerId).delete();
-         logger.info("Deleted lecturer {} at {}", lecturerId, future.get().getUpdateTime());
-     }
+    public CompletableFuture<Page<Lecturer>> getLecturersPageAsync(Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(LECTURERS_COLLECTION, LECTURER_SORT_FIELDS, limit, pageToken, orderBy, FirestoreService::toLecturer);
+    }
+
+    public Page<Lecturer> getLecturersPage(Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getLecturersPageAsync(limit, pageToken, orderBy).get();
+    }
+
+    public CompletableFuture<Void> deleteLecturerAsync(String lecturerId) {
+        return deleteAsync(LECTURERS_COLLECTION, lecturerId, "lecturer");
+    }
+
+    public void deleteLecturer(String lecturerId) throws ExecutionException, InterruptedException {
+        deleteLecturerAsync(lecturerId).get();
+    }
      // Add updateLecturer if needed
 
     // --- Result Methods ---
-      public Result addResult(Result result) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = getDb().collection(RESULTS_COLLECTION).document();
+
+    /**
+     * Adds the result under the ID derived from its roll number and course code (see DocumentIds) and
+     * updates every read model derived from results (see ResultProjection) in one atomic batch.
+     * The result is created, not overwritten: if the student already has a result for the course the
+     * whole batch fails with DuplicateDocumentException, so the read models are not touched either.
+     * @throws IllegalArgumentException (synchronously) if the roll number or course code is missing
+     */
+    public CompletableFuture<Result> addResultAsync(Result result) {
+        Firestore db = getDb();
+        DocumentReference docRef = db.collection(RESULTS_COLLECTION)
+                .document(DocumentIds.result(result.getRollNumber(), result.getCourseCode()));
         result.setId(docRef.getId());
-        ApiFuture<WriteResult> future = docRef.set(result);
-        logger.info("Added result {} at {}", result.getId(), future.get().getUpdateTime());
-        return result;
+        WriteBatch batch = db.batch();
+        batch.create(docRef, DocumentCodecs.RESULT.encode(result));
+        applyProjections(db, batch, List.of(result), true);
+        return rejectDuplicate(call(RESULTS_COLLECTION, "add", batch::commit, List::size), duplicateResult(result))
+                .thenApply(writeResults -> {
+                    logger.info("Added result {} at {}", docRef.getId(), writeResults.get(0).getUpdateTime());
+                    return result;
+                });
+    }
+
+    /**
+     * Adds a group of results, with their combined read-model updates, in one atomic batch: the group
+     * commit behind ResultWriteBuffer. Read-model documents shared by several results in the group are
+     * written once. Like addResultAsync the results are created, not overwritten, so the whole batch
+     * fails with DuplicateDocumentException if any of them already exists.
+     * @throws IllegalArgumentException (synchronously) if a roll number or course code is missing
+     */
+    CompletableFuture<List<Result>> addResultGroupAsync(List<Result> results) {
+        Firestore db = getDb();
+        WriteBatch batch = db.batch();
+        for (Result result : results) {
+            DocumentReference docRef = db.collection(RESULTS_COLLECTION)
+                    .document(DocumentIds.result(result.getRollNumber(), result.getCourseCode()));
+            result.setId(docRef.getId());
+            batch.create(docRef, DocumentCodecs.RESULT.encode(result));
+        }
+        applyProjections(db, batch, results, true);
+        String duplicate = results.size() == 1 ? duplicateResult(results.get(0))
+                : "One of the " + results.size() + " results in the group already exists.";
+        return rejectDuplicate(call(RESULTS_COLLECTION, "groupAdd", batch::commit, List::size), duplicate)
+                .thenApply(writeResults -> {
+                    logger.debug("Added {} results in one batch at {}", results.size(), writeResults.get(0).getUpdateTime());
+                    return results;
+                });
+    }
+
+    /**
+     * @return The most results addResultGroupAsync can commit in one batch, counting the read-model
+     *         document each projection may write per result
+     */
+    int maxResultsPerBatch() {
+        return MAX_BATCH_WRITES / (1 + resultProjections.size());
+    }
+
+    private static String duplicateResult(Result result) {
+        return "Student " + result.getRollNumber() + " already has a result for course " + result.getCourseCode() + ".";
+    }
+
+    public Result addResult(Result result) throws ExecutionException, InterruptedException {
+        return addResultAsync(result).get();
+    }
+
+    /**
+     * Looks up a student's result for a course with a single document read (see getByNaturalKeyAsync).
+     * @return The result, or null if there is none
+     */
+    public CompletableFuture<Result> getResultAsync(String rollNumber, String courseCode) {
+        return getByNaturalKeyAsync(RESULTS_COLLECTION, DocumentIds.result(rollNumber, courseCode),
+                () -> getDb().collection(RESULTS_COLLECTION)
+                        .whereEqualTo("rollNumber", rollNumber)
+                        .whereEqualTo("courseCode", courseCode),
+                FirestoreService::toResult);
+    }
+
+    public Result getResult(String rollNumber, String courseCode) throws ExecutionException, InterruptedException {
+        return getResultAsync(rollNumber, courseCode).get();
+    }
+
+    /**
+     * Adds many results through a BulkWriter, which groups the writes into batches, sends the
+     * batches in parallel and retries transient failures, instead of one blocking RPC per result.
+     * Returns one future per input result, in input order, so callers can report each row's outcome;
+     * there is no blocking twin because a single failed row must not fail the whole import.
+     * Results are created under their natural-key IDs like addResultAsync; a row whose student already
+     * has a result for the course (also from an earlier row of the same call) fails with DuplicateDocumentException.
+     */
+    public List<CompletableFuture<Result>> addResultsBulkAsync(List<Result> results) {
+        Timer.Sample sample = metrics.start();
+        Firestore db = getDb();
+        BulkWriter bulkWriter = db.bulkWriter(BulkWriterOptions.builder()
+                .setInitialOpsPerSecond(bulkInitialOpsPerSecond)
+                .build());
+        List<CompletableFuture<Result>> writes = new ArrayList<>(results.size());
+        for (Result result : results) {
+            DocumentReference docRef = db.collection(RESULTS_COLLECTION)
+                    .document(DocumentIds.result(result.getRollNumber(), result.getCourseCode()));
+            result.setId(docRef.getId());
+            CompletableFuture<WriteResult> write = toCompletable(bulkWriter.create(docRef, DocumentCodecs.RESULT.encode(result)));
+            writes.add(rejectDuplicate(write, duplicateResult(result)).thenApply(writeResult -> result));
+        }
+
+        // Once every row has settled, fold the written rows into the read models: one merged
+        // update per affected document instead of one per row, which would contend on hot documents
+        CompletableFuture<Void> projected = CompletableFuture
+                .allOf(writes.stream().map(write -> write.handle((written, e) -> null)).toArray(CompletableFuture[]::new))
+                .thenCompose(ignored -> {
+                    List<Result> written = writes.stream()
+                            .filter(write -> !write.isCompletedExceptionally())
+                            .map(CompletableFuture::join)
+                            .toList();
+                    List<CompletableFuture<WriteResult>> projectionWrites = new ArrayList<>();
+                    for (ResultProjection projection : resultProjections) {
+                        projection.changes(db, written, true).forEach((docRef, payload) ->
+                                projectionWrites.add(toCompletable(bulkWriter.set(docRef, payload, SetOptions.merge()))));
+                    }
+                    bulkWriter.flush();
+                    return CompletableFuture.allOf(projectionWrites.toArray(new CompletableFuture<?>[0]));
+                })
+                // Async: this stage completes on the BulkWriter's callback thread, and close() waits for
+                // callbacks on that same thread, so closing there would deadlock
+                .whenCompleteAsync((ignored, e) -> {
+                    long written = writes.stream().filter(write -> !write.isCompletedExceptionally()).count();
+                    metrics.stop(sample, RESULTS_COLLECTION, "bulkAdd", written, e);
+                    if (e != null) {
+                        logger.error("Bulk write succeeded but updating read models failed; rebuild them: {}",
+                                unwrap(e).getMessage(), unwrap(e));
+                    }
+                    try {
+                        bulkWriter.close();
+                    } catch (Exception closeError) {
+                        logger.warn("Error closing bulk writer: {}", closeError.getMessage());
+                    }
+                });
+        bulkWriter.flush();
+        logger.info("Queued {} results for bulk write", results.size());
+        // A row reports its outcome only after the read models reflect it
+        return writes.stream()
+                .map(write -> write.thenCompose(result -> projected.handle((ignored, e) -> result)))
+                .toList();
+    }
+
+    public CompletableFuture<List<Result>> getAllResultsAsync() {
+        return getAllAsync(RESULTS_COLLECTION, FirestoreService::toResult);
     }
 
     public List<Result> getAllResults() throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = getDb().collection(RESULTS_COLLECTION).get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-        List<Result> results = new ArrayList<>();
-        for (DocumentSnapshot document : documents) {
-            Result result = document.toObject(Result.class);
-             if (result != null) {
-                 result.setId(document.getId());
-                 results.add(result);
-             }
+        return getAllResultsAsync().get();
+    }
+
+    /**
+     * Streams the whole Results collection to the sink without materialising it as a list.
+     * Blocking by nature; callers run it on the response-writing thread.
+     * @return The number of results written
+     */
+    public long streamAllResults(DocumentSink<Result> sink) throws IOException, ExecutionException, InterruptedException {
+        Timer.Sample sample = metrics.start();
+        try {
+            long count = streamCollection(RESULTS_COLLECTION, FirestoreService::toResult, sink);
+            metrics.stop(sample, RESULTS_COLLECTION, "stream", count, null);
+            return count;
+        } catch (IOException | ExecutionException | InterruptedException | RuntimeException e) {
+            metrics.stop(sample, RESULTS_COLLECTION, "stream", 0, e);
+            throw e;
         }
-        return results;
     }
 
-     public void deleteResult(String resultId) throws ExecutionException, InterruptedException {
-         ApiFuture<WriteResult> future = getDb().collection(RESULTS_COLLECTION).document(resultId).delete();
-         logger.info("Deleted result {} at {}", resultId, future.get().getUpdateTime());
-     }
+    public CompletableFuture<Page<Result>> getResultsPageAsync(Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(RESULTS_COLLECTION, RESULT_SORT_FIELDS, limit, pageToken, orderBy, FirestoreService::toResult);
+    }
+
+    public Page<Result> getResultsPage(Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getResultsPageAsync(limit, pageToken, orderBy).get();
+    }
+
+    public CompletableFuture<Page<Result>> getResultsByStudentAsync(String rollNumber, Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(RESULTS_COLLECTION, "rollNumber", rollNumber, RESULT_SORT_FIELDS, limit, pageToken, orderBy, null, FirestoreService::toResult);
+    }
+
+    public Page<Result> getResultsByStudent(String rollNumber, Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getResultsByStudentAsync(rollNumber, limit, pageToken, orderBy).get();
+    }
+
+    public CompletableFuture<Page<Result>> getResultsByCourseAsync(String courseCode, Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(RESULTS_COLLECTION, "courseCode", courseCode, RESULT_SORT_FIELDS, limit, pageToken, orderBy, null, FirestoreService::toResult);
+    }
+
+    public Page<Result> getResultsByCourse(String courseCode, Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getResultsByCourseAsync(courseCode, limit, pageToken, orderBy).get();
+    }
+
+    /**
+     * Deletes the result and reverses its contribution to every read model in one transaction.
+     * The result is read inside the transaction, so concurrent deletes of the same result cannot
+     * subtract it twice. Deleting a result that does not exist is a no-op.
+     */
+    public CompletableFuture<Void> deleteResultAsync(String resultId) {
+        Firestore db = getDb();
+        DocumentReference docRef = db.collection(RESULTS_COLLECTION).document(resultId);
+        return call(RESULTS_COLLECTION, "delete", () -> db.runTransaction(transaction -> {
+            Result result = toResult(transaction.get(docRef).get());
+            if (result != null) {
+                transaction.delete(docRef);
+                applyProjections(db, transaction, List.of(result), false);
+            }
+            return result != null;
+        }), deleted -> deleted ? 1 : 0).thenAccept(deleted -> logger.info("Deleted result {} (existed={})", resultId, deleted));
+    }
+
+    public void deleteResult(String resultId) throws ExecutionException, InterruptedException {
+        deleteResultAsync(resultId).get();
+    }
       // Add updateResult if needed
 
+    // --- Course Statistics ---
+
+    /**
+     * Reads the statistics of a course from its aggregate document (a single document read).
+     * A course without results yields statistics with a count of zero.
+     */
+    public CompletableFuture<CourseStats> getCourseStatsAsync(String courseCode) {
+        return call(CourseStatsProjection.STATS_COLLECTION, "get",
+                        () -> courseStatsProjection.statsDocument(getDb(), courseCode).get(), FirestoreService::found)
+                .thenApply(document -> courseStatsProjection.summarize(courseCode, document));
+    }
+
+    public CourseStats getCourseStats(String courseCode) throws ExecutionException, InterruptedException {
+        return getCourseStatsAsync(courseCode).get();
+    }
+
+    /**
+     * Recomputes a course's aggregate document from its results, replacing the stored one.
+     * Needed once for results written before statistics were maintained, or if the aggregate
+     * was lost; results added while the rebuild runs may need another rebuild.
+     */
+    public CompletableFuture<CourseStats> rebuildCourseStatsAsync(String courseCode) {
+        Firestore db = getDb();
+        return rebuildReadModelAsync(db, "courseCode", courseCode, courseStatsProjection,
+                courseStatsProjection.statsDocument(db, courseCode))
+                .thenCompose(ignored -> getCourseStatsAsync(courseCode));
+    }
+
+    public CourseStats rebuildCourseStats(String courseCode) throws ExecutionException, InterruptedException {
+        return rebuildCourseStatsAsync(courseCode).get();
+    }
+
+    // --- Transcripts ---
+
+    /**
+     * Reads a student's transcript from their transcript document (a single document read).
+     * A student without results yields an empty transcript.
+     */
+    public CompletableFuture<Transcript> getTranscriptAsync(String rollNumber) {
+        return call(TranscriptProjection.TRANSCRIPTS_COLLECTION, "get",
+                        () -> transcriptProjection.transcriptDocument(getDb(), rollNumber).get(), FirestoreService::found)
+                .thenApply(document -> transcriptProjection.summarize(rollNumber, document));
+    }
+
+    public Transcript getTranscript(String rollNumber) throws ExecutionException, InterruptedException {
+        return getTranscriptAsync(rollNumber).get();
+    }
+
+    /**
+     * Recomputes a student's transcript document from their results, replacing the stored one.
+     * Needed once for results written before transcripts were maintained.
+     */
+    public CompletableFuture<Transcript> rebuildTranscriptAsync(String rollNumber) {
+        Firestore db = getDb();
+        return rebuildReadModelAsync(db, "rollNumber", rollNumber, transcriptProjection,
+                transcriptProjection.transcriptDocument(db, rollNumber))
+                .thenCompose(ignored -> getTranscriptAsync(rollNumber));
+    }
+
+    public Transcript rebuildTranscript(String rollNumber) throws ExecutionException, InterruptedException {
+        return rebuildTranscriptAsync(rollNumber).get();
+    }
+
 
     // --- Dispute Methods ---
-      public Dispute addDispute(Dispute dispute) throws ExecutionException, InterruptedException {
+
+    public CompletableFuture<Dispute> addDisputeAsync(Dispute dispute) {
         DocumentReference docRef = getDb().collection(DISPUTES_COLLECTION).document();
         dispute.setId(docRef.getId());
-        ApiFuture<WriteResult> future = docRef.set(dispute);
-        logger.info("Added dispute {} at {}", dispute.getId(), future.get().getUpdateTime());
-        return dispute;
+        return addAsync(docRef, dispute, DocumentCodecs.DISPUTE, "dispute");
+    }
+
+    public Dispute addDispute(Dispute dispute) throws ExecutionException, InterruptedException {
+        return addDisputeAsync(dispute).get();
+    }
+
+    public CompletableFuture<List<Dispute>> getAllDisputesAsync() {
+        return getAllAsync(DISPUTES_COLLECTION, FirestoreService::toDispute);
     }
 
     public List<Dispute> getAllDisputes() throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = getDb().collection(DISPUTES_COLLECTION).get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-        List<Dispute> disputes = new ArrayList<>();
-        for (DocumentSnapshot document : documents) {
-            Dispute dispute = document.toObject(Dispute.class);
-             if (dispute != null) {
-                 dispute.setId(document.getId());
-                 disputes.add(dispute);
-             }
+        return getAllDisputesAsync().get();
+    }
+
+    public CompletableFuture<Page<Dispute>> getDisputesPageAsync(Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(DISPUTES_COLLECTION, DISPUTE_SORT_FIELDS, limit, pageToken, orderBy, FirestoreService::toDispute);
+    }
+
+    public Page<Dispute> getDisputesPage(Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getDisputesPageAsync(limit, pageToken, orderBy).get();
+    }
+
+    public CompletableFuture<Page<Dispute>> getDisputesByStudentAsync(String rollNumber, Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(DISPUTES_COLLECTION, "rollNumber", rollNumber, DISPUTE_SORT_FIELDS, limit, pageToken, orderBy, null, FirestoreService::toDispute);
+    }
+
+    public Page<Dispute> getDisputesByStudent(String rollNumber, Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getDisputesByStudentAsync(rollNumber, limit, pageToken, orderBy).get();
+    }
+
+    public CompletableFuture<Page<Dispute>> getDisputesByCourseAsync(String courseCode, Integer limit, String pageToken, String orderBy) {
+        return getPageAsync(DISPUTES_COLLECTION, "courseCode", courseCode, DISPUTE_SORT_FIELDS, limit, pageToken, orderBy, null, FirestoreService::toDispute);
+    }
+
+    public Page<Dispute> getDisputesByCourse(String courseCode, Integer limit, String pageToken, String orderBy) throws ExecutionException, InterruptedException {
+        return getDisputesByCourseAsync(courseCode, limit, pageToken, orderBy).get();
+    }
+
+    /**
+     * Moves a dispute to its next status (see DisputeWorkflow) in one transaction. The dispute is read
+     * inside the transaction, so of two lecturers acting on the same dispute only one transition
+     * applies; the other fails with InvalidTransitionException once its retry sees the new status.
+     * When a dispute is resolved with corrected marks or grade, the student's result for the course
+     * is rewritten, and its read models updated, in the same transaction.
+     * @return The updated dispute, or null if it does not exist
+     * @throws IllegalArgumentException (synchronously) if the transition request is malformed
+     */
+    public CompletableFuture<Dispute> transitionDisputeAsync(String disputeId, DisputeTransition transition) {
+        String error = DisputeWorkflow.validationError(transition);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        Firestore db = getDb();
+        DocumentReference docRef = db.collection(DISPUTES_COLLECTION).document(disputeId);
+        return call(DISPUTES_COLLECTION, "transition", () -> db.runTransaction(transaction -> {
+            Dispute dispute = toDispute(transaction.get(docRef).get());
+            if (dispute == null) {
+                return null;
+            }
+            if (!DisputeWorkflow.canTransition(dispute.getStatus(), transition.getStatus())) {
+                throw new InvalidTransitionException("Dispute " + disputeId + " is '" + dispute.getStatus()
+                        + "' and cannot move to '" + transition.getStatus() + "'.");
+            }
+            if (transition.getMarks() != null || transition.getGrade() != null) {
+                correctDisputedResult(db, transaction, dispute, transition);
+            }
+            dispute.setStatus(transition.getStatus());
+            if (transition.getResolution() != null) {
+                dispute.setResolution(transition.getResolution());
+            }
+            transaction.set(docRef, DocumentCodecs.DISPUTE.encode(dispute));
+            return dispute;
+        }), dispute -> dispute == null ? 0 : 1).thenApply(dispute -> {
+            if (dispute != null) {
+                logger.info("Moved dispute {} to '{}' (marks {} -> {})", disputeId, dispute.getStatus(),
+                        dispute.getPreviousMarks(), dispute.getRevisedMarks());
+            }
+            return dispute;
+        });
+    }
+
+    public Dispute transitionDispute(String disputeId, DisputeTransition transition) throws ExecutionException, InterruptedException {
+        return transitionDisputeAsync(disputeId, transition).get();
+    }
+
+    /**
+     * Rewrites the disputed result with the corrected marks and grade inside the dispute's transaction,
+     * recording the marks before and after on the dispute. Nothing is written if nothing changes.
+     */
+    private void correctDisputedResult(Firestore db, Transaction transaction, Dispute dispute, DisputeTransition transition)
+            throws ExecutionException, InterruptedException {
+        CollectionReference results = db.collection(RESULTS_COLLECTION);
+        DocumentSnapshot document = transaction
+                .get(results.document(DocumentIds.result(dispute.getRollNumber(), dispute.getCourseCode()))).get();
+        if (!document.exists() && legacyLookup) {
+            Query legacy = results.whereEqualTo("rollNumber", dispute.getRollNumber())
+                    .whereEqualTo("courseCode", dispute.getCourseCode()).limit(1);
+            List<QueryDocumentSnapshot> matches = transaction.get(legacy).get().getDocuments();
+            if (!matches.isEmpty()) {
+                document = matches.get(0);
+            }
         }
-        return disputes;
+        Result previous = toResult(document);
+        if (previous == null) {
+            throw new InvalidTransitionException("Student " + dispute.getRollNumber()
+                    + " has no result for course " + dispute.getCourseCode() + " to correct.");
+        }
+        Result revised = new Result(previous.getId(), previous.getRollNumber(), previous.getCourseCode(),
+                transition.getMarks() != null ? transition.getMarks() : previous.getMarks(),
+                transition.getGrade() != null ? transition.getGrade() : previous.getGrade());
+        if (revised.equals(previous)) {
+            return;
+        }
+        transaction.set(document.getReference(), DocumentCodecs.RESULT.encode(revised));
+        applyProjections(db, transaction, List.of(previous), false);
+        applyProjections(db, transaction, List.of(revised), true);
+        dispute.setPreviousMarks(previous.getMarks());
+        dispute.setRevisedMarks(revised.getMarks());
+    }
+
+    /**
+     * Reads one page of a course's disputes in the given status, ordered by document ID.
+     * Backed by the (courseCode, status) index, so only the queue's own documents are read.
+     * @throws IllegalArgumentException (synchronously) if the status or paging parameters are invalid
+     */
+    public CompletableFuture<Page<Dispute>> getDisputeQueueByCourseAsync(String courseCode, String status,
+                                                                         Integer limit, String pageToken) {
+        Map<String, Object> filters = Map.of("courseCode", courseCode, "status", DisputeWorkflow.requireStatus(status));
+        return getPageAsync(DISPUTES_COLLECTION, filters, DISPUTE_SORT_FIELDS, limit, pageToken, null, null,
+                FirestoreService::toDispute);
+    }
+
+    public Page<Dispute> getDisputeQueueByCourse(String courseCode, String status, Integer limit, String pageToken)
+            throws ExecutionException, InterruptedException {
+        return getDisputeQueueByCourseAsync(courseCode, status, limit, pageToken).get();
+    }
+
+    /**
+     * Reads one page of the disputes in the given status across every course whose courseInstructor is
+     * the lecturer, ordered by document ID. The lecturer's courses come from ReferenceDataCache when it
+     * is warm (a Courses query otherwise), and the disputes from one 'in' query on courseCode, so
+     * reassigning a course moves its disputes to the new lecturer's queue.
+     * @throws IllegalArgumentException synchronously if the status is invalid; asynchronously if the paging
+     *         parameters are, or if the lecturer has more courses than one 'in' query accepts
+     */
+    public CompletableFuture<Page<Dispute>> getDisputeQueueByLecturerAsync(String instructor, String status,
+                                                                           Integer limit, String pageToken) {
+        DisputeWorkflow.requireStatus(status);
+        return getInstructorCourseCodesAsync(instructor).thenCompose(courseCodes -> {
+            if (courseCodes.isEmpty()) {
+                return CompletableFuture.completedFuture(new Page<>(List.of(), null));
+            }
+            if (courseCodes.size() > MAX_IN_VALUES) {
+                throw new IllegalArgumentException("Lecturer " + instructor + " teaches more than " + MAX_IN_VALUES
+                        + " courses; use the per-course queues instead.");
+            }
+            Map<String, Object> filters = Map.of("courseCode", courseCodes, "status", status);
+            return getPageAsync(DISPUTES_COLLECTION, filters, DISPUTE_SORT_FIELDS, limit, pageToken, null, null,
+                    FirestoreService::toDispute);
+        });
+    }
+
+    public Page<Dispute> getDisputeQueueByLecturer(String instructor, String status, Integer limit, String pageToken)
+            throws ExecutionException, InterruptedException {
+        return getDisputeQueueByLecturerAsync(instructor, status, limit, pageToken).get();
+    }
+
+    private CompletableFuture<Set<String>> getInstructorCourseCodesAsync(String instructor) {
+        List<Course> cached = referenceDataCache.getCourses();
+        CompletableFuture<List<Course>> courses = cached != null
+                ? CompletableFuture.completedFuture(cached)
+                : call(COURSES_COLLECTION, "query",
+                        getDb().collection(COURSES_COLLECTION).whereEqualTo("courseInstructor", instructor)::get,
+                        QuerySnapshot::size)
+                .thenApply(snapshot -> mapAll(snapshot.getDocuments(), FirestoreService::toCourse));
+        return courses.thenApply(list -> {
+            Set<String> courseCodes = new LinkedHashSet<>();
+            for (Course course : list) {
+                if (instructor.equals(course.getCourseInstructor()) && course.getCourseCode() != null) {
+                    courseCodes.add(course.getCourseCode());
+                }
+            }
+            return courseCodes;
+        });
+    }
+
+    // --- Export ---
+
+    /**
+     * Pages through the documents matching the filters in document-ID order, handing each one to the sink.
+     * The next page is requested before the current one is written, so the Firestore round trip overlaps
+     * the writing while at most two pages are held in memory, however large the collection is.
+     * Unlike streamCollection, each page is a separate cursor query, so an export that outlives
+     * Firestore's query deadline still completes, and filters are supported.
+     * Blocking by nature; callers run it on the response-writing thread.
+     *
+     * @return The number of documents delivered to the sink
+     * @throws IOException if the sink fails (e.g. the client disconnected)
+     */
+    private <T> long exportCollection(String collection, Map<String, Object> filters, Set<String> sortableFields,
+                                      Function<DocumentSnapshot, T> mapper, DocumentSink<T> sink)
+            throws IOException, ExecutionException, InterruptedException {
+        long count = 0;
+        CompletableFuture<Page<T>> next = getPageAsync(collection, filters, sortableFields, EXPORT_PAGE_SIZE,
+                null, null, null, mapper);
+        while (next != null) {
+            Page<T> page = next.get();
+            next = page.getNextPageToken() == null ? null : getPageAsync(collection, filters, sortableFields,
+                    EXPORT_PAGE_SIZE, page.getNextPageToken(), null, null, mapper);
+            for (T item : page.getItems()) {
+                sink.accept(item);
+                count++;
+            }
+        }
+        logger.debug("Exported {} documents from {} (filters={})", count, collection, filters);
+        return count;
+    }
+
+    /**
+     * Exports the results, optionally restricted to one student and/or one course, page by page.
+     * @param rollNumber Only this student's results (null or empty for all students)
+     * @param courseCode Only this course's results (null or empty for all courses)
+     * @return The number of results written
+     */
+    public long exportResults(String rollNumber, String courseCode, DocumentSink<Result> sink)
+            throws IOException, ExecutionException, InterruptedException {
+        Map<String, Object> filters = new LinkedHashMap<>();
+        if (rollNumber != null && !rollNumber.isEmpty()) {
+            filters.put("rollNumber", rollNumber);
+        }
+        if (courseCode != null && !courseCode.isEmpty()) {
+            filters.put("courseCode", courseCode);
+        }
+        return exportCollection(RESULTS_COLLECTION, filters, RESULT_SORT_FIELDS, FirestoreService::toResult, sink);
+    }
+
+    /**
+     * Exports every student, page by page.
+     * @return The number of students written
+     */
+    public long exportStudents(DocumentSink<Student> sink) throws IOException, ExecutionException, InterruptedException {
+        return exportCollection(STUDENTS_COLLECTION, Map.of(), STUDENT_SORT_FIELDS, FirestoreService::toStudent, sink);
+    }
+
+    /**
+     * Exports every course, from ReferenceDataCache when it is warm, otherwise page by page.
+     * @return The number of courses written
+     */
+    public long exportCourses(DocumentSink<Course> sink) throws IOException, ExecutionException, InterruptedException {
+        List<Course> cached = referenceDataCache.getCourses();
+        if (cached == null) {
+            return exportCollection(COURSES_COLLECTION, Map.of(), COURSE_SORT_FIELDS, FirestoreService::toCourse, sink);
+        }
+        for (Course course : cached) {
+            sink.accept(course);
+        }
+        return cached.size();
+    }
+
+    // --- Dashboard ---
+
+    /**
+     * Counts the records of every collection, plus the pending disputes, for the dashboard.
+     * The counts are Firestore count() aggregations issued concurrently, each billed as one read per
+     * 1000 index entries instead of one per document; courses and lecturers are counted from
+     * ReferenceDataCache instead when it is warm, which costs no reads at all.
+     */
+    public CompletableFuture<DashboardSummary> getDashboardSummaryAsync() {
+        Firestore db = getDb();
+        CompletableFuture<Long> students = countAsync(STUDENTS_COLLECTION, db.collection(STUDENTS_COLLECTION));
+        CompletableFuture<Long> courses = countCachedAsync(COURSES_COLLECTION, referenceDataCache.getCourses());
+        CompletableFuture<Long> lecturers = countCachedAsync(LECTURERS_COLLECTION, referenceDataCache.getLecturers());
+        CompletableFuture<Long> results = countAsync(RESULTS_COLLECTION, db.collection(RESULTS_COLLECTION));
+        CompletableFuture<Long> disputes = countAsync(DISPUTES_COLLECTION, db.collection(DISPUTES_COLLECTION));
+        CompletableFuture<Long> pendingDisputes = countAsync(DISPUTES_COLLECTION,
+                db.collection(DISPUTES_COLLECTION).whereEqualTo("status", Dispute.PENDING));
+        return CompletableFuture.allOf(students, courses, lecturers, results, disputes, pendingDisputes)
+                .thenApply(ignored -> new DashboardSummary(students.join(), courses.join(), lecturers.join(),
+                        results.join(), disputes.join(), pendingDisputes.join()));
+    }
+
+    public DashboardSummary getDashboardSummary() throws ExecutionException, InterruptedException {
+        return getDashboardSummaryAsync().get();
+    }
+
+    private CompletableFuture<Long> countCachedAsync(String collection, List<?> cached) {
+        return cached != null
+                ? CompletableFuture.completedFuture((long) cached.size())
+                : countAsync(collection, getDb().collection(collection));
+    }
+
+    // --- Migrations ---
+
+    /**
+     * Moves students and results that still have auto-generated IDs to the IDs derived from their
+     * natural keys (see DocumentIds), so that lookups by key and duplicate checks need no query.
+     * Safe to run while the application is serving requests and to rerun: documents already at their
+     * natural ID are left alone. Disputes keep their IDs; they reference students and courses by key.
+     * Course statistics and transcripts still under their earlier URL-encoded IDs are rebuilt under
+     * their current IDs (see migrateReadModelAsync).
+     * @param dryRun Only count what would be moved, write nothing
+     * @return One report per collection (Students, Results, CourseStats, then Transcripts)
+     */
+    public CompletableFuture<List<IdMigrationReport>> migrateToNaturalIdsAsync(boolean dryRun) {
+        Firestore db = getDb();
+        IdMigrationReport students = new IdMigrationReport(STUDENTS_COLLECTION, dryRun, 0, 0, 0, 0, new ArrayList<>());
+        IdMigrationReport results = new IdMigrationReport(RESULTS_COLLECTION, dryRun, 0, 0, 0, 0, new ArrayList<>());
+        IdMigrationReport stats = new IdMigrationReport(CourseStatsProjection.STATS_COLLECTION, dryRun, 0, 0, 0, 0, new ArrayList<>());
+        IdMigrationReport transcripts = new IdMigrationReport(TranscriptProjection.TRANSCRIPTS_COLLECTION, dryRun, 0, 0, 0, 0, new ArrayList<>());
+        return migrateCollectionAsync(db, students, null, new HashSet<>())
+                .thenCompose(ignored -> migrateCollectionAsync(db, results, null, new HashSet<>()))
+                .thenCompose(ignored -> migrateReadModelAsync(db, stats, "courseCode", courseStatsProjection,
+                        courseCode -> courseStatsProjection.statsDocument(db, courseCode), null))
+                .thenCompose(ignored -> migrateReadModelAsync(db, transcripts, "rollNumber", transcriptProjection,
+                        rollNumber -> transcriptProjection.transcriptDocument(db, rollNumber), null))
+                .thenApply(ignored -> {
+                    logger.info("Natural ID migration{}: {} students, {} results, {} course statistics and {} transcripts moved, {} conflicts",
+                            dryRun ? " (dry run)" : "", students.getMigrated(), results.getMigrated(),
+                            stats.getMigrated(), transcripts.getMigrated(),
+                            students.getConflicts().size() + results.getConflicts().size());
+                    return List.of(students, results, stats, transcripts);
+                });
+    }
+
+    public List<IdMigrationReport> migrateToNaturalIds(boolean dryRun) throws ExecutionException, InterruptedException {
+        return migrateToNaturalIdsAsync(dryRun).get();
     }
-    // Add updateDispute/deleteDispute if needed
 }
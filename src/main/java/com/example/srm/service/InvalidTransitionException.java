@@ -0,0 +1,14 @@
+package com.example.srm.service;
+
+/**
+ * Thrown when a dispute cannot make the requested status transition from the status it is
+ * in now (see DisputeWorkflow), e.g. because another lecturer already resolved it.
+ */
+public class InvalidTransitionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.srm.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Inverted index from terms to the items containing them, for keyword search with AND semantics.
+ *
+ * Items are numbered in the order they are indexed and each term keeps a compressed PostingList of
+ * item numbers. A search intersects the lists of its terms, driving from the shortest list and letting
+ * the others skip ahead, so its cost follows the rarest term rather than the most common one.
+ *
+ * Posting lists are append-only: replacing an item with different terms, or removing it, only marks
+ * its number as dead (replacing it with unchanged terms keeps its number). Once dead numbers outnumber
+ * live ones the lists are rebuilt from the live items. Not thread-safe; callers synchronise.
+ *
+ * @param <T> The indexed model type
+ */
+final class InvertedIndex<T> {
+
+    // Dead item numbers tolerated before compacting, however few items are live
+    private static final int MIN_DEAD_BEFORE_COMPACTION = 1024;
+
+    private final Function<T, Collection<String>> terms;
+    private final Map<String, Integer> numbers = new HashMap<>();
+    private List<String> ids = new ArrayList<>();
+    private List<T> items = new ArrayList<>();
+    private Map<String, PostingList> postings = new HashMap<>();
+    private int dead;
+
+    /**
+     * @param terms Extracts an item's terms
+     */
+    InvertedIndex(Function<T, Collection<String>> terms) {
+        this.terms = terms;
+    }
+
+    /**
+     * Indexes the item under the given ID, replacing the item previously indexed under it.
+     */
+    void put(String id, T item) {
+        Set<String> itemTerms = new LinkedHashSet<>(terms.apply(item));
+        Integer number = numbers.get(id);
+        if (number != null) {
+            if (itemTerms.equals(new LinkedHashSet<>(terms.apply(items.get(number))))) {
+                items.set(number, item);
+                return;
+            }
+            kill(number);
+        }
+        number = items.size();
+        numbers.put(id, number);
+        ids.add(id);
+        items.add(item);
+        for (String term : itemTerms) {
+            postings.computeIfAbsent(term, t -> new PostingList()).add(number);
+        }
+        if (dead >= MIN_DEAD_BEFORE_COMPACTION && dead > numbers.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Removes the item indexed under the ID, if any.
+     */
+    void remove(String id) {
+        Integer number = numbers.remove(id);
+        if (number != null) {
+            kill(number);
+        }
+    }
+
+    private void kill(int number) {
+        ids.set(number, null);
+        items.set(number, null);
+        dead++;
+    }
+
+    void clear() {
+        numbers.clear();
+        ids = new ArrayList<>();
+        items = new ArrayList<>();
+        postings = new HashMap<>();
+        dead = 0;
+    }
+
+    int size() {
+        return numbers.size();
+    }
+
+    /**
+     * @return Bytes used by the compressed posting lists
+     */
+    long postingBytes() {
+        return postings.values().stream().mapToLong(PostingList::memoryBytes).sum();
+    }
+
+    /**
+     * Finds up to 'limit' items containing every term, in the order they were indexed.
+     * @return The matches; empty if there are no terms or one of them occurs nowhere
+     */
+    List<T> search(Collection<String> queryTerms, int limit) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(queryTerms)) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        if (lists.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList.Cursor lead = lists.get(0).cursor();
+        List<PostingList.Cursor> others = new ArrayList<>(lists.size() - 1);
+        for (PostingList list : lists.subList(1, lists.size())) {
+            others.add(list.cursor());
+        }
+
+        List<T> matches = new ArrayList<>(Math.min(limit, 64));
+        int candidate = lead.next();
+        while (candidate != PostingList.NO_MORE) {
+            int next = candidate;
+            for (PostingList.Cursor other : others) {
+                next = other.advance(candidate);
+                if (next != candidate) {
+                    break;
+                }
+            }
+            if (next == PostingList.NO_MORE) {
+                break;
+            }
+            if (next != candidate) {
+                // Some list has nothing between candidate and next; resume the lead from there
+                candidate = lead.advance(next);
+                continue;
+            }
+            T item = items.get(candidate);
+            if (item != null) {
+                matches.add(item);
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+            candidate = lead.next();
+        }
+        return matches;
+    }
+
+    /**
+     * Renumbers the live items densely, in their current order, and rebuilds the posting lists.
+     */
+    private void compact() {
+        List<String> liveIds = new ArrayList<>(numbers.size());
+        List<T> liveItems = new ArrayList<>(numbers.size());
+        Map<String, PostingList> rebuilt = new HashMap<>();
+        for (int number = 0; number < items.size(); number++) {
+            T item = items.get(number);
+            if (item == null) {
+                continue;
+            }
+            int renumbered = liveItems.size();
+            liveIds.add(ids.get(number));
+            liveItems.add(item);
+            numbers.put(ids.get(number), renumbered);
+            for (String term : new LinkedHashSet<>(terms.apply(item))) {
+                rebuilt.computeIfAbsent(term, t -> new PostingList()).add(renumbered);
+            }
+        }
+        ids = liveIds;
+        items = liveItems;
+        postings = rebuilt;
+        dead = 0;
+    }
+}
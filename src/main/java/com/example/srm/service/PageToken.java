@@ -0,0 +1,121 @@
+package com.example.srm.service;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Opaque cursor used for paginating Firestore queries.
+ * Encodes the ordering field, the value of that field on the last returned document
+ * and the last document ID, so the next page can resume with startAfter(value, id).
+ * The encoded form is URL-safe Base64 and is not meant to be interpreted by clients.
+ */
+final class PageToken {
+
+    // Ordering field name used when a listing is ordered by document ID only
+    static final String DOCUMENT_ID = "__name__";
+
+    private static final int VERSION = 1;
+
+    private final String orderBy;
+    private final Object value;
+    private final String documentId;
+
+    private PageToken(String orderBy, Object value, String documentId) {
+        this.orderBy = orderBy;
+        this.value = value;
+        this.documentId = documentId;
+    }
+
+    /**
+     * Builds the cursor pointing just after the given document.
+     * @param orderBy The field the query is ordered by (or DOCUMENT_ID)
+     * @param last The last document on the current page
+     */
+    static PageToken after(String orderBy, DocumentSnapshot last) {
+        Object value = DOCUMENT_ID.equals(orderBy) ? null : last.get(orderBy);
+        return new PageToken(orderBy, value, last.getId());
+    }
+
+    String getOrderBy() {
+        return orderBy;
+    }
+
+    String getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * Returns the cursor values to pass to Query.startAfter(...), matching the
+     * orderBy(field).orderBy(documentId) ordering used by FirestoreService.
+     */
+    Object[] cursorValues() {
+        if (DOCUMENT_ID.equals(orderBy)) {
+            return new Object[] { documentId };
+        }
+        return new Object[] { value, documentId };
+    }
+
+    String encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeUTF(orderBy);
+            if (value instanceof String s) {
+                out.writeByte('s');
+                out.writeUTF(s);
+            } else if (value instanceof Long l) {
+                out.writeByte('l');
+                out.writeLong(l);
+            } else if (value instanceof Double d) {
+                out.writeByte('d');
+                out.writeDouble(d);
+            } else if (value instanceof Boolean b) {
+                out.writeByte('b');
+                out.writeBoolean(b);
+            } else {
+                // Document ID ordering, or a field type we cannot round-trip
+                out.writeByte('n');
+            }
+            out.writeUTF(documentId);
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            // Cannot happen when writing to an in-memory stream
+            throw new IllegalStateException("Failed to encode page token", e);
+        }
+    }
+
+    /**
+     * Decodes a token previously produced by encode().
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static PageToken decode(String token) {
+        try {
+            byte[] raw = Base64.getUrlDecoder().decode(token);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported page token version.");
+            }
+            String orderBy = in.readUTF();
+            Object value = switch (in.readByte()) {
+                case 's' -> in.readUTF();
+                case 'l' -> in.readLong();
+                case 'd' -> in.readDouble();
+                case 'b' -> in.readBoolean();
+                case 'n' -> null;
+                default -> throw new IllegalArgumentException("Invalid page token.");
+            };
+            String documentId = in.readUTF();
+            return new PageToken(orderBy, value, documentId);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token.", e);
+        }
+    }
+}
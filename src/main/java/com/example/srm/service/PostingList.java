@@ -0,0 +1,138 @@
+package com.example.srm.service;
+
+import java.util.Arrays;
+
+/**
+ * Compressed, append-only list of strictly increasing document numbers, for InvertedIndex.
+ * Each number is stored as a variable-length integer (7 bits per byte) holding the gap to the
+ * previous number, so dense lists take about one byte per entry instead of four. Every
+ * SKIP_INTERVAL-th number is stored in full and recorded in a skip table, which lets a cursor
+ * jump over whole blocks when intersecting with a shorter list instead of decoding every gap.
+ * Not thread-safe; callers synchronise.
+ */
+final class PostingList {
+
+    static final int NO_MORE = Integer.MAX_VALUE;
+
+    // Entries per block; the first entry of each block is stored in full and listed in the skip table
+    static final int SKIP_INTERVAL = 64;
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int size;
+    private int last = -1;
+    private int[] skipValues = new int[1];
+    private int[] skipOffsets = new int[1];
+
+    /**
+     * @throws IllegalArgumentException if value is not greater than the last value added
+     */
+    void add(int value) {
+        if (value <= last) {
+            throw new IllegalArgumentException("Postings must be added in increasing order: " + value + " after " + last);
+        }
+        int block = size / SKIP_INTERVAL;
+        boolean blockStart = size % SKIP_INTERVAL == 0;
+        if (blockStart) {
+            if (block == skipValues.length) {
+                skipValues = Arrays.copyOf(skipValues, block * 2);
+                skipOffsets = Arrays.copyOf(skipOffsets, block * 2);
+            }
+            skipValues[block] = value;
+            skipOffsets[block] = length;
+        }
+        writeVarInt(blockStart ? value : value - last);
+        last = value;
+        size++;
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Bytes used by the encoded entries and the skip table
+     */
+    long memoryBytes() {
+        return length + (long) ((size + SKIP_INTERVAL - 1) / SKIP_INTERVAL) * 2 * Integer.BYTES;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Forward-only iterator over the list.
+     */
+    final class Cursor {
+
+        private int index;
+        private int offset;
+        private int current = -1;
+
+        /**
+         * @return The next value, or NO_MORE
+         */
+        int next() {
+            if (index == size) {
+                current = NO_MORE;
+                return NO_MORE;
+            }
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[offset++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            current = index % SKIP_INTERVAL == 0 ? value : current + value;
+            index++;
+            return current;
+        }
+
+        /**
+         * Moves to the first value at or after target.
+         * @return That value, or NO_MORE
+         */
+        int advance(int target) {
+            if (current >= target) {
+                return current;
+            }
+            // Jump to the last block not yet reached that starts at or before target
+            int blocks = (size + SKIP_INTERVAL - 1) / SKIP_INTERVAL;
+            int low = (index + SKIP_INTERVAL - 1) / SKIP_INTERVAL;
+            int high = blocks - 1;
+            int jump = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (skipValues[mid] <= target) {
+                    jump = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (jump >= 0) {
+                index = jump * SKIP_INTERVAL;
+                offset = skipOffsets[jump];
+            }
+            int value;
+            do {
+                value = next();
+            } while (value < target);
+            return value;
+        }
+    }
+}
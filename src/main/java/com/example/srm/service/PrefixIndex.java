@@ -0,0 +1,160 @@
+package com.example.srm.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Word-prefix index for typeahead search: an item matches a query when every query word is a prefix
+ * of one of the item's words ("jo sm" matches "John Smith").
+ *
+ * Words are kept in a sorted map from word to the IDs of the items containing it, which serves the
+ * same lookups as a trie: the words starting with a prefix are one contiguous sub-map, found in
+ * O(log words). Matches are produced in word order and the search stops after 'limit' matches, so
+ * a query costs O(log words + limit) however many items share the prefix, unless most candidates
+ * fail a later query word. Adding, replacing or removing an item touches only its own words.
+ * Not thread-safe; callers synchronise.
+ *
+ * @param <T> The indexed model type
+ */
+final class PrefixIndex<T> {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Function<T, Collection<String>> words;
+    private final Map<String, T> items = new HashMap<>();
+    private final Map<String, String[]> itemWords = new HashMap<>();
+    private final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+
+    /**
+     * @param words Extracts an item's searchable words, already normalized (see words(String))
+     */
+    PrefixIndex(Function<T, Collection<String>> words) {
+        this.words = words;
+    }
+
+    /**
+     * Lower-cases the text and strips accents, so "Zoë" is found by "zoe".
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The normalized words of the text, split at anything but letters and digits; empty for null
+     */
+    static List<String> words(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Indexes the item under the given ID, replacing the item previously indexed under it.
+     */
+    void put(String id, T item) {
+        remove(id);
+        String[] terms = new LinkedHashSet<>(words.apply(item)).toArray(new String[0]);
+        items.put(id, item);
+        itemWords.put(id, terms);
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new TreeSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Removes the item indexed under the ID, if any.
+     */
+    void remove(String id) {
+        items.remove(id);
+        String[] terms = itemWords.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<String> ids = postings.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    void clear() {
+        items.clear();
+        itemWords.clear();
+        postings.clear();
+    }
+
+    int size() {
+        return items.size();
+    }
+
+    /**
+     * Finds up to 'limit' items matching every word of the query. Items are ordered by the word that
+     * matched the query's longest word (so an exact word comes before longer words it prefixes),
+     * then by ID.
+     * @return The matches; empty if the query has no words
+     */
+    List<T> search(String query, int limit) {
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Candidates come from the longest query word, usually the most selective prefix
+        String lead = queryWords.stream().max(Comparator.comparingInt(String::length)).get();
+        List<T> matches = new ArrayList<>(Math.min(limit, 16));
+        Set<String> seen = new HashSet<>();
+        for (Set<String> ids : postings.subMap(lead, true, lead + Character.MAX_VALUE, false).values()) {
+            for (String id : ids) {
+                if (seen.add(id) && matchesAll(itemWords.get(id), queryWords)) {
+                    matches.add(items.get(id));
+                    if (matches.size() == limit) {
+                        return matches;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return Whether every query word is a prefix of one of the item's words
+     */
+    private static boolean matchesAll(String[] terms, List<String> queryWords) {
+        for (String queryWord : queryWords) {
+            boolean found = false;
+            for (String term : terms) {
+                if (term.startsWith(queryWord)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
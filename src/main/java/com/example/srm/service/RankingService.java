@@ -0,0 +1,275 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Ranking;
+import com.example.srm.model.Result;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.firebase.cloud.FirestoreClient;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory rank and percentile index over results.
+ *
+ * Each course has a Fenwick tree of result counts indexed by marks (clamped to 0..ResultValidator.MAX_MARKS,
+ * so a stored out-of-range value cannot size the tree), and all students share one
+ * Fenwick tree indexed by CGPA in hundredths (on the transcript grade point scale), so "how many
+ * scored above / below X" is O(log range) instead of sorting the cohort on every request.
+ *
+ * The index is fed by a Firestore snapshot listener on the Results collection (see CollectionListener):
+ * the first snapshot loads every result, later snapshots apply only added/modified/removed results.
+ * It therefore also reflects writes made by other instances and bulk imports. Until the first snapshot
+ * arrives, and while the listener re-subscribes after an error, the lookups throw IllegalStateException.
+ */
+@Service
+public class RankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankingService.class);
+
+    // Fenwick capacity for marks; values are clamped to it, so the tree never grows
+    private static final int MARKS_CAPACITY = ResultValidator.MAX_MARKS + 1;
+
+    private final TranscriptProjection transcriptProjection;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Indexed results by document ID, needed to undo a result's contribution when it changes or is removed
+    private final Map<String, Result> results = new HashMap<>();
+    private final Map<String, CourseIndex> courses = new HashMap<>();
+    private final Map<String, StudentGrades> students = new HashMap<>();
+    private final FenwickTree cgpaTree;
+
+    private final boolean enabled;
+
+    private volatile boolean ready;
+    private final CollectionListener listener;
+
+    @Autowired
+    public RankingService(TranscriptProjection transcriptProjection,
+                          @Value("${srm.ranking.enabled:true}") boolean enabled) {
+        this(transcriptProjection, enabled, FirestoreClient::getFirestore);
+    }
+
+    /**
+     * Constructor allowing another Firestore client, e.g. a mock that delivers test snapshots.
+     */
+    RankingService(TranscriptProjection transcriptProjection, boolean enabled, Supplier<Firestore> firestore) {
+        this.transcriptProjection = transcriptProjection;
+        this.enabled = enabled;
+        this.cgpaTree = new FenwickTree(toCgpaBucket(transcriptProjection.maxGradePoints()) + 1);
+        this.listener = new CollectionListener(FirestoreService.RESULTS_COLLECTION, "ranking index", this::apply,
+                this::clear, firestore, CollectionListener.INITIAL_BACKOFF);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled) {
+            logger.info("Ranking index disabled");
+            return;
+        }
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        listener.stop();
+        clear();
+    }
+
+    /**
+     * Ranks a student within a course by their marks (their best result if they have several).
+     * @return The ranking, or null if the student has no result in the course
+     * @throws IllegalStateException if the index has not finished loading
+     */
+    public Ranking rankInCourse(String courseCode, String rollNumber) {
+        lock.readLock().lock();
+        try {
+            checkReady();
+            CourseIndex course = courses.get(courseCode);
+            List<Integer> marks = course == null ? null : course.marksByStudent.get(rollNumber);
+            if (marks == null || marks.isEmpty()) {
+                return null;
+            }
+            int best = marks.stream().mapToInt(Integer::intValue).max().getAsInt();
+            return ranking(courseCode, rollNumber, best, course.marks, toMarksBucket(best));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks an arbitrary marks value against a course's results ("where would 72 place?").
+     * @throws IllegalStateException if the index has not finished loading
+     */
+    public Ranking rankMarksInCourse(String courseCode, int marks) {
+        lock.readLock().lock();
+        try {
+            checkReady();
+            CourseIndex course = courses.get(courseCode);
+            return ranking(courseCode, null, marks, course == null ? new FenwickTree(1) : course.marks, toMarksBucket(marks));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks a student among all students with a CGPA.
+     * @return The ranking, or null if the student has no graded result
+     * @throws IllegalStateException if the index has not finished loading
+     */
+    public Ranking rankOverall(String rollNumber) {
+        lock.readLock().lock();
+        try {
+            checkReady();
+            StudentGrades student = students.get(rollNumber);
+            if (student == null || student.bucket < 0) {
+                return null;
+            }
+            return ranking(null, rollNumber, student.bucket / 100.0, cgpaTree, student.bucket);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void checkReady() {
+        if (!ready) {
+            throw new IllegalStateException("Ranking index is not loaded yet.");
+        }
+    }
+
+    private static Ranking ranking(String courseCode, String rollNumber, double score, FenwickTree tree, int value) {
+        long size = tree.size();
+        long atMost = tree.countAtMost(value);
+        long equal = tree.countOf(value);
+        long below = atMost - equal;
+        long above = size - atMost;
+        double percentile = size == 0 ? 0 : Math.round((below + equal / 2.0) * 10000.0 / size) / 100.0;
+        return new Ranking(courseCode, rollNumber, score, above + 1, size, percentile);
+    }
+
+    // --- Index maintenance (listener thread) ---
+
+    private void apply(QuerySnapshot querySnapshot) {
+        lock.writeLock().lock();
+        try {
+            for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+                String id = change.getDocument().getId();
+                Result previous = results.remove(id);
+                if (previous != null) {
+                    unindex(previous);
+                }
+                if (change.getType() != DocumentChange.Type.REMOVED) {
+                    Result result = FirestoreService.toResult(change.getDocument());
+                    if (result != null && result.getCourseCode() != null && result.getRollNumber() != null
+                            && result.getMarks() >= 0) {
+                        results.put(id, result);
+                        index(result);
+                    }
+                }
+            }
+            if (!ready) {
+                logger.info("Ranking index loaded: {} results, {} courses, {} students",
+                        results.size(), courses.size(), students.size());
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Result result) {
+        CourseIndex course = courses.computeIfAbsent(result.getCourseCode(), code -> new CourseIndex());
+        course.marks.add(toMarksBucket(result.getMarks()), 1);
+        course.marksByStudent.computeIfAbsent(result.getRollNumber(), rollNumber -> new ArrayList<>()).add(result.getMarks());
+        updateStudent(result, 1);
+    }
+
+    private void unindex(Result result) {
+        CourseIndex course = courses.get(result.getCourseCode());
+        if (course != null) {
+            course.marks.add(toMarksBucket(result.getMarks()), -1);
+            List<Integer> marks = course.marksByStudent.get(result.getRollNumber());
+            if (marks != null) {
+                marks.remove(Integer.valueOf(result.getMarks()));
+                if (marks.isEmpty()) {
+                    course.marksByStudent.remove(result.getRollNumber());
+                }
+            }
+            if (course.marks.size() == 0) {
+                courses.remove(result.getCourseCode());
+            }
+        }
+        updateStudent(result, -1);
+    }
+
+    /**
+     * Moves the student's CGPA bucket after one of their results was added (+1) or removed (-1).
+     */
+    private void updateStudent(Result result, int direction) {
+        Double points = transcriptProjection.gradePoints(result.getGrade());
+        if (points == null) {
+            return;
+        }
+        StudentGrades student = students.computeIfAbsent(result.getRollNumber(), rollNumber -> new StudentGrades());
+        if (student.bucket >= 0) {
+            cgpaTree.add(student.bucket, -1);
+        }
+        student.totalHundredths += direction * Math.round(points * 100);
+        student.graded += direction;
+        if (student.graded > 0) {
+            student.bucket = toCgpaBucket(TranscriptProjection.roundCgpa(student.totalHundredths / 100.0 / student.graded));
+            cgpaTree.add(student.bucket, 1);
+        } else {
+            students.remove(result.getRollNumber());
+        }
+    }
+
+    /**
+     * Results written before marks were range-checked may hold any value; they rank as 0 or MAX_MARKS.
+     */
+    private static int toMarksBucket(int marks) {
+        return Math.min(Math.max(marks, 0), ResultValidator.MAX_MARKS);
+    }
+
+    private static int toCgpaBucket(double cgpa) {
+        return (int) Math.round(Math.max(cgpa, 0) * 100);
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            results.clear();
+            courses.clear();
+            students.clear();
+            cgpaTree.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class CourseIndex {
+        final FenwickTree marks = new FenwickTree(MARKS_CAPACITY);
+        final Map<String, List<Integer>> marksByStudent = new HashMap<>();
+    }
+
+    private static final class StudentGrades {
+        long totalHundredths; // Sum of grade points in hundredths, kept integral so removals cancel exactly
+        int graded;
+        int bucket = -1; // Current position in cgpaTree, -1 when not in it
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Course;
+import com.example.srm.model.Lecturer;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * In-memory cache of the Courses and Lecturers collections.
+ * These reference collections change only a few times a term but are read on every page load,
+ * so they are mirrored locally and served without any Firestore reads. For Students only the
+ * version is tracked (document IDs and update times), so conditional GETs on the student listing
+ * can be answered without reading the collection.
+ *
+ * Each collection is kept current by a Firestore snapshot listener (see CollectionListener): the first
+ * snapshot loads every document, later snapshots apply only the added/modified/removed changes. After
+ * each change the cache publishes a new immutable list, so readers never lock and never see a
+ * half-applied update. Until the first snapshot arrives (and while the listener re-subscribes after an
+ * error) the getters return null and FirestoreService falls back to reading the collection directly.
+ */
+@Service
+public class ReferenceDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    @Value("${srm.cache.reference-data.enabled:true}")
+    private boolean enabled;
+
+    private final CollectionMirror<Course> courses =
+            new CollectionMirror<>(FirestoreService.COURSES_COLLECTION, FirestoreService::toCourse);
+    private final CollectionMirror<Lecturer> lecturers =
+            new CollectionMirror<>(FirestoreService.LECTURERS_COLLECTION, FirestoreService::toLecturer);
+    private final CollectionVersion students = new CollectionVersion(FirestoreService.STUDENTS_COLLECTION);
+
+    /**
+     * Attaches the snapshot listeners once the application (and FirebaseApp) is fully initialised.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Reference data cache disabled; courses and lecturers are read from Firestore");
+            return;
+        }
+        courses.start();
+        lecturers.start();
+        students.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        courses.stop();
+        lecturers.stop();
+        students.stop();
+    }
+
+    /**
+     * @return Immutable snapshot of all courses ordered by document ID, or null if the cache is not warm
+     */
+    public List<Course> getCourses() {
+        Versioned<List<Course>> snapshot = courses.snapshot;
+        return snapshot == null ? null : snapshot.value();
+    }
+
+    /**
+     * @return Snapshot of all courses with its ETag, or null if the cache is not warm
+     */
+    public Versioned<List<Course>> getVersionedCourses() {
+        return courses.snapshot;
+    }
+
+    /**
+     * @param courseCode The course code to look up
+     * @return The name of the course with that code, or null if unknown or the cache is not warm
+     */
+    public String getCourseName(String courseCode) {
+        List<Course> snapshot = getCourses();
+        if (snapshot != null && courseCode != null) {
+            for (Course course : snapshot) {
+                if (courseCode.equals(course.getCourseCode())) {
+                    return course.getCourseName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Immutable snapshot of all lecturers ordered by document ID, or null if the cache is not warm
+     */
+    public List<Lecturer> getLecturers() {
+        Versioned<List<Lecturer>> snapshot = lecturers.snapshot;
+        return snapshot == null ? null : snapshot.value();
+    }
+
+    /**
+     * @return Snapshot of all lecturers with its ETag, or null if the cache is not warm
+     */
+    public Versioned<List<Lecturer>> getVersionedLecturers() {
+        return lecturers.snapshot;
+    }
+
+    /**
+     * @return ETag of the whole Students collection (as getAllVersionedStudentsAsync would return it),
+     *         or null if it is not tracked yet or does not include this instance's latest student write
+     */
+    public String getStudentsETag() {
+        return students.eTag();
+    }
+
+    /**
+     * Records a write this instance committed, so the tracked version is not used until the listener
+     * has caught up with it (see CollectionVersion.written). Writes to other collections are ignored.
+     * @param commitTime The write's commit time (WriteResult.getUpdateTime())
+     */
+    public void written(String collection, Timestamp commitTime) {
+        if (FirestoreService.STUDENTS_COLLECTION.equals(collection)) {
+            students.written(commitTime);
+        }
+    }
+
+    /**
+     * Local mirror of one collection, maintained from a snapshot listener.
+     * The working maps are only touched from the listener callback, which the Firestore SDK
+     * invokes serially; readers only see the published immutable list and its ETag.
+     */
+    private static final class CollectionMirror<T> {
+
+        private final String collection;
+        private final Function<DocumentSnapshot, T> mapper;
+        private final Map<String, T> documents = new TreeMap<>();
+        private final Map<String, Timestamp> updateTimes = new TreeMap<>();
+        private volatile Versioned<List<T>> snapshot;
+        private final CollectionListener listener;
+
+        CollectionMirror(String collection, Function<DocumentSnapshot, T> mapper) {
+            this.collection = collection;
+            this.mapper = mapper;
+            this.listener = new CollectionListener(collection, "reference data cache", this::apply, this::reset);
+        }
+
+        void start() {
+            listener.start();
+        }
+
+        void stop() {
+            listener.stop();
+            snapshot = null;
+        }
+
+        /**
+         * Falls back to direct reads until the re-subscribed listener has reloaded the collection.
+         */
+        private void reset() {
+            documents.clear();
+            updateTimes.clear();
+            snapshot = null;
+        }
+
+        private void apply(QuerySnapshot querySnapshot) {
+            for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+                String id = change.getDocument().getId();
+                if (change.getType() == DocumentChange.Type.REMOVED) {
+                    documents.remove(id);
+                    updateTimes.remove(id);
+                } else {
+                    T item = mapper.apply(change.getDocument());
+                    if (item != null) {
+                        documents.put(id, item);
+                        updateTimes.put(id, change.getDocument().getUpdateTime());
+                    }
+                }
+            }
+            snapshot = new Versioned<>(List.copyOf(documents.values()), Versioned.eTag(updateTimes));
+            logger.debug("Applied {} changes to {} cache ({} documents)",
+                    querySnapshot.getDocumentChanges().size(), collection, documents.size());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.srm.service;
+
+import com.example.srm.model.ImportReport;
+import com.example.srm.model.ImportRowOutcome;
+import com.example.srm.model.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bulk import of results from CSV or JSON uploads.
+ * Each row is validated with the same rules as POST /api/results; valid rows are written together
+ * through FirestoreService.addResultsBulkAsync (BulkWriter), invalid rows are reported without
+ * being written. Rows succeed or fail independently and the report lists one outcome per row.
+ * A row for a student and course that already have a result (in Firestore or earlier in the upload)
+ * is reported as a duplicate; existing results are never overwritten.
+ */
+@Service
+public class ResultImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultImportService.class);
+
+    private static final String[] CSV_COLUMNS = {"rollNumber", "courseCode", "marks", "grade"};
+
+    private final FirestoreService firestoreService;
+
+    @Value("${srm.import.max-rows:5000}")
+    private int maxRows;
+
+    public ResultImportService(FirestoreService firestoreService) {
+        this.firestoreService = firestoreService;
+    }
+
+    /**
+     * Imports results from CSV text. The first record must be a header naming the columns
+     * rollNumber, courseCode, marks and grade (any order, case-insensitive; other columns are ignored).
+     * @throws IllegalArgumentException if the header is missing columns or the row count is out of range
+     */
+    public CompletableFuture<ImportReport> importCsv(String csv) {
+        List<List<String>> records = parseCsv(csv == null ? "" : csv);
+        if (records.isEmpty()) {
+            throw new IllegalArgumentException("No rows to import.");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = records.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] positions = new int[CSV_COLUMNS.length];
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            Integer position = columns.get(CSV_COLUMNS[i].toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new IllegalArgumentException("CSV header must include the columns " + String.join(", ", CSV_COLUMNS) + ".");
+            }
+            positions[i] = position;
+        }
+
+        List<Result> results = new ArrayList<>(records.size() - 1);
+        List<String> parseErrors = new ArrayList<>(records.size() - 1);
+        for (List<String> record : records.subList(1, records.size())) {
+            Result result = new Result();
+            result.setRollNumber(field(record, positions[0]));
+            result.setCourseCode(field(record, positions[1]));
+            result.setGrade(field(record, positions[3]));
+            String parseError = null;
+            try {
+                result.setMarks(Integer.parseInt(field(record, positions[2])));
+            } catch (NumberFormatException e) {
+                parseError = "Marks must be a whole number.";
+            }
+            results.add(result);
+            parseErrors.add(parseError);
+        }
+        return importRows(results, parseErrors);
+    }
+
+    /**
+     * Imports results submitted as a JSON array.
+     * @throws IllegalArgumentException if the row count is out of range
+     */
+    public CompletableFuture<ImportReport> importResults(List<Result> results) {
+        List<String> parseErrors = new ArrayList<>();
+        for (int i = 0; i < (results == null ? 0 : results.size()); i++) {
+            parseErrors.add(null);
+        }
+        return importRows(results == null ? List.of() : results, parseErrors);
+    }
+
+    private CompletableFuture<ImportReport> importRows(List<Result> results, List<String> parseErrors) {
+        if (results.isEmpty()) {
+            throw new IllegalArgumentException("No rows to import.");
+        }
+        if (results.size() > maxRows) {
+            throw new IllegalArgumentException("At most " + maxRows + " rows can be imported at once.");
+        }
+
+        ImportRowOutcome[] outcomes = new ImportRowOutcome[results.size()];
+        List<Result> valid = new ArrayList<>(results.size());
+        List<Integer> validRows = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            String error = parseErrors.get(i) != null ? parseErrors.get(i) : ResultValidator.validationError(result);
+            if (error != null) {
+                outcomes[i] = new ImportRowOutcome(i + 1, ImportRowOutcome.INVALID, null, error);
+            } else {
+                result.setId(null); // Rows always create new records
+                valid.add(result);
+                validRows.add(i);
+            }
+        }
+
+        List<CompletableFuture<Result>> writes = valid.isEmpty() ? List.of() : firestoreService.addResultsBulkAsync(valid);
+        List<CompletableFuture<Void>> recorded = new ArrayList<>(writes.size());
+        for (int j = 0; j < writes.size(); j++) {
+            int index = validRows.get(j);
+            recorded.add(writes.get(j).handle((created, e) -> {
+                if (e == null) {
+                    outcomes[index] = new ImportRowOutcome(index + 1, ImportRowOutcome.CREATED, created.getId(), null);
+                } else if (FirestoreService.unwrap(e) instanceof DuplicateDocumentException duplicate) {
+                    outcomes[index] = new ImportRowOutcome(index + 1, ImportRowOutcome.DUPLICATE, null, duplicate.getMessage());
+                } else {
+                    Throwable cause = FirestoreService.unwrap(e);
+                    logger.warn("Bulk import row {} failed: {}", index + 1, cause.getMessage());
+                    outcomes[index] = new ImportRowOutcome(index + 1, ImportRowOutcome.FAILED, null, "Failed to add result.");
+                }
+                return null;
+            }));
+        }
+
+        return CompletableFuture.allOf(recorded.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<ImportRowOutcome> rows = List.of(outcomes);
+            int created = (int) rows.stream().filter(row -> ImportRowOutcome.CREATED.equals(row.getStatus())).count();
+            logger.info("Bulk import finished: {} of {} results created", created, rows.size());
+            return new ImportReport(rows.size(), created, rows.size() - created, rows);
+        });
+    }
+
+    private static String field(List<String> record, int position) {
+        return position < record.size() ? record.get(position).trim() : "";
+    }
+
+    /**
+     * Splits CSV text into records (RFC 4180: quoted fields may contain commas, newlines and
+     * doubled quotes). Blank lines are skipped.
+     */
+    static List<List<String>> parseCsv(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        int start = !csv.isEmpty() && csv.charAt(0) == '\uFEFF' ? 1 : 0; // Excel writes a BOM
+        for (int i = start; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                endRecord(records, record, field, fieldStarted);
+                record = new ArrayList<>();
+                fieldStarted = false;
+            } else {
+                field.append(c);
+                fieldStarted = true;
+            }
+        }
+        endRecord(records, record, field, fieldStarted);
+        return records;
+    }
+
+    private static void endRecord(List<List<String>> records, List<String> record, StringBuilder field, boolean fieldStarted) {
+        if (fieldStarted || !record.isEmpty()) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        field.setLength(0);
+    }
+}
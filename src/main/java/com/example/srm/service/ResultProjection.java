@@ -0,0 +1,36 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Result;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read model derived from the Results collection (e.g. per-course statistics).
+ * FirestoreService asks every projection for the document changes implied by results being added
+ * or removed and commits them in the same batch or transaction as the result write itself, so a
+ * read model never drifts from the results it summarises.
+ */
+interface ResultProjection {
+
+    /**
+     * Changes are applied as set-with-merge, so payloads should use FieldValue.increment and
+     * FieldValue.delete rather than read-modify-write; nested maps are merged key by key.
+     * @param db The Firestore instance to build document references from
+     * @param results The results being added or removed, carrying their document IDs
+     * @param added true when the results are being added, false when they are being removed
+     * @return The merge payload for each document to update
+     */
+    Map<DocumentReference, Map<String, Object>> changes(Firestore db, List<Result> results, boolean added);
+
+    /**
+     * Read-model documents are keyed by natural keys (course code, roll number), escaped like
+     * student and result IDs (see DocumentIds) so the ID never contains '/' or '%'. Documents written
+     * under the earlier URL-encoded IDs are moved by FirestoreService.migrateToNaturalIdsAsync.
+     */
+    static String documentId(String naturalKey) {
+        return DocumentIds.key(naturalKey);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Result;
+
+/**
+ * Validation rules for Result records, shared by the single-result endpoint and bulk imports
+ * so both accept exactly the same rows.
+ */
+public final class ResultValidator {
+
+    // Highest marks a result may carry; also bounds the ranking index (see RankingService)
+    public static final int MAX_MARKS = 100;
+
+    public static final String REQUIRED_FIELDS_MESSAGE =
+            "Roll number, course code, grade, and non-negative marks are required.";
+    public static final String MARKS_RANGE_MESSAGE = "Marks must be between 0 and " + MAX_MARKS + ".";
+
+    private ResultValidator() {
+    }
+
+    /**
+     * @param result The result to check
+     * @return The reason the result is invalid, or null if it may be stored
+     */
+    public static String validationError(Result result) {
+        if (result == null ||
+            result.getRollNumber() == null || result.getRollNumber().isEmpty() ||
+            result.getCourseCode() == null || result.getCourseCode().isEmpty() ||
+            result.getGrade() == null || result.getGrade().isEmpty() ||
+            result.getMarks() < 0) {
+            return REQUIRED_FIELDS_MESSAGE;
+        }
+        if (result.getMarks() > MAX_MARKS) {
+            return MARKS_RANGE_MESSAGE;
+        }
+        return null;
+    }
+}
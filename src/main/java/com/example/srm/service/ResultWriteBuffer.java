@@ -0,0 +1,331 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Result;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Optional write-behind path for single results (srm.results.write-behind.enabled).
+ *
+ * Results are put on a bounded in-memory queue and a flusher thread commits them in groups through
+ * FirestoreService.addResultGroupAsync, with at most MAX_IN_FLIGHT commits outstanding. Once a commit
+ * slot is free, a group is committed when it holds max-batch-size results or max-delay after its first
+ * result was queued, whichever comes first. Under load, results queue up while the slots are busy, so
+ * many concurrent submissions share one commit RPC and the read-model documents they touch (course
+ * statistics, transcripts) are incremented once per group instead of once per result. With the
+ * default max-delay of 0 a lone result is committed at once; a positive max-delay forms larger
+ * groups at the cost of that much added latency (see ResultWriteBenchmark).
+ *
+ * - Backpressure: when the queue is full, submit() waits up to offer-timeout for space and then
+ *   throws WriteRejectedException, which the controller answers with 503 and Retry-After.
+ * - Memory is bounded by the queue capacity plus MAX_IN_FLIGHT groups being committed.
+ * - A group that fails because one of its results already exists is retried result by result, so
+ *   only the duplicate fails. Two results with the same key are never put in the same group.
+ * - On shutdown no new results are accepted and everything queued is committed before the
+ *   application context closes (bounded by shutdown-timeout); whatever is still unwritten at the
+ *   deadline fails with WriteRejectedException. A submission racing with shutdown is either
+ *   committed or refused, never left in the queue.
+ *
+ * A submission completes only once its group has committed, so callers still see duplicates and
+ * failures, and nothing is acknowledged that a crash could lose: the queue is in memory.
+ */
+@Service
+public class ResultWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultWriteBuffer.class);
+
+    // Group commits in flight at once; the flusher waits for one to finish before sending another
+    private static final int MAX_IN_FLIGHT = 4;
+    // How often an idle flusher checks whether the buffer is shutting down
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final FirestoreService firestoreService;
+    private final MeterRegistry registry;
+
+    @Value("${srm.results.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${srm.results.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${srm.results.write-behind.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${srm.results.write-behind.max-delay:0ms}")
+    private Duration maxDelay;
+
+    @Value("${srm.results.write-behind.offer-timeout:100ms}")
+    private Duration offerTimeout;
+
+    @Value("${srm.results.write-behind.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    private BlockingQueue<PendingWrite> queue;
+    // Results that could not join the previous group; owned by the flusher, then by stop() once it has exited
+    private final Deque<PendingWrite> deferred = new ArrayDeque<>();
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    private int batchSize;
+    private Thread flusher;
+    private volatile boolean closed;
+
+    private Counter rejected;
+    private DistributionSummary groupSize;
+    private Timer queueLatency;
+
+    public ResultWriteBuffer(FirestoreService firestoreService, MeterRegistry registry) {
+        this.firestoreService = firestoreService;
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled) {
+            logger.info("Result write-behind disabled; results are committed one by one");
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        batchSize = Math.max(1, Math.min(maxBatchSize, firestoreService.maxResultsPerBatch()));
+        Gauge.builder("srm.results.write-buffer.queued", queue, BlockingQueue::size)
+                .description("Results waiting in the write-behind queue")
+                .register(registry);
+        rejected = Counter.builder("srm.results.write-buffer.rejected")
+                .description("Results refused because the write-behind queue was full or closed")
+                .register(registry);
+        groupSize = DistributionSummary.builder("srm.results.write-buffer.group-size")
+                .description("Results committed per group commit")
+                .baseUnit("results")
+                .register(registry);
+        queueLatency = Timer.builder("srm.results.write-buffer.latency")
+                .description("Time from queueing a result until its group committed")
+                .register(registry);
+
+        flusher = new Thread(this::flushLoop, "result-write-buffer");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("Result write-behind enabled: capacity {}, groups of up to {} results or {} ms",
+                capacity, batchSize, maxDelay.toMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a result for the next group commit, waiting up to offer-timeout for space.
+     * @return Completes with the result (its ID set) once its group has committed, or fails with
+     *         DuplicateDocumentException if the student already has a result for the course
+     * @throws IllegalArgumentException if the roll number or course code is missing
+     * @throws IllegalStateException if write-behind is disabled
+     * @throws WriteRejectedException if the server is shutting down or the queue stayed full
+     */
+    public CompletableFuture<Result> submit(Result result) {
+        if (!enabled) {
+            throw new IllegalStateException("Result write-behind is disabled.");
+        }
+        String key = DocumentIds.result(result.getRollNumber(), result.getCourseCode());
+        result.setId(key);
+        if (closed) {
+            rejected.increment();
+            throw new WriteRejectedException("The server is shutting down; retry shortly.");
+        }
+        PendingWrite write = new PendingWrite(result, key, new CompletableFuture<>(), System.nanoTime());
+        boolean queued;
+        try {
+            queued = queue.offer(write, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            rejected.increment();
+            throw new WriteRejectedException("Too many results are waiting to be written; retry shortly.");
+        }
+        // stop() may have drained the queue for the last time between the check above and the offer.
+        // If the result is still queued, take it back; if not, stop() or the flusher has it and commits it
+        if (closed && queue.remove(write)) {
+            rejected.increment();
+            throw new WriteRejectedException("The server is shutting down; retry shortly.");
+        }
+        return write.future();
+    }
+
+    private void flushLoop() {
+        try {
+            while (!closed || !queue.isEmpty() || !deferred.isEmpty()) {
+                // Take a commit slot first: while every slot is busy, results pile up in the queue and
+                // the next group picks them all up, so groups grow with the load
+                inFlight.acquire();
+                List<PendingWrite> group = nextGroup();
+                if (group.isEmpty()) {
+                    inFlight.release();
+                } else {
+                    commit(group);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Only stop() interrupts the flusher; it commits what is still queued or deferred
+            Thread.currentThread().interrupt();
+            logger.warn("Result write-behind flusher interrupted; {} results left to the shutdown flush",
+                    queue.size() + deferred.size());
+        }
+    }
+
+    /**
+     * Collects the next group: results deferred from the previous group first, then queued results,
+     * until the group is full or max-delay has passed since its first result was queued. Results that
+     * queued up while the previous commits were in flight are past that delay and go out at once.
+     * A result whose key is already in the group is deferred to the next one.
+     */
+    private List<PendingWrite> nextGroup() throws InterruptedException {
+        List<PendingWrite> group = new ArrayList<>(batchSize);
+        Set<String> keys = new HashSet<>();
+        for (int i = deferred.size(); i > 0 && group.size() < batchSize; i--) {
+            add(deferred.poll(), group, keys);
+        }
+        try {
+            if (group.isEmpty()) {
+                PendingWrite first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    return group;
+                }
+                add(first, group, keys);
+            }
+            long deadline = group.get(0).queuedAt() + maxDelay.toNanos();
+            while (group.size() < batchSize) {
+                long remaining = deadline - System.nanoTime();
+                PendingWrite next = remaining > 0 && !closed ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                if (next == null) {
+                    break;
+                }
+                add(next, group, keys);
+            }
+        } catch (InterruptedException e) {
+            // Hand the group over to the shutdown flush instead of dropping it
+            deferred.addAll(group);
+            throw e;
+        }
+        return group;
+    }
+
+    private void add(PendingWrite write, List<PendingWrite> group, Set<String> keys) {
+        if (keys.add(write.key())) {
+            group.add(write);
+        } else {
+            deferred.add(write);
+        }
+    }
+
+    private void commit(List<PendingWrite> group) {
+        List<Result> results = group.stream().map(PendingWrite::result).toList();
+        CompletableFuture<List<Result>> commit;
+        try {
+            commit = firestoreService.addResultGroupAsync(results);
+        } catch (RuntimeException e) {
+            commit = CompletableFuture.failedFuture(e);
+        }
+        commit.handle((written, e) -> {
+            if (e == null) {
+                groupSize.record(group.size());
+                group.forEach(this::complete);
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            Throwable cause = FirestoreService.unwrap(e);
+            if (group.size() > 1 && cause instanceof DuplicateDocumentException) {
+                // The batch does not say which result exists; commit each on its own so only that one fails
+                logger.debug("Group of {} results contained a duplicate; retrying them one by one", group.size());
+                return CompletableFuture.allOf(group.stream()
+                        .map(write -> firestoreService.addResultAsync(write.result()).handle((result, error) -> {
+                            if (error == null) {
+                                complete(write);
+                            } else {
+                                write.future().completeExceptionally(FirestoreService.unwrap(error));
+                            }
+                            return null;
+                        }))
+                        .toArray(CompletableFuture[]::new));
+            }
+            if (!(cause instanceof DuplicateDocumentException)) {
+                logger.warn("Group commit of {} results failed: {}", group.size(), cause.getMessage());
+            }
+            group.forEach(write -> write.future().completeExceptionally(cause));
+            return CompletableFuture.<Void>completedFuture(null);
+        })
+                .thenCompose(Function.identity())
+                // The permit is held until every result of the group has its outcome, retries included
+                .whenComplete((ignored, e) -> inFlight.release());
+    }
+
+    private void complete(PendingWrite write) {
+        queueLatency.record(System.nanoTime() - write.queuedAt(), TimeUnit.NANOSECONDS);
+        write.future().complete(write.result());
+    }
+
+    /**
+     * Stops accepting results and commits everything already queued before the context closes.
+     * Results that cannot be committed before shutdown-timeout fail with WriteRejectedException.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!enabled || closed) {
+            return;
+        }
+        closed = true;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        logger.info("Flushing {} queued results before shutdown", queue.size());
+        flusher.join(Math.max(1, shutdownTimeout.toMillis()));
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            flusher.join();
+        }
+        // Whatever the flusher left behind, plus results queued by a submit() that raced with closing.
+        // Such a submit() takes its result back unless it has been drained here, so drain until empty
+        List<PendingWrite> leftovers = new ArrayList<>(deferred);
+        deferred.clear();
+        queue.drainTo(leftovers);
+        while (!leftovers.isEmpty()) {
+            for (PendingWrite write : leftovers) {
+                if (inFlight.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    commit(List.of(write));
+                } else {
+                    write.future().completeExceptionally(
+                            new WriteRejectedException("The server shut down before the result was written; retry."));
+                }
+            }
+            leftovers.clear();
+            queue.drainTo(leftovers);
+        }
+        long remaining = deadline - System.nanoTime();
+        if (inFlight.tryAcquire(MAX_IN_FLIGHT, Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+            inFlight.release(MAX_IN_FLIGHT);
+            logger.info("Result write-behind flushed");
+        } else {
+            logger.error("Result write-behind did not finish flushing within {}", shutdownTimeout);
+        }
+    }
+
+    private record PendingWrite(Result result, String key, CompletableFuture<Result> future, long queuedAt) {
+    }
+}
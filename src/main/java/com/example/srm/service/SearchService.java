@@ -0,0 +1,216 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Lecturer;
+import com.example.srm.model.Student;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory typeahead search over students (name, roll number, email) and lecturers (name, email),
+ * backed by one PrefixIndex per collection.
+ *
+ * Each index is fed by a Firestore snapshot listener (see CollectionListener): the first snapshot loads
+ * every document, later snapshots apply only the added/modified/removed documents, so writes made through
+ * FirestoreService, by other instances and by migrations are all picked up. Until the first snapshot of a
+ * collection arrives, and while its listener re-subscribes after an error, its search throws
+ * IllegalStateException.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    // Most matches one search returns
+    public static final int MAX_LIMIT = 50;
+
+    @Value("${srm.search.enabled:true}")
+    private boolean enabled;
+
+    private final SearchMirror<Student> students = new SearchMirror<>(FirestoreService.STUDENTS_COLLECTION,
+            FirestoreService::toStudent, new PrefixIndex<>(SearchService::studentWords));
+    private final SearchMirror<Lecturer> lecturers = new SearchMirror<>(FirestoreService.LECTURERS_COLLECTION,
+            FirestoreService::toLecturer, new PrefixIndex<>(SearchService::lecturerWords));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Search index disabled");
+            return;
+        }
+        students.start();
+        lecturers.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        students.stop();
+        lecturers.stop();
+    }
+
+    /**
+     * Finds students whose name, roll number or email (the part before '@') has words starting
+     * with every word of the query. Roll numbers also match on their trailing digits, so "1234"
+     * finds SRM001234.
+     * @throws IllegalArgumentException if the query has no letters or digits or the limit is not 1..MAX_LIMIT
+     * @throws IllegalStateException if the index has not finished loading
+     */
+    public List<Student> searchStudents(String query, int limit) {
+        return students.search(query, limit);
+    }
+
+    /**
+     * Finds lecturers whose name or email (the part before '@') has words starting with every word of the query.
+     * @throws IllegalArgumentException if the query has no letters or digits or the limit is not 1..MAX_LIMIT
+     * @throws IllegalStateException if the index has not finished loading
+     */
+    public List<Lecturer> searchLecturers(String query, int limit) {
+        return lecturers.search(query, limit);
+    }
+
+    /**
+     * The searchable words of a student.
+     */
+    static Collection<String> studentWords(Student student) {
+        List<String> words = new ArrayList<>(PrefixIndex.words(student.getName()));
+        for (String word : PrefixIndex.words(student.getRollNumber())) {
+            words.add(word);
+            addDigitSuffixes(word, words);
+        }
+        words.addAll(PrefixIndex.words(localPart(student.getEmail())));
+        return words;
+    }
+
+    /**
+     * The searchable words of a lecturer.
+     */
+    static Collection<String> lecturerWords(Lecturer lecturer) {
+        List<String> words = new ArrayList<>(PrefixIndex.words(lecturer.getLecturerName()));
+        words.addAll(PrefixIndex.words(localPart(lecturer.getLecturerEmail())));
+        return words;
+    }
+
+    /**
+     * Adds the trailing digits of a word such as "srm001234" as "001234" and "1234".
+     */
+    private static void addDigitSuffixes(String word, List<String> words) {
+        int start = word.length();
+        while (start > 0 && Character.isDigit(word.charAt(start - 1))) {
+            start--;
+        }
+        if (start == 0 || start == word.length()) {
+            return;
+        }
+        String digits = word.substring(start);
+        words.add(digits);
+        String significant = digits.replaceFirst("^0+", "");
+        if (!significant.isEmpty() && !significant.equals(digits)) {
+            words.add(significant);
+        }
+    }
+
+    /**
+     * @return The part of the address before '@'; the domain is shared by most people and would match everyone
+     */
+    private static String localPart(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        return at < 0 ? email : email.substring(0, at);
+    }
+
+    /**
+     * Search index over one collection, maintained from a snapshot listener. The index is only
+     * written from the listener callback, which the Firestore SDK invokes serially; searches take
+     * the read lock, so they run concurrently with each other and never see a half-applied change.
+     */
+    private static final class SearchMirror<T> {
+
+        private final String collection;
+        private final Function<DocumentSnapshot, T> mapper;
+        private final PrefixIndex<T> index;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean ready;
+        private final CollectionListener listener;
+
+        SearchMirror(String collection, Function<DocumentSnapshot, T> mapper, PrefixIndex<T> index) {
+            this.collection = collection;
+            this.mapper = mapper;
+            this.index = index;
+            this.listener = new CollectionListener(collection, "search index", this::apply, this::clear);
+        }
+
+        void start() {
+            listener.start();
+        }
+
+        void stop() {
+            listener.stop();
+            clear();
+        }
+
+        List<T> search(String query, int limit) {
+            if (PrefixIndex.words(query).isEmpty()) {
+                throw new IllegalArgumentException("q must contain at least one letter or digit.");
+            }
+            if (limit < 1 || limit > MAX_LIMIT) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ".");
+            }
+            lock.readLock().lock();
+            try {
+                if (!ready) {
+                    throw new IllegalStateException("Search index for " + collection + " is not loaded yet.");
+                }
+                return index.search(query, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void apply(QuerySnapshot querySnapshot) {
+            lock.writeLock().lock();
+            try {
+                for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+                    String id = change.getDocument().getId();
+                    T item = change.getType() == DocumentChange.Type.REMOVED ? null : mapper.apply(change.getDocument());
+                    if (item == null) {
+                        index.remove(id);
+                    } else {
+                        index.put(id, item);
+                    }
+                }
+                if (!ready) {
+                    logger.info("Search index loaded: {} {}", index.size(), collection);
+                }
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void clear() {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                index.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Result;
+import com.example.srm.model.Transcript;
+import com.example.srm.model.TranscriptEntry;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maintains one transcript document per student in 'Transcripts', holding an 'entries' map keyed by
+ * result ID with the course code, course name (as known when the result was written), marks and grade.
+ * Adding a result merges in one entry, deleting it removes that entry, so rendering a transcript is a
+ * single document read instead of fetching every result and course and joining them on the client.
+ * The CGPA is computed on read from the entries and the configured grade point scale.
+ */
+@Component
+public class TranscriptProjection implements ResultProjection {
+
+    static final String TRANSCRIPTS_COLLECTION = "Transcripts";
+
+    private static final String ROLL_NUMBER_FIELD = "rollNumber";
+    private static final String ENTRIES_FIELD = "entries";
+
+    private final ReferenceDataCache referenceDataCache;
+    private final Map<String, Double> gradePoints;
+
+    /**
+     * @param gradePointScale Comma-separated GRADE=POINTS pairs, e.g. "O=10,A+=9,A=8"; grades are matched case-insensitively
+     */
+    public TranscriptProjection(ReferenceDataCache referenceDataCache,
+                                @Value("${srm.transcript.grade-points:O=10,A+=9,A=8,B+=7,B=6,C=5,P=4,F=0,Ab=0}") String gradePointScale) {
+        this.referenceDataCache = referenceDataCache;
+        this.gradePoints = parseScale(gradePointScale);
+    }
+
+    private static Map<String, Double> parseScale(String scale) {
+        Map<String, Double> points = new HashMap<>();
+        for (String pair : scale.split(",")) {
+            String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid grade point entry '" + pair + "', expected GRADE=POINTS.");
+            }
+            points.put(parts[0].trim().toUpperCase(Locale.ROOT), Double.parseDouble(parts[1].trim()));
+        }
+        return Map.copyOf(points);
+    }
+
+    /**
+     * @return The grade points for a grade on the configured scale, or null if the grade is not on it
+     */
+    Double gradePoints(String grade) {
+        return grade == null ? null : gradePoints.get(grade.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return The highest grade points on the scale, i.e. the largest possible CGPA
+     */
+    double maxGradePoints() {
+        return gradePoints.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+    }
+
+    /**
+     * Rounds a grade point average the way transcripts report it (two decimals).
+     */
+    static double roundCgpa(double average) {
+        return Math.round(average * 100) / 100.0;
+    }
+
+    DocumentReference transcriptDocument(Firestore db, String rollNumber) {
+        return db.collection(TRANSCRIPTS_COLLECTION).document(ResultProjection.documentId(rollNumber));
+    }
+
+    @Override
+    public Map<DocumentReference, Map<String, Object>> changes(Firestore db, List<Result> results, boolean added) {
+        Map<String, Map<String, Object>> entriesByStudent = new HashMap<>();
+        for (Result result : results) {
+            Object entry = FieldValue.delete();
+            if (added) {
+                Map<String, Object> fields = new HashMap<>();
+                fields.put("courseCode", result.getCourseCode());
+                fields.put("courseName", referenceDataCache.getCourseName(result.getCourseCode()));
+                fields.put("marks", result.getMarks());
+                fields.put("grade", result.getGrade());
+                entry = fields;
+            }
+            entriesByStudent.computeIfAbsent(result.getRollNumber(), rollNumber -> new HashMap<>())
+                    .put(result.getId(), entry);
+        }
+
+        Map<DocumentReference, Map<String, Object>> changes = new HashMap<>();
+        entriesByStudent.forEach((rollNumber, entries) -> {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put(ROLL_NUMBER_FIELD, rollNumber);
+            payload.put(ENTRIES_FIELD, entries);
+            changes.put(transcriptDocument(db, rollNumber), payload);
+        });
+        return changes;
+    }
+
+    /**
+     * Builds the transcript from a student's transcript document.
+     * Course names are taken from the reference data cache when it knows the course, so renamed
+     * courses show their current name; otherwise the name stored with the entry is used.
+     * @param document The student's transcript document (may not exist, meaning no results yet)
+     */
+    Transcript summarize(String rollNumber, DocumentSnapshot document) {
+        List<TranscriptEntry> courses = new ArrayList<>();
+        Object value = document != null && document.exists() ? document.get(ENTRIES_FIELD) : null;
+        if (value instanceof Map<?, ?> entries) {
+            entries.forEach((resultId, fields) -> {
+                if (fields instanceof Map<?, ?> entry) {
+                    String courseCode = (String) entry.get("courseCode");
+                    String courseName = referenceDataCache.getCourseName(courseCode);
+                    String grade = (String) entry.get("grade");
+                    Number marks = (Number) entry.get("marks");
+                    courses.add(new TranscriptEntry(String.valueOf(resultId), courseCode,
+                            courseName != null ? courseName : (String) entry.get("courseName"),
+                            marks == null ? 0 : marks.intValue(), grade,
+                            gradePoints(grade)));
+                }
+            });
+        }
+        courses.sort(Comparator.comparing(TranscriptEntry::getCourseCode, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(TranscriptEntry::getResultId));
+
+        int graded = 0;
+        double totalPoints = 0;
+        for (TranscriptEntry entry : courses) {
+            if (entry.getGradePoints() != null) {
+                graded++;
+                totalPoints += entry.getGradePoints();
+            }
+        }
+        Double cgpa = graded == 0 ? null : roundCgpa(totalPoints / graded);
+        return new Transcript(rollNumber, courses, graded, cgpa);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.srm.service;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A value read from Firestore together with a strong ETag of the documents it was built from.
+ * The ETag is derived from each document's ID and update time, so it changes whenever a document
+ * is added, modified or removed, and is the same whether the documents were read directly or
+ * mirrored by ReferenceDataCache. It is independent of the order the documents were read in.
+ *
+ * @param value The mapped value (a model, or a list of models)
+ * @param eTag Opaque version tag (unquoted)
+ */
+public record Versioned<T>(T value, String eTag) {
+
+    static String eTag(Iterable<? extends DocumentSnapshot> documents) {
+        Digest digest = new Digest();
+        for (DocumentSnapshot document : documents) {
+            digest.add(document.getId(), document.getUpdateTime());
+        }
+        return digest.eTag();
+    }
+
+    /**
+     * @param updateTimes Update time of each document, by document ID
+     */
+    static String eTag(Map<String, Timestamp> updateTimes) {
+        Digest digest = new Digest();
+        updateTimes.forEach(digest::add);
+        return digest.eTag();
+    }
+
+    /**
+     * Order-independent digest: the sum of a 128-bit hash per document, plus the document count.
+     */
+    private static final class Digest {
+
+        private long high;
+        private long low;
+        private int count;
+
+        void add(String id, Timestamp updateTime) {
+            Hasher hasher = Hashing.murmur3_128().newHasher().putString(id, StandardCharsets.UTF_8);
+            if (updateTime != null) {
+                hasher.putLong(updateTime.getSeconds()).putInt(updateTime.getNanos());
+            }
+            ByteBuffer hash = ByteBuffer.wrap(hasher.hash().asBytes());
+            low += hash.getLong();
+            high += hash.getLong();
+            count++;
+        }
+
+        String eTag() {
+            return String.format("%x-%016x%016x", count, high, low);
+        }
+    }
+}
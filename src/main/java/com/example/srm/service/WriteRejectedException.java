@@ -0,0 +1,14 @@
+package com.example.srm.service;
+
+/**
+ * Thrown when ResultWriteBuffer cannot take or finish a write for now: its queue stayed full, or the
+ * server is shutting down. Nothing was written, so the client may retry the same request.
+ */
+public class WriteRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public WriteRejectedException(String message) {
+        super(message);
+    }
+}
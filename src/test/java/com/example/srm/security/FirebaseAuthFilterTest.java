@@ -0,0 +1,136 @@
+package com.example.srm.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static com.example.srm.security.FirebaseTokenVerifierTest.KEY_ID;
+import static com.example.srm.security.FirebaseTokenVerifierTest.PROJECT_ID;
+import static com.example.srm.security.FirebaseTokenVerifierTest.claims;
+import static com.example.srm.security.FirebaseTokenVerifierTest.sign;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FirebaseAuthFilterTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    private KeyPair keyPair;
+    private FirebaseAuthFilter filter;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        keyPair = FirebaseTokenVerifierTest.generateKeyPair();
+        SigningKeyProvider keys = keyId -> KEY_ID.equals(keyId) ? keyPair.getPublic() : null;
+        ObjectMapper objectMapper = new ObjectMapper();
+        FirebaseTokenVerifier verifier = new FirebaseTokenVerifier(keys, objectMapper, PROJECT_ID, 100,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        filter = new FirebaseAuthFilter(verifier, objectMapper);
+    }
+
+    @Test
+    void requestWithoutTokenPassesWhenAuthIsOptional() throws Exception {
+        MockHttpServletResponse response = run(request("POST", "/api/results", null));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void adminRequestWithoutTokenIsRejectedEvenWhenAuthIsOptional() throws Exception {
+        assertThat(run(request("DELETE", "/api/students/S1", null)).getStatus()).isEqualTo(401);
+        assertThat(run(request("DELETE", "/api/courses/CS101", null)).getStatus()).isEqualTo(401);
+        assertThat(run(request("POST", "/api/system/migrations/natural-ids", null)).getStatus()).isEqualTo(401);
+        assertThat(run(request("POST", "/api/courses/CS101/stats/rebuild", null)).getStatus()).isEqualTo(401);
+    }
+
+    @Test
+    void requestWithoutTokenIsRejectedWhenAuthIsRequired() throws Exception {
+        ReflectionTestUtils.setField(filter, "authRequired", true);
+
+        MockHttpServletResponse response = run(request("GET", "/api/students", null));
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getHeader(HttpHeaders.WWW_AUTHENTICATE)).isEqualTo("Bearer");
+    }
+
+    @Test
+    void invalidTokenIsRejected() throws Exception {
+        MockHttpServletResponse response = run(request("GET", "/api/students", "not-a-jwt"));
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentAsString()).contains("Token is not a JWT.");
+    }
+
+    @Test
+    void verifiedCallerIsExposedToControllers() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/students", token("student"));
+
+        MockHttpServletResponse response = run(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        VerifiedToken user = (VerifiedToken) request.getAttribute(FirebaseAuthFilter.AUTHENTICATED_USER);
+        assertThat(user.getRole()).isEqualTo("student");
+    }
+
+    @Test
+    void studentCannotChangeResults() throws Exception {
+        MockHttpServletResponse response = run(request("POST", "/api/results", token("student")));
+
+        assertThat(response.getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void studentCanRaiseDispute() throws Exception {
+        MockHttpServletResponse response = run(request("POST", "/api/disputes", token("student")));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void lecturerCanChangeResultsButNotDeleteStudents() throws Exception {
+        assertThat(run(request("POST", "/api/results", token("lecturer"))).getStatus()).isEqualTo(200);
+        assertThat(run(request("DELETE", "/api/students/S1", token("lecturer"))).getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void onlyAdminCanRunAdministration() throws Exception {
+        assertThat(run(request("POST", "/api/system/migrations/natural-ids", token("lecturer"))).getStatus()).isEqualTo(403);
+        assertThat(run(request("GET", "/api/system/http-client", token(null))).getStatus()).isEqualTo(403);
+        assertThat(run(request("POST", "/api/courses/CS101/stats/rebuild", token("admin"))).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authEndpointsAreNotFiltered() throws Exception {
+        ReflectionTestUtils.setField(filter, "authRequired", true);
+
+        assertThat(run(request("POST", "/api/auth/login", null)).getStatus()).isEqualTo(200);
+    }
+
+    private String token(String role) {
+        return sign(keyPair.getPrivate(), KEY_ID, claims(role, NOW));
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (token != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
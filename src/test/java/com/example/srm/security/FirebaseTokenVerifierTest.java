@@ -0,0 +1,237 @@
+package com.example.srm.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FirebaseTokenVerifierTest {
+
+    static final String PROJECT_ID = "srm-test";
+    static final String KEY_ID = "test-key";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private KeyPair keyPair;
+    private final AtomicInteger keyLookups = new AtomicInteger();
+    private MutableClock clock;
+    private FirebaseTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        keyPair = generateKeyPair();
+        clock = new MutableClock(Instant.parse("2024-05-01T10:00:00Z"));
+        verifier = newVerifier(2);
+    }
+
+    private FirebaseTokenVerifier newVerifier(int cacheSize) {
+        SigningKeyProvider keys = keyId -> {
+            keyLookups.incrementAndGet();
+            return KEY_ID.equals(keyId) ? keyPair.getPublic() : null;
+        };
+        return new FirebaseTokenVerifier(keys, objectMapper, PROJECT_ID, cacheSize, clock);
+    }
+
+    @Test
+    void acceptsValidToken() {
+        VerifiedToken token = verifier.verify(sign(keyPair.getPrivate(), KEY_ID, claims("lecturer", clock.instant())));
+
+        assertThat(token.getUid()).isEqualTo("user-1");
+        assertThat(token.getEmail()).isEqualTo("user-1@example.com");
+        assertThat(token.getRole()).isEqualTo("lecturer");
+        assertThat(token.getExpiresAt()).isEqualTo(clock.instant().plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        Map<String, Object> claims = claims("lecturer", clock.instant().minus(Duration.ofHours(2)));
+
+        assertThatThrownBy(() -> verifier.verify(sign(keyPair.getPrivate(), KEY_ID, claims)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token has expired.");
+    }
+
+    @Test
+    void rejectsTokenForAnotherProject() {
+        Map<String, Object> claims = claims("lecturer", clock.instant());
+        claims.put("aud", "another-project");
+
+        assertThatThrownBy(() -> verifier.verify(sign(keyPair.getPrivate(), KEY_ID, claims)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token was issued for a different project.");
+    }
+
+    @Test
+    void rejectsTokenFromAnotherIssuer() {
+        Map<String, Object> claims = claims("lecturer", clock.instant());
+        claims.put("iss", "https://securetoken.google.com/another-project");
+
+        assertThatThrownBy(() -> verifier.verify(sign(keyPair.getPrivate(), KEY_ID, claims)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token has an unexpected issuer.");
+    }
+
+    @Test
+    void rejectsUnknownKeyId() {
+        String token = sign(keyPair.getPrivate(), "rotated-away", claims("lecturer", clock.instant()));
+
+        assertThatThrownBy(() -> verifier.verify(token))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token signed with an unknown key.");
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() throws GeneralSecurityException {
+        String token = sign(generateKeyPair().getPrivate(), KEY_ID, claims("lecturer", clock.instant()));
+
+        assertThatThrownBy(() -> verifier.verify(token))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token signature is invalid.");
+    }
+
+    @Test
+    void rejectsTamperedClaims() {
+        String[] parts = sign(keyPair.getPrivate(), KEY_ID, claims("student", clock.instant())).split("\\.");
+        String forged = parts[0] + "." + encode(claims("admin", clock.instant())) + "." + parts[2];
+
+        assertThatThrownBy(() -> verifier.verify(forged))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token signature is invalid.");
+    }
+
+    @Test
+    void repeatTokenIsServedFromCache() {
+        String token = sign(keyPair.getPrivate(), KEY_ID, claims("lecturer", clock.instant()));
+
+        VerifiedToken first = verifier.verify(token);
+        VerifiedToken second = verifier.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(keyLookups).hasValue(1);
+    }
+
+    @Test
+    void cachedTokenStillExpires() {
+        String token = sign(keyPair.getPrivate(), KEY_ID, claims("lecturer", clock.instant()));
+        verifier.verify(token);
+
+        clock.advance(Duration.ofHours(2));
+
+        assertThatThrownBy(() -> verifier.verify(token))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token has expired.");
+    }
+
+    @Test
+    void leastRecentlyUsedTokenIsEvicted() {
+        FirebaseTokenVerifier verifier = newVerifier(1);
+        String first = sign(keyPair.getPrivate(), KEY_ID, claims("lecturer", clock.instant()));
+        String second = sign(keyPair.getPrivate(), KEY_ID, claims("student", clock.instant()));
+
+        verifier.verify(first);
+        verifier.verify(second);
+        verifier.verify(first);
+
+        assertThat(keyLookups).hasValue(3);
+    }
+
+    /**
+     * Claims of a token for user-1 of PROJECT_ID, issued at issuedAt and valid for an hour.
+     */
+    static Map<String, Object> claims(String role, Instant issuedAt) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", "https://securetoken.google.com/" + PROJECT_ID);
+        claims.put("aud", PROJECT_ID);
+        claims.put("sub", "user-1");
+        claims.put("email", "user-1@example.com");
+        claims.put("iat", issuedAt.getEpochSecond());
+        claims.put("exp", issuedAt.plus(Duration.ofHours(1)).getEpochSecond());
+        if (role != null) {
+            claims.put("role", role);
+        }
+        return claims;
+    }
+
+    /**
+     * Mints an RS256 JWT like Firebase Auth does.
+     */
+    static String sign(PrivateKey key, String keyId, Map<String, Object> claims) {
+        Map<String, Object> header = new HashMap<>();
+        header.put("alg", "RS256");
+        header.put("kid", keyId);
+        header.put("typ", "JWT");
+        String signed = encode(header) + "." + encode(claims);
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(key);
+            signature.update(signed.getBytes(StandardCharsets.US_ASCII));
+            return signed + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static KeyPair generateKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String encode(Map<String, Object> json) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(json));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A clock the test can move forward.
+     */
+    static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
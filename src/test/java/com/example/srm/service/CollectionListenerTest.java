@@ -0,0 +1,116 @@
+package com.example.srm.service;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.EventListener;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreException;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QuerySnapshot;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CollectionListenerTest {
+
+    private final List<EventListener<QuerySnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final List<ListenerRegistration> registrations = new ArrayList<>();
+    private final List<QuerySnapshot> applied = new CopyOnWriteArrayList<>();
+    private final AtomicInteger resets = new AtomicInteger();
+    private CollectionReference collection;
+    private CollectionListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Firestore firestore = mock(Firestore.class);
+        collection = mock(CollectionReference.class);
+        when(firestore.collection("Results")).thenReturn(collection);
+        when(collection.addSnapshotListener(any(EventListener.class))).thenAnswer(invocation -> {
+            listeners.add(invocation.getArgument(0));
+            ListenerRegistration registration = mock(ListenerRegistration.class);
+            registrations.add(registration);
+            return registration;
+        });
+        listener = new CollectionListener("Results", "test index", applied::add, resets::incrementAndGet,
+                () -> firestore, Duration.ofMillis(10));
+    }
+
+    @Test
+    void deliversSnapshots() {
+        listener.start();
+        QuerySnapshot snapshot = mock(QuerySnapshot.class);
+
+        listeners.get(0).onEvent(snapshot, null);
+
+        assertThat(applied).containsExactly(snapshot);
+        assertThat(resets).hasValue(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resetsAndResubscribesAfterAnError() {
+        listener.start();
+
+        listeners.get(0).onEvent(null, error());
+
+        assertThat(resets).hasValue(1);
+        verify(collection, timeout(2000).times(2)).addSnapshotListener(any(EventListener.class));
+        QuerySnapshot reloaded = mock(QuerySnapshot.class);
+        listeners.get(1).onEvent(reloaded, null);
+        assertThat(applied).containsExactly(reloaded);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ignoresReplacedListener() {
+        listener.start();
+        EventListener<QuerySnapshot> first = listeners.get(0);
+        first.onEvent(null, error());
+        verify(collection, timeout(2000).times(2)).addSnapshotListener(any(EventListener.class));
+
+        first.onEvent(mock(QuerySnapshot.class), null);
+        first.onEvent(null, error());
+
+        assertThat(applied).isEmpty();
+        assertThat(resets).hasValue(1);
+    }
+
+    @Test
+    void stopCancelsPendingResubscription() throws InterruptedException {
+        listener.start();
+        listeners.get(0).onEvent(null, error());
+
+        listener.stop();
+        Thread.sleep(100);
+
+        assertThat(listeners).hasSize(1);
+    }
+
+    @Test
+    void stopRemovesRegistrationAndIgnoresLateSnapshots() {
+        listener.start();
+
+        listener.stop();
+        listeners.get(0).onEvent(mock(QuerySnapshot.class), null);
+
+        verify(registrations.get(0)).remove();
+        assertThat(applied).isEmpty();
+    }
+
+    private static FirestoreException error() {
+        return FirestoreException.forServerRejection(Status.UNAVAILABLE, "listen stream closed");
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.srm.service;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.EventListener;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CollectionVersionTest {
+
+    private final List<EventListener<QuerySnapshot>> listeners = new ArrayList<>();
+    private CollectionVersion version;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Firestore firestore = mock(Firestore.class);
+        CollectionReference collection = mock(CollectionReference.class);
+        when(firestore.collection("Students")).thenReturn(collection);
+        when(collection.addSnapshotListener(any(EventListener.class))).thenAnswer(invocation -> {
+            listeners.add(invocation.getArgument(0));
+            return mock(ListenerRegistration.class);
+        });
+        version = new CollectionVersion("Students", () -> firestore);
+        version.start();
+    }
+
+    @Test
+    void matchesTheETagOfTheDocumentsRead() {
+        assertThat(version.eTag()).isNull();
+
+        deliver(10, added("S1", 5), added("S2", 7));
+
+        assertThat(version.eTag()).isEqualTo(Versioned.eTag(Map.of("S1", time(5), "S2", time(7))));
+    }
+
+    @Test
+    void withholdsVersionUntilListenerHasSeenLocalWrite() {
+        deliver(10, added("S1", 5));
+        String before = version.eTag();
+
+        version.written(time(12));
+
+        assertThat(version.eTag()).isNull();
+
+        deliver(11, added("S2", 11));
+
+        assertThat(version.eTag()).isNull();
+
+        deliver(12, added("S3", 12));
+
+        assertThat(version.eTag()).isNotNull().isNotEqualTo(before);
+    }
+
+    @Test
+    void olderWriteDoesNotShortenTheWait() {
+        deliver(10, added("S1", 5));
+
+        version.written(time(20));
+        version.written(time(15));
+        deliver(15, added("S2", 15));
+
+        assertThat(version.eTag()).isNull();
+    }
+
+    @Test
+    void removalChangesVersion() {
+        deliver(10, added("S1", 5), added("S2", 7));
+        String before = version.eTag();
+
+        version.written(time(11));
+        deliver(11, change(DocumentChange.Type.REMOVED, "S2", 7));
+
+        assertThat(version.eTag()).isEqualTo(Versioned.eTag(Map.of("S1", time(5))));
+        assertThat(version.eTag()).isNotEqualTo(before);
+    }
+
+    private void deliver(long readSeconds, DocumentChange... changes) {
+        QuerySnapshot snapshot = mock(QuerySnapshot.class);
+        when(snapshot.getDocumentChanges()).thenReturn(List.of(changes));
+        when(snapshot.getReadTime()).thenReturn(time(readSeconds));
+        listeners.get(listeners.size() - 1).onEvent(snapshot, null);
+    }
+
+    private static DocumentChange added(String id, long updateSeconds) {
+        return change(DocumentChange.Type.ADDED, id, updateSeconds);
+    }
+
+    private static DocumentChange change(DocumentChange.Type type, String id, long updateSeconds) {
+        QueryDocumentSnapshot document = mock(QueryDocumentSnapshot.class);
+        when(document.getId()).thenReturn(id);
+        when(document.getUpdateTime()).thenReturn(time(updateSeconds));
+        DocumentChange change = mock(DocumentChange.class);
+        when(change.getType()).thenReturn(type);
+        when(change.getDocument()).thenReturn(document);
+        return change;
+    }
+
+    private static Timestamp time(long seconds) {
+        return Timestamp.ofTimeSecondsAndNanos(seconds, 0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.srm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FenwickTreeTest {
+
+    @Test
+    void countsValuesAtOrBelowBound() {
+        FenwickTree tree = new FenwickTree(101);
+        tree.add(50, 1);
+        tree.add(50, 1);
+        tree.add(70, 1);
+        tree.add(0, 1);
+
+        assertThat(tree.size()).isEqualTo(4);
+        assertThat(tree.countAtMost(-1)).isZero();
+        assertThat(tree.countAtMost(0)).isEqualTo(1);
+        assertThat(tree.countAtMost(49)).isEqualTo(1);
+        assertThat(tree.countAtMost(50)).isEqualTo(3);
+        assertThat(tree.countAtMost(100)).isEqualTo(4);
+        assertThat(tree.countAtMost(1000)).isEqualTo(4);
+        assertThat(tree.countOf(50)).isEqualTo(2);
+        assertThat(tree.countOf(51)).isZero();
+    }
+
+    @Test
+    void removalCancelsAddition() {
+        FenwickTree tree = new FenwickTree(101);
+        tree.add(80, 1);
+        tree.add(80, -1);
+
+        assertThat(tree.size()).isZero();
+        assertThat(tree.countAtMost(100)).isZero();
+    }
+
+    @Test
+    void growsKeepingCounts() {
+        FenwickTree tree = new FenwickTree(4);
+        tree.add(1, 1);
+        tree.add(3, 2);
+
+        tree.add(37, 1);
+
+        assertThat(tree.countOf(1)).isEqualTo(1);
+        assertThat(tree.countOf(3)).isEqualTo(2);
+        assertThat(tree.countOf(37)).isEqualTo(1);
+        assertThat(tree.countAtMost(36)).isEqualTo(3);
+        assertThat(tree.size()).isEqualTo(4);
+    }
+
+    @Test
+    void clearKeepsCapacity() {
+        FenwickTree tree = new FenwickTree(10);
+        tree.add(9, 3);
+
+        tree.clear();
+        tree.add(9, 1);
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.countAtMost(8)).isZero();
+        assertThat(tree.countOf(9)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsOutOfRangeValue() {
+        assertThatThrownBy(() -> new FenwickTree(10).add(-1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FenwickTree(10).add(Integer.MAX_VALUE, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesBruteForceCounts() {
+        Random random = new Random(42);
+        FenwickTree tree = new FenwickTree(8);
+        long[] counts = new long[500];
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(counts.length);
+            long delta = counts[value] > 0 && random.nextBoolean() ? -1 : 1;
+            tree.add(value, delta);
+            counts[value] += delta;
+        }
+        long atMost = 0;
+        for (int value = 0; value < counts.length; value++) {
+            atMost += counts[value];
+            assertThat(tree.countAtMost(value)).as("values <= %d", value).isEqualTo(atMost);
+        }
+        assertThat(tree.size()).isEqualTo(atMost);
+    }
+}
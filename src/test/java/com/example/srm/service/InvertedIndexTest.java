@@ -0,0 +1,135 @@
+package com.example.srm.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private record Doc(String id, String text) {
+    }
+
+    private InvertedIndex<Doc> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex<>(doc -> List.of(doc.text().split(" ")));
+    }
+
+    private Doc put(String id, String text) {
+        Doc doc = new Doc(id, text);
+        index.put(id, doc);
+        return doc;
+    }
+
+    private List<String> search(String query, int limit) {
+        return index.search(List.of(query.split(" ")), limit).stream().map(Doc::id).toList();
+    }
+
+    @Test
+    void findsItemsContainingEveryTermInIndexOrder() {
+        put("1", "recount marks");
+        put("2", "missing paper");
+        put("3", "recount missing paper");
+        put("4", "paper recount");
+
+        assertThat(search("recount", 10)).containsExactly("1", "3", "4");
+        assertThat(search("paper recount", 10)).containsExactly("3", "4");
+        assertThat(search("paper missing recount", 10)).containsExactly("3");
+        assertThat(search("recount", 2)).containsExactly("1", "3");
+        assertThat(search("recount unknown", 10)).isEmpty();
+        assertThat(index.search(List.of(), 10)).isEmpty();
+    }
+
+    @Test
+    void putWithUnchangedTermsKeepsPosition() {
+        put("1", "recount");
+        put("2", "recount");
+        Doc replaced = put("1", "recount");
+
+        assertThat(index.search(List.of("recount"), 10)).containsExactly(replaced, new Doc("2", "recount"));
+        assertThat(index.search(List.of("recount"), 10).get(0)).isSameAs(replaced);
+    }
+
+    @Test
+    void putWithChangedTermsMovesItemAndDropsOldTerms() {
+        put("1", "recount marks");
+        put("2", "recount");
+
+        put("1", "recount paper");
+
+        assertThat(search("marks", 10)).isEmpty();
+        assertThat(search("paper", 10)).containsExactly("1");
+        assertThat(search("recount", 10)).containsExactly("2", "1");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removedItemsAreNotFound() {
+        put("1", "recount");
+        put("2", "recount");
+
+        index.remove("1");
+        index.remove("unknown");
+
+        assertThat(search("recount", 10)).containsExactly("2");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void intersectionSkipsDeadNumbersAcrossBlocks() {
+        for (int i = 0; i < 5 * PostingList.SKIP_INTERVAL; i++) {
+            put("d" + i, i % 3 == 0 ? "common rare" : "common");
+        }
+        for (int i = 0; i < 5 * PostingList.SKIP_INTERVAL; i += 2) {
+            index.remove("d" + i);
+        }
+
+        List<String> matches = search("rare common", 1000);
+
+        // Live items are the odd numbers; of those, multiples of 3 carry "rare"
+        assertThat(matches).hasSize((int) IntStream.range(0, 5 * PostingList.SKIP_INTERVAL)
+                .filter(i -> i % 2 == 1 && i % 3 == 0).count());
+        assertThat(matches).allMatch(id -> Integer.parseInt(id.substring(1)) % 6 == 3);
+        assertThat(search("rare common", 3)).containsExactly("d3", "d9", "d15");
+    }
+
+    @Test
+    void compactionKeepsLiveItemsAndOrder() {
+        put("keep-1", "alpha beta");
+        // 1024 dead numbers: the compaction threshold, reached without any put seeing it yet
+        for (int i = 0; i < 1024; i++) {
+            put("tmp" + i, "alpha");
+            index.remove("tmp" + i);
+        }
+        long before = index.postingBytes();
+        put("keep-2", "beta alpha");
+        put("keep-3", "alpha");
+
+        assertThat(index.postingBytes()).isLessThan(before);
+        assertThat(search("alpha", 10)).containsExactly("keep-1", "keep-2", "keep-3");
+        assertThat(search("alpha beta", 10)).containsExactly("keep-1", "keep-2");
+        assertThat(index.size()).isEqualTo(3);
+
+        // Items keep working by ID after renumbering
+        put("keep-1", "gamma");
+        index.remove("keep-2");
+        assertThat(search("alpha", 10)).containsExactly("keep-3");
+        assertThat(search("gamma", 10)).containsExactly("keep-1");
+    }
+
+    @Test
+    void clearEmptiesTheIndex() {
+        put("1", "recount");
+
+        index.clear();
+
+        assertThat(index.size()).isZero();
+        assertThat(search("recount", 10)).isEmpty();
+        assertThat(index.postingBytes()).isZero();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.srm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostingListTest {
+
+    private static final int SKIP = PostingList.SKIP_INTERVAL;
+
+    /**
+     * The multiples of 3 below 3 * count: block b starts at 3 * b * SKIP.
+     */
+    private static PostingList multiplesOfThree(int count) {
+        PostingList list = new PostingList();
+        for (int i = 0; i < count; i++) {
+            list.add(3 * i);
+        }
+        return list;
+    }
+
+    @Test
+    void nextReturnsEveryValueAcrossBlocks() {
+        PostingList list = multiplesOfThree(3 * SKIP + 5);
+        PostingList.Cursor cursor = list.cursor();
+
+        for (int i = 0; i < list.size(); i++) {
+            assertThat(cursor.next()).isEqualTo(3 * i);
+        }
+        assertThat(cursor.next()).isEqualTo(PostingList.NO_MORE);
+        assertThat(cursor.next()).isEqualTo(PostingList.NO_MORE);
+    }
+
+    @Test
+    void advanceToBlockStart() {
+        PostingList.Cursor cursor = multiplesOfThree(4 * SKIP).cursor();
+
+        assertThat(cursor.advance(3 * 2 * SKIP)).isEqualTo(3 * 2 * SKIP);
+        assertThat(cursor.next()).isEqualTo(3 * (2 * SKIP + 1));
+    }
+
+    @Test
+    void advanceToLastValueBeforeBlockStart() {
+        PostingList.Cursor cursor = multiplesOfThree(4 * SKIP).cursor();
+
+        assertThat(cursor.advance(3 * (2 * SKIP - 1))).isEqualTo(3 * (2 * SKIP - 1));
+        assertThat(cursor.next()).isEqualTo(3 * 2 * SKIP);
+    }
+
+    @Test
+    void advanceBetweenValuesAcrossBlocks() {
+        PostingList.Cursor cursor = multiplesOfThree(4 * SKIP).cursor();
+
+        assertThat(cursor.advance(1)).isEqualTo(3);
+        // Just past a block start lands on the second value of that block
+        assertThat(cursor.advance(3 * SKIP + 1)).isEqualTo(3 * (SKIP + 1));
+        // Just before a block start lands on the block start
+        assertThat(cursor.advance(3 * 3 * SKIP - 1)).isEqualTo(3 * 3 * SKIP);
+    }
+
+    @Test
+    void advanceWithinCurrentBlockAndBackwards() {
+        PostingList.Cursor cursor = multiplesOfThree(4 * SKIP).cursor();
+        cursor.advance(3 * (SKIP + 10));
+
+        assertThat(cursor.advance(3 * (SKIP + 12))).isEqualTo(3 * (SKIP + 12));
+        // A target at or before the current value stays put
+        assertThat(cursor.advance(5)).isEqualTo(3 * (SKIP + 12));
+    }
+
+    @Test
+    void advancePastEnd() {
+        PostingList.Cursor cursor = multiplesOfThree(2 * SKIP).cursor();
+
+        assertThat(cursor.advance(3 * 2 * SKIP)).isEqualTo(PostingList.NO_MORE);
+        assertThat(new PostingList().cursor().advance(0)).isEqualTo(PostingList.NO_MORE);
+    }
+
+    @Test
+    void advanceMatchesSortedSetCeiling() {
+        Random random = new Random(7);
+        TreeSet<Integer> values = new TreeSet<>();
+        PostingList list = new PostingList();
+        int value = 0;
+        for (int i = 0; i < 20 * SKIP; i++) {
+            // Mostly small gaps with the odd large one, so some gaps need several varint bytes
+            value += random.nextInt(10) == 0 ? 1 + random.nextInt(1 << 20) : 1 + random.nextInt(5);
+            list.add(value);
+            values.add(value);
+        }
+        for (int run = 0; run < 50; run++) {
+            PostingList.Cursor cursor = list.cursor();
+            int target = 0;
+            while (true) {
+                target += random.nextInt(random.nextBoolean() ? 50 : 1 << 21);
+                Integer expected = values.ceiling(target);
+                int actual = cursor.advance(target);
+                assertThat(actual).as("advance(%d)", target).isEqualTo(expected == null ? PostingList.NO_MORE : expected);
+                if (expected == null) {
+                    break;
+                }
+                target = actual;
+            }
+        }
+    }
+
+    @Test
+    void rejectsValuesOutOfOrder() {
+        PostingList list = new PostingList();
+        list.add(5);
+
+        assertThatThrownBy(() -> list.add(5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> list.add(4)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void denseListTakesAboutOneBytePerEntry() {
+        PostingList list = multiplesOfThree(100_000);
+
+        assertThat(list.size()).isEqualTo(100_000);
+        assertThat(list.memoryBytes()).isLessThan(2 * 100_000);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    private PrefixIndex<Student> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex<>(SearchService::studentWords);
+    }
+
+    private void put(String rollNumber, String name) {
+        index.put(rollNumber, new Student(rollNumber, rollNumber, name, null));
+    }
+
+    private List<String> search(String query) {
+        return index.search(query, 10).stream().map(Student::getRollNumber).toList();
+    }
+
+    @Test
+    void splitsAndNormalizesWords() {
+        assertThat(PrefixIndex.words("  Zoë O'Brien-Smith ")).containsExactly("zoe", "o", "brien", "smith");
+        assertThat(PrefixIndex.words("--")).isEmpty();
+        assertThat(PrefixIndex.words(null)).isEmpty();
+    }
+
+    @Test
+    void everyQueryWordMustPrefixSomeWord() {
+        put("S1", "John Smith");
+        put("S2", "Joanna Smithers");
+        put("S3", "John Doe");
+
+        assertThat(search("jo sm")).containsExactlyInAnyOrder("S1", "S2");
+        assertThat(search("SMITH john")).containsExactly("S1");
+        assertThat(search("doe smith")).isEmpty();
+        assertThat(search("!!")).isEmpty();
+    }
+
+    @Test
+    void prefixRangeStopsAtNeighbouringWords() {
+        put("S1", "ab");
+        put("S2", "abz");
+        put("S3", "aa");
+        put("S4", "ac");
+        put("S5", "a");
+
+        assertThat(search("ab")).containsExactly("S1", "S2");
+        assertThat(search("a")).hasSize(5);
+        assertThat(search("abzz")).isEmpty();
+    }
+
+    @Test
+    void exactWordComesBeforeLongerWords() {
+        put("S1", "Annabel");
+        put("S2", "Ann");
+
+        assertThat(search("ann")).containsExactly("S2", "S1");
+    }
+
+    @Test
+    void rollNumbersMatchOnTrailingDigits() {
+        put("SRM001234", "Asha Rao");
+        put("SRM001299", "Ravi Kumar");
+        put("2024", "Numeric Roll");
+
+        assertThat(search("1234")).containsExactly("SRM001234");
+        assertThat(search("0012")).containsExactlyInAnyOrder("SRM001234", "SRM001299");
+        assertThat(search("srm0012")).containsExactlyInAnyOrder("SRM001234", "SRM001299");
+        assertThat(search("234")).isEmpty();
+        assertThat(search("2024")).containsExactly("2024");
+    }
+
+    @Test
+    void replacingAndRemovingUpdateWords() {
+        put("S1", "John Smith");
+        put("S1", "Jane Smith");
+
+        assertThat(search("john")).isEmpty();
+        assertThat(search("jane")).containsExactly("S1");
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove("S1");
+
+        assertThat(search("smith")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void stopsAtLimit() {
+        for (int i = 0; i < 20; i++) {
+            put("S" + i, "Common Name");
+        }
+
+        assertThat(index.search("common", 5)).hasSize(5);
+        assertThat(index.search("common", 0)).isEmpty();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Ranking;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.EventListener;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RankingServiceTest {
+
+    private final List<EventListener<QuerySnapshot>> listeners = new ArrayList<>();
+    private RankingService rankingService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Firestore firestore = mock(Firestore.class);
+        CollectionReference collection = mock(CollectionReference.class);
+        when(firestore.collection(FirestoreService.RESULTS_COLLECTION)).thenReturn(collection);
+        when(collection.addSnapshotListener(any(EventListener.class))).thenAnswer(invocation -> {
+            listeners.add(invocation.getArgument(0));
+            return mock(ListenerRegistration.class);
+        });
+        TranscriptProjection transcriptProjection = new TranscriptProjection(new ReferenceDataCache(), "A=8,B=6");
+        rankingService = new RankingService(transcriptProjection, true, () -> firestore);
+        rankingService.start();
+    }
+
+    @Test
+    void ranksWithinCourse() {
+        deliver(added("r1", "S1", 90), added("r2", "S2", 70), added("r3", "S3", 70));
+
+        Ranking ranking = rankingService.rankInCourse("CS101", "S2");
+
+        assertThat(ranking.getRank()).isEqualTo(2);
+        assertThat(ranking.getCohortSize()).isEqualTo(3);
+        assertThat(rankingService.rankMarksInCourse("CS101", 80).getRank()).isEqualTo(2);
+    }
+
+    @Test
+    void oversizedMarksRankAtTheTopWithoutGrowingTheIndex() {
+        deliver(added("r1", "S1", Integer.MAX_VALUE), added("r2", "S2", 1_000_000_000), added("r3", "S3", 50));
+
+        assertThat(rankingService.rankInCourse("CS101", "S1").getRank()).isEqualTo(1);
+        assertThat(rankingService.rankInCourse("CS101", "S2").getRank()).isEqualTo(1);
+        assertThat(rankingService.rankInCourse("CS101", "S3").getRank()).isEqualTo(3);
+        assertThat(rankingService.rankMarksInCourse("CS101", Integer.MAX_VALUE).getRank()).isEqualTo(1);
+
+        deliver(removed("r1", "S1", Integer.MAX_VALUE));
+
+        assertThat(rankingService.rankInCourse("CS101", "S1")).isNull();
+        assertThat(rankingService.rankInCourse("CS101", "S3").getRank()).isEqualTo(2);
+        assertThat(rankingService.rankInCourse("CS101", "S3").getCohortSize()).isEqualTo(2);
+    }
+
+    private void deliver(DocumentChange... changes) {
+        QuerySnapshot snapshot = mock(QuerySnapshot.class);
+        when(snapshot.getDocumentChanges()).thenReturn(List.of(changes));
+        listeners.get(listeners.size() - 1).onEvent(snapshot, null);
+    }
+
+    private static DocumentChange added(String id, String rollNumber, long marks) {
+        return change(DocumentChange.Type.ADDED, id, rollNumber, marks);
+    }
+
+    private static DocumentChange removed(String id, String rollNumber, long marks) {
+        return change(DocumentChange.Type.REMOVED, id, rollNumber, marks);
+    }
+
+    private static DocumentChange change(DocumentChange.Type type, String id, String rollNumber, long marks) {
+        QueryDocumentSnapshot document = mock(QueryDocumentSnapshot.class);
+        when(document.exists()).thenReturn(true);
+        when(document.getId()).thenReturn(id);
+        when(document.getString("rollNumber")).thenReturn(rollNumber);
+        when(document.getString("courseCode")).thenReturn("CS101");
+        when(document.getString("grade")).thenReturn("A");
+        when(document.getLong("marks")).thenReturn(marks);
+        DocumentChange change = mock(DocumentChange.class);
+        when(change.getType()).thenReturn(type);
+        when(change.getDocument()).thenReturn(document);
+        return change;
+    }
+}
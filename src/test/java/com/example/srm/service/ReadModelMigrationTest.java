@@ -0,0 +1,43 @@
+package com.example.srm.service;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadModelMigrationTest {
+
+    private static DocumentSnapshot document(String id, String courseCode) {
+        DocumentSnapshot document = mock(DocumentSnapshot.class);
+        when(document.getId()).thenReturn(id);
+        when(document.getString("courseCode")).thenReturn(courseCode);
+        return document;
+    }
+
+    @Test
+    void leavesCurrentIdsWithPlusAlone() {
+        assertThat(FirestoreService.legacyReadModelKey(document("C++", "C++"), "courseCode")).isNull();
+        assertThat(FirestoreService.legacyReadModelKey(document("a+b@x.com", "a+b@x.com"), "courseCode")).isNull();
+        assertThat(FirestoreService.legacyReadModelKey(document("CS101", "CS101"), "courseCode")).isNull();
+    }
+
+    @Test
+    void recognisesUrlEncodedIdsByTheirStoredKey() {
+        assertThat(FirestoreService.legacyReadModelKey(document("C%2B%2B", "C++"), "courseCode")).isEqualTo("C++");
+        assertThat(FirestoreService.legacyReadModelKey(document("Intro+to+CS", "Intro to CS"), "courseCode"))
+                .isEqualTo("Intro to CS");
+        assertThat(FirestoreService.legacyReadModelKey(document("CS%2F101", "CS/101"), "courseCode")).isEqualTo("CS/101");
+    }
+
+    @Test
+    void decodesOnlyPercentEncodedIdsWithoutKey() {
+        assertThat(FirestoreService.legacyReadModelKey(document("CS%2F101", null), "courseCode")).isEqualTo("CS/101");
+        assertThatThrownBy(() -> FirestoreService.legacyReadModelKey(document("a+b", null), "courseCode"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FirestoreService.legacyReadModelKey(document("CS%2", null), "courseCode"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
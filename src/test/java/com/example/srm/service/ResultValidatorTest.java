@@ -0,0 +1,42 @@
+package com.example.srm.service;
+
+import com.example.srm.model.Result;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultValidatorTest {
+
+    private static Result result(int marks) {
+        Result result = new Result();
+        result.setRollNumber("SRM001");
+        result.setCourseCode("CS101");
+        result.setGrade("A");
+        result.setMarks(marks);
+        return result;
+    }
+
+    @Test
+    void acceptsMarksWithinRange() {
+        assertThat(ResultValidator.validationError(result(0))).isNull();
+        assertThat(ResultValidator.validationError(result(ResultValidator.MAX_MARKS))).isNull();
+    }
+
+    @Test
+    void rejectsMarksOutsideRange() {
+        assertThat(ResultValidator.validationError(result(-1))).isEqualTo(ResultValidator.REQUIRED_FIELDS_MESSAGE);
+        assertThat(ResultValidator.validationError(result(ResultValidator.MAX_MARKS + 1)))
+                .isEqualTo(ResultValidator.MARKS_RANGE_MESSAGE);
+        assertThat(ResultValidator.validationError(result(Integer.MAX_VALUE)))
+                .isEqualTo(ResultValidator.MARKS_RANGE_MESSAGE);
+    }
+
+    @Test
+    void rejectsMissingFields() {
+        Result result = result(50);
+        result.setCourseCode("");
+
+        assertThat(ResultValidator.validationError(result)).isEqualTo(ResultValidator.REQUIRED_FIELDS_MESSAGE);
+        assertThat(ResultValidator.validationError(null)).isEqualTo(ResultValidator.REQUIRED_FIELDS_MESSAGE);
+    }
+}